@@ -0,0 +1,245 @@
+/*
+ *******************************************************************************
+ * Copyright (C) 2015, International Business Machines Corporation and
+ * others. All Rights Reserved.
+ *******************************************************************************
+ */
+package com.ibm.icu.charset;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+
+import com.ibm.icu.text.UTF16;
+
+/**
+ * Streams text to and from byte channels in a charset, such as the
+ * compressing Unicode encodings SCSU and BOCU-1, through fixed-size
+ * buffers. Text is encoded and decoded piece by piece, so neither the text
+ * nor its bytes need to be held in memory as a whole.
+ *
+ * <p>A codec keeps one encoder, one decoder and their buffers, which are
+ * reused for each text. The byte buffers may be direct buffers, which
+ * channels such as <code>FileChannel</code> read and write without an
+ * intermediate copy. Encoding and decoding do not share any buffers or
+ * state, so a text may be decoded while another one is being encoded in
+ * pieces.
+ *
+ * <p>The channels must be in blocking mode. Unmappable and malformed input,
+ * such as an unpaired surrogate, is reported with a
+ * <code>CharacterCodingException</code>. A codec is not thread-safe.
+ *
+ * <pre>
+ * CharsetChannelCodec codec = new CharsetChannelCodec(
+ *     CharsetICU.forNameICU("SCSU"), 8192, true);
+ * codec.encode(text, channel);
+ * </pre>
+ *
+ * @draft ICU 55
+ * @provisional This API might change or be removed in a future release.
+ */
+public final class CharsetChannelCodec {
+    private final CharsetEncoder encoder;
+    private final CharsetDecoder decoder;
+    /** Encoder output which has not been written to the target channel yet. */
+    private final ByteBuffer encodeBytes;
+    /** Bytes read from the source channel which have not been decoded yet. */
+    private final ByteBuffer decodeBytes;
+    private final CharBuffer chars;
+
+    /**
+     * A lead surrogate at the end of a piece of text, held back until the
+     * next piece, or 0.
+     */
+    private char pendingLead;
+
+    /**
+     * Constructs a codec for the given charset.
+     *
+     * @param charset the charset, for example SCSU or BOCU-1
+     * @param capacity the capacity of each of the byte and char buffers, at least 16
+     * @param direct if true, the byte buffers are allocated as direct buffers
+     * @throws IllegalArgumentException if the capacity is less than 16
+     * @throws UnsupportedOperationException if the charset does not support
+     *         encoding
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public CharsetChannelCodec(Charset charset, int capacity, boolean direct) {
+        if (capacity < 16) {
+            throw new IllegalArgumentException("capacity < 16");
+        }
+        encoder = charset.newEncoder();
+        decoder = charset.newDecoder();
+        encodeBytes = allocate(capacity, direct);
+        decodeBytes = allocate(capacity, direct);
+        chars = CharBuffer.allocate(capacity);
+    }
+
+    /**
+     * Encodes the whole text and writes the bytes to the channel.
+     * The codec is then ready for the next text.
+     *
+     * @param text the text to encode
+     * @param target the channel to which the bytes are written
+     * @throws IOException if the channel fails, or a
+     *         <code>CharacterCodingException</code> if the text cannot be
+     *         encoded
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public void encode(CharSequence text, WritableByteChannel target) throws IOException {
+        encode(CharBuffer.wrap(text), true, target);
+    }
+
+    /**
+     * Encodes the remaining chars of the source buffer and writes the bytes
+     * to the channel. A text may be encoded in several pieces; the encoder
+     * keeps its state between calls until the last piece, for which
+     * <code>endOfInput</code> is true. The codec is then ready for the next
+     * text.
+     *
+     * <p>After an exception, call {@link #reset()} before encoding another
+     * text.
+     *
+     * @param source the chars to encode; all of them are consumed
+     * @param endOfInput true if this is the last piece of the text
+     * @param target the channel to which the bytes are written
+     * @throws IOException if the channel fails, or a
+     *         <code>CharacterCodingException</code> if the text cannot be
+     *         encoded
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public void encode(CharBuffer source, boolean endOfInput, WritableByteChannel target)
+            throws IOException {
+        if (pendingLead != 0 && (source.hasRemaining() || endOfInput)) {
+            // Complete the surrogate pair split between pieces.
+            CharBuffer pair = CharBuffer.allocate(2);
+            pair.put(pendingLead);
+            if (source.hasRemaining()) {
+                pair.put(source.get());
+            }
+            pair.flip();
+            pendingLead = 0;
+            encodeChars(pair, endOfInput && !source.hasRemaining(), target);
+        }
+        int limit = source.limit();
+        if (!endOfInput && source.hasRemaining() &&
+                UTF16.isLeadSurrogate(source.get(limit - 1))) {
+            // Not all encoders keep an unpaired lead surrogate between calls.
+            pendingLead = source.get(limit - 1);
+            source.limit(limit - 1);
+            encodeChars(source, false, target);
+            source.limit(limit).position(limit);
+        } else {
+            encodeChars(source, endOfInput, target);
+        }
+        if (endOfInput) {
+            while (encoder.flush(encodeBytes).isOverflow()) {
+                writeBytes(target);
+            }
+            writeBytes(target);
+            encoder.reset();
+        }
+    }
+
+    /**
+     * Reads bytes from the channel until its end, decodes them and appends
+     * the text to the target. The codec is then ready for the next text.
+     *
+     * @param source the channel from which the bytes are read
+     * @param target the object to which the text is appended, for example
+     *        a <code>StringBuilder</code> or a <code>Writer</code>
+     * @throws IOException if a channel or the target fails, or a
+     *         <code>CharacterCodingException</code> if the bytes are
+     *         malformed
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public void decode(ReadableByteChannel source, Appendable target) throws IOException {
+        try {
+            boolean endOfInput = false;
+            for (;;) {
+                if (!endOfInput && decodeBytes.hasRemaining()) {
+                    endOfInput = source.read(decodeBytes) < 0;
+                }
+                decodeBytes.flip();
+                CoderResult cr = decoder.decode(decodeBytes, chars, endOfInput);
+                decodeBytes.compact();
+                if (cr.isError()) {
+                    cr.throwException();
+                }
+                appendChars(target);
+                if (endOfInput && cr.isUnderflow()) {
+                    break;
+                }
+            }
+            while (decoder.flush(chars).isOverflow()) {
+                appendChars(target);
+            }
+            appendChars(target);
+        } finally {
+            resetDecoder();
+        }
+    }
+
+    /**
+     * Resets the encoder and the decoder and discards buffered data.
+     *
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public void reset() {
+        encoder.reset();
+        pendingLead = 0;
+        encodeBytes.clear();
+        resetDecoder();
+    }
+
+    private void resetDecoder() {
+        decoder.reset();
+        decodeBytes.clear();
+        chars.clear();
+    }
+
+    private static ByteBuffer allocate(int capacity, boolean direct) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    private void encodeChars(CharBuffer source, boolean endOfInput, WritableByteChannel target)
+            throws IOException {
+        for (;;) {
+            CoderResult cr = encoder.encode(source, encodeBytes, endOfInput);
+            if (cr.isOverflow()) {
+                writeBytes(target);
+            } else if (cr.isUnderflow()) {
+                break;
+            } else {
+                cr.throwException();
+            }
+        }
+    }
+
+    private void writeBytes(WritableByteChannel target) throws IOException {
+        encodeBytes.flip();
+        while (encodeBytes.hasRemaining()) {
+            target.write(encodeBytes);
+        }
+        encodeBytes.clear();
+    }
+
+    private void appendChars(Appendable target) throws IOException {
+        chars.flip();
+        if (chars.hasRemaining()) {
+            target.append(chars);
+        }
+        chars.clear();
+    }
+}
@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 2008-2011, International Business Machines Corporation and    *
+ * Copyright (C) 2008-2015, International Business Machines Corporation and    *
  * others. All Rights Reserved.                                                *
  *******************************************************************************
  */
@@ -960,8 +960,8 @@ class CharsetSCSU extends CharsetICU{
                     if(targetCapacity<=0 && !AfterGetTrailUnicode){
                         /*target is full*/
                         cr = CoderResult.OVERFLOW;
-                        LabelLoop = false;
-                        break;
+                        label = EndLoop;
+                        return label;
                     }
                     if(!AfterGetTrailUnicode){
                         c = source.get();
@@ -1126,6 +1126,7 @@ class CharsetSCSU extends CharsetICU{
             } else if(source.hasRemaining() && lead == source.get(source.position()) && (code=getDynamicOffset())>=0){
                 /*two supplementary characters in (probably) the same window - define an extended one*/
                 isSingleByteMode = true;
+                code-=0x200;
                 dynamicWindow = getNextDynamicWindow();
                 currentOffset = data.fromUDynamicOffsets[dynamicWindow] = offset;
                 useDynamicWindow(dynamicWindow);
@@ -1,7 +1,7 @@
 /*
  ******************************************************************************
  *
- *   Copyright (C) 2009-2014, International Business Machines
+ *   Copyright (C) 2009-2015, International Business Machines
  *   Corporation and others.  All Rights Reserved.
  *
  ******************************************************************************
@@ -9,6 +9,8 @@
 
 package com.ibm.icu.impl;
 
+import java.util.HashMap;
+
 import com.ibm.icu.text.UnicodeSet.SpanCondition;
 import com.ibm.icu.util.OutputInt;
 
@@ -18,7 +20,8 @@ import com.ibm.icu.util.OutputInt;
  * Latin-1: Look up bytes.
  * 2-byte characters: Bits organized vertically.
  * 3-byte characters: Use zero/one/mixed data per 64-block in U+0000..U+FFFF, with mixed for illegal ranges.
- * Supplementary characters: Call contains() on the parent set.
+ * Mixed 64-blocks and supplementary characters: Look up one bit in a two-stage table
+ * (like in Trie2) over all of U+0000..U+10FFFF.
  */
 public final class BMPSet {
     public static int U16_SURROGATE_OFFSET = ((0xd800 << 10) + 0xdc00 - 0x10000);
@@ -51,15 +54,32 @@ public final class BMPSet {
     private int[] bmpBlockBits;
 
     /**
-     * Inversion list indexes for restricted binary searches in findCodePoint(), from findCodePoint(U+0800, U+1000,
-     * U+2000, .., U+F000, U+10000). U+0800 is the first 3-byte-UTF-8 code point. Code points below U+0800 are
-     * always looked up in the bit tables. The last pair of indexes is for finding supplementary code points.
+     * Two-stage lookup of one bit per code point, for mixed BMP 64-blocks and for
+     * supplementary code points. With c{20..12}=i1 and c{11..6}=i2,
+     * set.contains(c)==((blockBits[bitsIndex[blockIndex[i1]+i2]] bit c{5..0}) != 0)
+     * 
+     * Each 4k block of code points that is entirely in the set or entirely outside it
+     * shares one of the two uniform bitsIndex blocks at offsets ALL_ZERO_BLOCK and ALL_ONE_BLOCK,
+     * and blockBits[0]=0 and blockBits[1]=-1 are shared by all uniform 64-blocks.
+     * Identical mixed 4k blocks share their bitsIndex block, and identical mixed
+     * 64-blocks share their blockBits word.
+     * 
+     * The tables take 544 bytes for blockIndex and 256 bytes for the uniform blocks,
+     * plus 128 bytes per distinct mixed 4k block and 8 bytes per distinct mixed 64-block.
+     * For example, the sets of the general categories (L, M, N, ...) need 1.4kB to 5kB.
+     * In the worst case, with distinct bits in every 64-block, the tables need about 175kB.
+     * These tables are immutable after construction and shared by clones.
      */
-    private int[] list4kStarts;
+    private char[] blockIndex;
+    private char[] bitsIndex;
+    private long[] blockBits;
+
+    private static final int ALL_ZERO_BLOCK = 0;
+    private static final int ALL_ONE_BLOCK = 64;
 
     /**
-     * The inversion list of the parent set, for the slower contains() implementation for mixed BMP blocks and for
-     * supplementary code points. The list is terminated with list[listLength-1]=0x110000.
+     * The inversion list of the parent set, only used while building the tables.
+     * The list is terminated with list[listLength-1]=0x110000.
      */
     private final int[] list;
     private final int listLength; // length used; list may be longer to minimize reallocs
@@ -70,21 +90,9 @@ public final class BMPSet {
         latin1Contains = new boolean[0x100];
         table7FF = new int[64];
         bmpBlockBits = new int[64];
-        list4kStarts = new int[18];
-
-        /*
-         * Set the list indexes for binary searches for U+0800, U+1000, U+2000, .., U+F000, U+10000. U+0800 is the
-         * first 3-byte-UTF-8 code point. Lower code points are looked up in the bit tables. The last pair of
-         * indexes is for finding supplementary code points.
-         */
-        list4kStarts[0] = findCodePoint(0x800, 0, listLength - 1);
-        int i;
-        for (i = 1; i <= 0x10; ++i) {
-            list4kStarts[i] = findCodePoint(i << 12, list4kStarts[i - 1], listLength - 1);
-        }
-        list4kStarts[0x11] = listLength - 1;
 
         initBits();
+        initBlockBits();
     }
 
     public BMPSet(final BMPSet otherBMPSet, final int[] newParentList, int newParentListLength) {
@@ -93,7 +101,10 @@ public final class BMPSet {
         latin1Contains = otherBMPSet.latin1Contains.clone();
         table7FF = otherBMPSet.table7FF.clone();
         bmpBlockBits = otherBMPSet.bmpBlockBits.clone();
-        list4kStarts = otherBMPSet.list4kStarts.clone();
+        // Immutable, can be shared.
+        blockIndex = otherBMPSet.blockIndex;
+        bitsIndex = otherBMPSet.bitsIndex;
+        blockBits = otherBMPSet.blockBits;
     }
 
     public boolean contains(int c) {
@@ -109,12 +120,12 @@ public final class BMPSet {
                 // are either in the set or not.
                 return (0 != twoBits);
             } else {
-                // Look up the code point in its 4k block of code points.
-                return containsSlow(c, list4kStarts[lead], list4kStarts[lead + 1]);
+                // Look up the code point's bit in its mixed 64-block.
+                return containsFromBlockBits(c);
             }
         } else if (c <= 0x10ffff) {
             // surrogate or supplementary code point
-            return containsSlow(c, list4kStarts[0xd], list4kStarts[0x11]);
+            return containsFromBlockBits(c);
         } else {
             // Out-of-range code points get false, consistent with long-standing
             // behavior of UnicodeSet.contains(c).
@@ -163,15 +174,15 @@ public final class BMPSet {
                             break;
                         }
                     } else {
-                        // Look up the code point in its 4k block of code points.
-                        if (!containsSlow(c, list4kStarts[lead], list4kStarts[lead + 1])) {
+                        // Look up the code point's bit in its mixed 64-block.
+                        if (!containsFromBlockBits(c)) {
                             break;
                         }
                     }
                 } else {
                     // surrogate pair
                     int supplementary = UCharacterProperty.getRawSupplementary(c, c2);
-                    if (!containsSlow(supplementary, list4kStarts[0x10], list4kStarts[0x11])) {
+                    if (!containsFromBlockBits(supplementary)) {
                         break;
                     }
                     ++numSupplementary;
@@ -202,15 +213,15 @@ public final class BMPSet {
                             break;
                         }
                     } else {
-                        // Look up the code point in its 4k block of code points.
-                        if (containsSlow(c, list4kStarts[lead], list4kStarts[lead + 1])) {
+                        // Look up the code point's bit in its mixed 64-block.
+                        if (containsFromBlockBits(c)) {
                             break;
                         }
                     }
                 } else {
                     // surrogate pair
                     int supplementary = UCharacterProperty.getRawSupplementary(c, c2);
-                    if (containsSlow(supplementary, list4kStarts[0x10], list4kStarts[0x11])) {
+                    if (containsFromBlockBits(supplementary)) {
                         break;
                     }
                     ++numSupplementary;
@@ -248,8 +259,8 @@ public final class BMPSet {
                     if ((table7FF[c & 0x3f] & (1 << (c >> 6))) == 0) {
                         break;
                     }
-                } else if (c < 0xd800 ||
-                           c < 0xdc00 || 0 == limit || (c2 = s.charAt(limit - 1)) < 0xd800 || c2 >= 0xdc00) {
+                } else if (c < 0xdc00 || c >= 0xe000 ||
+                           0 == limit || (c2 = s.charAt(limit - 1)) < 0xd800 || c2 >= 0xdc00) {
                     int lead = c >> 12;
                     int twoBits = (bmpBlockBits[(c >> 6) & 0x3f] >> lead) & 0x10001;
                     if (twoBits <= 1) {
@@ -259,15 +270,15 @@ public final class BMPSet {
                             break;
                         }
                     } else {
-                        // Look up the code point in its 4k block of code points.
-                        if (!containsSlow(c, list4kStarts[lead], list4kStarts[lead + 1])) {
+                        // Look up the code point's bit in its mixed 64-block.
+                        if (!containsFromBlockBits(c)) {
                             break;
                         }
                     }
                 } else {
                     // surrogate pair
                     int supplementary = UCharacterProperty.getRawSupplementary(c2, c);
-                    if (!containsSlow(supplementary, list4kStarts[0x10], list4kStarts[0x11])) {
+                    if (!containsFromBlockBits(supplementary)) {
                         break;
                     }
                     --limit;
@@ -288,8 +299,8 @@ public final class BMPSet {
                     if ((table7FF[c & 0x3f] & (1 << (c >> 6))) != 0) {
                         break;
                     }
-                } else if (c < 0xd800 ||
-                           c < 0xdc00 || 0 == limit || (c2 = s.charAt(limit - 1)) < 0xd800 || c2 >= 0xdc00) {
+                } else if (c < 0xdc00 || c >= 0xe000 ||
+                           0 == limit || (c2 = s.charAt(limit - 1)) < 0xd800 || c2 >= 0xdc00) {
                     int lead = c >> 12;
                     int twoBits = (bmpBlockBits[(c >> 6) & 0x3f] >> lead) & 0x10001;
                     if (twoBits <= 1) {
@@ -299,15 +310,15 @@ public final class BMPSet {
                             break;
                         }
                     } else {
-                        // Look up the code point in its 4k block of code points.
-                        if (containsSlow(c, list4kStarts[lead], list4kStarts[lead + 1])) {
+                        // Look up the code point's bit in its mixed 64-block.
+                        if (containsFromBlockBits(c)) {
                             break;
                         }
                     }
                 } else {
                     // surrogate pair
                     int supplementary = UCharacterProperty.getRawSupplementary(c2, c);
-                    if (containsSlow(supplementary, list4kStarts[0x10], list4kStarts[0x11])) {
+                    if (containsFromBlockBits(supplementary)) {
                         break;
                     }
                     --limit;
@@ -456,6 +467,133 @@ public final class BMPSet {
         }
     }
 
+    /**
+     * Builds the two-stage bit tables for all code points.
+     * Each 4k block without an inversion list boundary inside it
+     * shares a uniform block. Mixed 4k blocks with the same bits share
+     * their 64 bitsIndex entries, and each distinct mixed 64-bit word is stored once.
+     */
+    private void initBlockBits() {
+        blockIndex = new char[0x110];
+        char[] index = new char[ALL_ONE_BLOCK + 64 + 8 * 64];
+        for (int i = ALL_ONE_BLOCK; i < ALL_ONE_BLOCK + 64; ++i) {
+            index[i] = 1;
+        }
+        int indexLength = ALL_ONE_BLOCK + 64;
+        long[] bits = new long[64];
+        bits[1] = -1;
+        int bitsLength = 2;
+        long[] block = new long[64];
+        char[] indexBlock = new char[64];
+        // Maps each mixed 64-bit word to its blockBits offset, so that identical words are stored once.
+        HashMap<Long, Integer> bitsOffsets = new HashMap<Long, Integer>();
+
+        for (int b = 0; b < 0x110; ++b) {
+            int blockStart = b << 12;
+            int blockLimit = blockStart + 0x1000;
+            int i = findCodePoint(blockStart, 0, listLength - 1);
+            if (list[i] >= blockLimit) {
+                // No range boundary in this 4k block.
+                blockIndex[b] = (char)((i & 1) != 0 ? ALL_ONE_BLOCK : ALL_ZERO_BLOCK);
+                continue;
+            }
+            // Set the bits for the parts of the ranges that overlap with this block.
+            for (int j = 0; j < 64; ++j) {
+                block[j] = 0;
+            }
+            int start = blockStart;
+            boolean inSet = (i & 1) != 0;
+            while (start < blockLimit) {
+                int limit = list[i] < blockLimit ? list[i] : blockLimit;
+                if (inSet) {
+                    setBits(block, start - blockStart, limit - blockStart);
+                }
+                start = limit;
+                inSet = !inSet;
+                ++i;
+            }
+            for (int j = 0; j < 64; ++j) {
+                long value = block[j];
+                int bitsOffset;
+                if (value == 0) {
+                    bitsOffset = 0;
+                } else if (value == -1) {
+                    bitsOffset = 1;
+                } else {
+                    Integer known = bitsOffsets.get(value);
+                    if (known != null) {
+                        bitsOffset = known;
+                    } else {
+                        if (bitsLength == bits.length) {
+                            long[] newBits = new long[2 * bits.length];
+                            System.arraycopy(bits, 0, newBits, 0, bitsLength);
+                            bits = newBits;
+                        }
+                        bits[bitsLength] = value;
+                        bitsOffset = bitsLength++;
+                        bitsOffsets.put(value, bitsOffset);
+                    }
+                }
+                indexBlock[j] = (char)bitsOffset;
+            }
+            // Share an identical mixed bitsIndex block if there is one.
+            int blockOffset = findIndexBlock(index, indexLength, indexBlock);
+            if (blockOffset < 0) {
+                if (indexLength + 64 > index.length) {
+                    char[] newIndex = new char[2 * index.length];
+                    System.arraycopy(index, 0, newIndex, 0, indexLength);
+                    index = newIndex;
+                }
+                blockOffset = indexLength;
+                System.arraycopy(indexBlock, 0, index, indexLength, 64);
+                indexLength += 64;
+            }
+            blockIndex[b] = (char)blockOffset;
+        }
+
+        // Trim the tables to their used lengths.
+        bitsIndex = new char[indexLength];
+        System.arraycopy(index, 0, bitsIndex, 0, indexLength);
+        blockBits = new long[bitsLength];
+        System.arraycopy(bits, 0, blockBits, 0, bitsLength);
+    }
+
+    /**
+     * Returns the offset of a mixed 64-entry block in index[ALL_ONE_BLOCK+64..indexLength-1]
+     * that is equal to indexBlock, or -1 if there is none.
+     */
+    private static int findIndexBlock(char[] index, int indexLength, char[] indexBlock) {
+        for (int offset = ALL_ONE_BLOCK + 64; offset < indexLength; offset += 64) {
+            int j = 0;
+            while (j < 64 && index[offset + j] == indexBlock[j]) {
+                ++j;
+            }
+            if (j == 64) {
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Set bits start..limit-1 in a 4096-bit block. 0<=start<limit<=0x1000
+     */
+    private static void setBits(long[] block, int start, int limit) {
+        int i = start >> 6;
+        int limitIndex = (limit - 1) >> 6;
+        // Bits from start to the end of its long, then full longs, then up to limit.
+        long firstMask = -1L << start;  // uses start&0x3f
+        long lastMask = -1L >>> (63 - ((limit - 1) & 0x3f));
+        if (i == limitIndex) {
+            block[i] |= firstMask & lastMask;
+            return;
+        }
+        block[i++] |= firstMask;
+        while (i < limitIndex) {
+            block[i++] = -1;
+        }
+        block[limitIndex] |= lastMask;
+    }
 
     /**
      * Same as UnicodeSet.findCodePoint(int c) except that the binary search is restricted for finding code
@@ -506,8 +644,9 @@ public final class BMPSet {
         return hi;
     }
 
-    private final boolean containsSlow(int c, int lo, int hi) {
-        return (0 != (findCodePoint(c, lo, hi) & 1));
+    private final boolean containsFromBlockBits(int c) {
+        // Java's long shift uses only the lower 6 bits of c.
+        return (blockBits[bitsIndex[blockIndex[c >> 12] + ((c >> 6) & 0x3f)]] & (1L << c)) != 0;
     }
 }
 
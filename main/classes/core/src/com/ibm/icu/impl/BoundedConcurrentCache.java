@@ -0,0 +1,114 @@
+/*
+ *******************************************************************************
+ * Copyright (C) 2015, International Business Machines Corporation and
+ * others. All Rights Reserved.
+ *******************************************************************************
+ */
+package com.ibm.icu.impl;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A thread-safe cache holding at most a fixed number of entries.
+ * <p>
+ * Unlike {@link SimpleCache}, lookups do not take a lock, and the entries
+ * are strongly referenced, so the cache is not dropped as a whole on
+ * garbage collection. When a put makes the cache exceed its maximum size,
+ * arbitrary entries are evicted until the size is back within bounds.
+ * <p>
+ * Null keys and values are not stored; get(null) returns null and a put with
+ * a null key or value is ignored.
+ *
+ * @param <K> Cache lookup key type
+ * @param <V> Cache value type
+ */
+public class BoundedConcurrentCache<K, V> implements ICUCache<K, V> {
+    private final ConcurrentHashMap<K, V> map;
+    private final AtomicInteger size = new AtomicInteger();
+    private final int maxSize;
+
+    /**
+     * Creates a cache holding up to maxSize entries.
+     *
+     * @param maxSize the maximum number of entries, must be positive.
+     */
+    public BoundedConcurrentCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        map = new ConcurrentHashMap<K, V>(Math.min(maxSize, 64));
+    }
+
+    public V get(Object key) {
+        if (key == null) {
+            return null;
+        }
+        return map.get(key);
+    }
+
+    public void put(K key, V value) {
+        if (key == null || value == null) {
+            return;
+        }
+        if (map.put(key, value) == null) {
+            added(key);
+        }
+    }
+
+    /**
+     * Stores the value unless the key is already mapped, and returns the
+     * value which is now cached for the key. This can be used to intern
+     * instances: all callers racing on the same key get the same instance,
+     * as long as it has not been evicted.
+     *
+     * @param key the key
+     * @param value the value to store if the key is absent
+     * @return the cached value for the key, or value if key or value is null.
+     */
+    public V putIfAbsent(K key, V value) {
+        if (key == null || value == null) {
+            return value;
+        }
+        V cached = map.putIfAbsent(key, value);
+        if (cached != null) {
+            return cached;
+        }
+        added(key);
+        return value;
+    }
+
+    public void clear() {
+        // Remove entry by entry, so that size stays consistent with
+        // concurrent puts.
+        for (Iterator<K> it = map.keySet().iterator(); it.hasNext();) {
+            if (map.remove(it.next()) != null) {
+                size.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of entries currently cached.
+     *
+     * @return the number of entries.
+     */
+    public int size() {
+        return map.size();
+    }
+
+    private void added(K key) {
+        if (size.incrementAndGet() <= maxSize) {
+            return;
+        }
+        for (Iterator<K> it = map.keySet().iterator(); it.hasNext() && size.get() > maxSize;) {
+            K k = it.next();
+            // Keep the entry just added
+            if (!k.equals(key) && map.remove(k) != null) {
+                size.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * ********************************************************************************
+ * Copyright (C) 2015, International Business Machines Corporation and others.
+ * All Rights Reserved.
+ * ********************************************************************************
+ */
+package com.ibm.icu.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+
+import com.ibm.icu.impl.TextTrieMap.ResultHandler;
+import com.ibm.icu.lang.UCharacter;
+import com.ibm.icu.util.BytesTrie.Result;
+import com.ibm.icu.util.CharsTrie;
+import com.ibm.icu.util.CharsTrieBuilder;
+import com.ibm.icu.util.ICUCloneNotSupportedException;
+import com.ibm.icu.util.StringTrieBuilder;
+
+/**
+ * CompactTextTrieMap is an immutable, build-once counterpart of
+ * {@link TextTrieMap}. The keys are serialized into a single
+ * {@link CharsTrie} whose values are indexes into an array of value
+ * lists, which takes a small fraction of the memory used by the linked
+ * node tree of TextTrieMap.
+ * <p>
+ * An instance is created by {@link Builder}. Once built, it can be
+ * searched by multiple threads concurrently without any synchronization.
+ */
+public final class CompactTextTrieMap<V> {
+
+    // Looks up first characters in a table; cloned for each search.
+    private final CharsTrie _trie;
+    private final List<V>[] _values;
+    private final List<V> _emptyKeyValues;
+    private final boolean _ignoreCase;
+
+    private CompactTextTrieMap(String trieChars, List<V>[] values, List<V> emptyKeyValues,
+            boolean ignoreCase) {
+        _trie = trieChars == null ? null : new CharsTrie(trieChars, 0).withFirstUnitTable();
+        _values = values;
+        _emptyKeyValues = emptyKeyValues;
+        _ignoreCase = ignoreCase;
+    }
+
+    /**
+     * Returns true if this map matches keys with simple case folding.
+     *
+     * @return true if this map is case insensitive.
+     */
+    public boolean isIgnoreCase() {
+        return _ignoreCase;
+    }
+
+    /**
+     * Returns the number of distinct keys in this map. Keys only differing
+     * in case are counted once in a case insensitive map.
+     *
+     * @return the number of distinct keys.
+     */
+    public int size() {
+        return _emptyKeyValues == null ? _values.length : _values.length + 1;
+    }
+
+    /**
+     * Gets an iterator of the objects associated with the
+     * longest prefix matching string key starting at the
+     * specified position.
+     *
+     * @param text The text to be matched with prefixes.
+     * @param start The start index of of the text
+     * @param matchLen If not null, receives the length of the longest match
+     * in matchLen[0].
+     * @return An iterator of the objects associated with the
+     * longest prefix matching matching key, or null if no
+     * matching entry is found.
+     */
+    public Iterator<V> get(CharSequence text, int start, int[] matchLen) {
+        int len = 0;
+        List<V> match = null;
+        if (_trie != null) {
+            CharsTrie trie = newTrie();
+            int idx = start;
+            int limit = text.length();
+            while (idx < limit) {
+                int cp = Character.codePointAt(text, idx);
+                idx += Character.charCount(cp);
+                Result result = trie.nextForCodePoint(_ignoreCase ? UCharacter.foldCase(cp, true) : cp);
+                if (result.hasValue()) {
+                    len = idx - start;
+                    match = _values[trie.getValue()];
+                }
+                if (!result.hasNext()) {
+                    break;
+                }
+            }
+        }
+        if (matchLen != null && matchLen.length > 0) {
+            matchLen[0] = len;
+        }
+        return match == null ? null : match.iterator();
+    }
+
+    /**
+     * Finds all keys which are prefixes of the text starting at the specified
+     * position and reports them to the handler, shortest first. The search
+     * stops when the handler returns false.
+     *
+     * @param text The text to be matched with prefixes.
+     * @param start The start index of the text
+     * @param handler The handler receiving the matches
+     */
+    public void find(CharSequence text, int start, ResultHandler<V> handler) {
+        if (_emptyKeyValues != null) {
+            // The empty key is not stored in the CharsTrie
+            if (!handler.handlePrefixMatch(0, _emptyKeyValues.iterator())) {
+                return;
+            }
+        }
+        if (_trie == null) {
+            return;
+        }
+        CharsTrie trie = newTrie();
+        int idx = start;
+        int limit = text.length();
+        while (idx < limit) {
+            int cp = Character.codePointAt(text, idx);
+            idx += Character.charCount(cp);
+            Result result = trie.nextForCodePoint(_ignoreCase ? UCharacter.foldCase(cp, true) : cp);
+            if (result.hasValue()) {
+                if (!handler.handlePrefixMatch(idx - start, _values[trie.getValue()].iterator())) {
+                    return;
+                }
+            }
+            if (!result.hasNext()) {
+                return;
+            }
+        }
+    }
+
+    private CharsTrie newTrie() {
+        try {
+            return (CharsTrie) _trie.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new ICUCloneNotSupportedException(e);
+        }
+    }
+
+    /**
+     * Builder class for CompactTextTrieMap. A builder is not thread safe.
+     */
+    public static final class Builder<V> {
+        private final boolean _ignoreCase;
+        private HashMap<String, List<V>> _map = new HashMap<String, List<V>>();
+        private List<String> _keys = new ArrayList<String>();
+
+        /**
+         * Constructs a builder.
+         *
+         * @param ignoreCase true to use simple case insensitive match
+         */
+        public Builder(boolean ignoreCase) {
+            _ignoreCase = ignoreCase;
+        }
+
+        /**
+         * Adds the text key and its associated object. Multiple objects
+         * can be associated with a key; they are returned in the order
+         * they were added.
+         *
+         * @param text The text.
+         * @param val The value object associated with the text.
+         * @return this builder
+         */
+        public Builder<V> put(CharSequence text, V val) {
+            if (_map == null) {
+                throw new IllegalStateException("Builder has already been built");
+            }
+            String key = _ignoreCase ? fold(text) : text.toString();
+            List<V> values = _map.get(key);
+            if (values == null) {
+                values = new ArrayList<V>(1);
+                _map.put(key, values);
+                _keys.add(key);
+            }
+            values.add(val);
+            return this;
+        }
+
+        /**
+         * Builds an immutable CompactTextTrieMap from the entries added so far.
+         * The builder cannot be used after this call.
+         *
+         * @return a new CompactTextTrieMap.
+         */
+        @SuppressWarnings("unchecked")
+        public CompactTextTrieMap<V> build() {
+            if (_map == null) {
+                throw new IllegalStateException("Builder has already been built");
+            }
+            List<V> emptyKeyValues = _map.remove("");
+            if (emptyKeyValues != null) {
+                _keys.remove("");
+                emptyKeyValues = Collections.unmodifiableList(emptyKeyValues);
+            }
+            List<V>[] values = new List[_keys.size()];
+            String trieChars = null;
+            if (values.length > 0) {
+                CharsTrieBuilder builder = new CharsTrieBuilder();
+                for (int i = 0; i < values.length; i++) {
+                    String key = _keys.get(i);
+                    List<V> list = _map.get(key);
+                    values[i] = list.size() == 1 ?
+                            Collections.singletonList(list.get(0)) : Collections.unmodifiableList(list);
+                    builder.add(key, i);
+                }
+                trieChars = builder.buildCharSequence(StringTrieBuilder.Option.SMALL).toString();
+            }
+            _map = null;
+            _keys = null;
+            return new CompactTextTrieMap<V>(trieChars, values, emptyKeyValues, _ignoreCase);
+        }
+
+        private static String fold(CharSequence text) {
+            StringBuilder buf = new StringBuilder(text.length());
+            for (int i = 0; i < text.length();) {
+                int cp = Character.codePointAt(text, i);
+                i += Character.charCount(cp);
+                buf.appendCodePoint(UCharacter.foldCase(cp, true));
+            }
+            return buf.toString();
+        }
+    }
+}
@@ -179,6 +179,15 @@ public  class ICUResourceBundle extends UResourceBundle {
     WholeBundle wholeBundle;
     private ICUResourceBundle container;
 
+    /**
+     * Memo of paths resolved with fallback from a top-level bundle, see resolveWithFallback().
+     * Only found resources are recorded, and at most RESOLVED_PATHS_MAX_SIZE of them,
+     * so that lookups of arbitrary paths do not grow the bundle.
+     */
+    private volatile BoundedConcurrentCache<String, ResolvedResource> resolvedPaths;
+
+    private static final int RESOLVED_PATHS_MAX_SIZE = 128;
+
     /**
      * Returns a functionally equivalent locale, considering keywords as well, for the specified keyword.
      * @param baseName resource specifier
@@ -428,14 +437,15 @@ public  class ICUResourceBundle extends UResourceBundle {
         return findResourceWithFallback(path, this, null);
     }
     public String findStringWithFallback(String path) {
-        return findStringWithFallback(path, this, null);
+        ResolvedResource resolved = resolveWithFallback(path);
+        return resolved == null ? null : resolved.getString();
     }
 
     // will throw type mismatch exception if the resource is not a string
     public String getStringWithFallback(String path) throws MissingResourceException {
         // Optimized form of getWithFallback(path).getString();
-        ICUResourceBundle actualBundle = this;
-        String result = findStringWithFallback(path, actualBundle, null);
+        ResolvedResource resolved = resolveWithFallback(path);
+        String result = resolved == null ? null : resolved.getString();
 
         if (result == null) {
             throw new MissingResourceException(
@@ -450,6 +460,87 @@ public  class ICUResourceBundle extends UResourceBundle {
         return result;
     }
 
+    /**
+     * Like getWithFallback(path).getIntVector() but without creating intermediate
+     * ICUResourceBundle objects.
+     * Will throw type mismatch exception if the resource is not an int vector.
+     *
+     * @param path the path to the resource
+     * @return the int vector
+     * @exception MissingResourceException If a resource was not found.
+     */
+    public int[] getIntVectorWithFallback(String path) throws MissingResourceException {
+        ResolvedResource resolved = resolveWithFallback(path);
+        if (resolved == null) {
+            throw new MissingResourceException(
+                "Can't find resource for bundle "
+                + this.getClass().getName() + ", key " + getType(),
+                path, getKey());
+        }
+        return resolved.getIntVector();
+    }
+
+    /**
+     * Resolves the path with locale fallback, using the memo of a top-level bundle.
+     * @return the resolved resource, or null if not found
+     */
+    private ResolvedResource resolveWithFallback(String path) {
+        if (container != null) {
+            // Only top-level bundles are long-lived enough to be worth a memo.
+            return findResolvedWithFallback(path, this, null);
+        }
+        BoundedConcurrentCache<String, ResolvedResource> memo = resolvedPaths;
+        if (memo == null) {
+            memo = new BoundedConcurrentCache<String, ResolvedResource>(RESOLVED_PATHS_MAX_SIZE);
+            resolvedPaths = memo;  // racing threads may each create one; any of them is fine
+        }
+        ResolvedResource resolved = memo.get(path);
+        if (resolved == null) {
+            resolved = findResolvedWithFallback(path, this, null);
+            // A null (missing) resource is not stored.
+            memo.put(path, resolved);
+        }
+        return resolved;
+    }
+
+    /**
+     * The location of a resource found by a path lookup: a resource item in a reader,
+     * or the bundle obtained by following an alias. Immutable.
+     */
+    private static final class ResolvedResource {
+        private final ICUResourceBundleReader reader;
+        private final int res;
+        private final ICUResourceBundle aliased;
+
+        ResolvedResource(ICUResourceBundleReader reader, int res, ICUResourceBundle aliased) {
+            this.reader = reader;
+            this.res = res;
+            this.aliased = aliased;
+        }
+
+        String getString() {
+            if (aliased != null) {
+                return aliased.getString();  // string from alias handling
+            }
+            String s = reader.getString(res);
+            if (s == null) {
+                throw new UResourceTypeMismatchException("");
+            }
+            return s;
+        }
+
+        int[] getIntVector() {
+            if (aliased != null) {
+                return aliased.getIntVector();
+            }
+            int[] v = reader.getIntVector(res);
+            if (v == null) {
+                throw new UResourceTypeMismatchException("");
+            }
+            return v;
+        }
+    }
+
     /**
      * Return a set of the locale names supported by a collection of resource
      * bundles.
@@ -865,10 +956,10 @@ public  class ICUResourceBundle extends UResourceBundle {
     }
 
     /**
-     * Like findResourceWithFallback(...).getString() but with minimal creation of intermediate
-     * ICUResourceBundle objects.
+     * Like findResourceWithFallback(...) but returns the location of the resource
+     * with minimal creation of intermediate ICUResourceBundle objects.
      */
-    private static final String findStringWithFallback(String path,
+    private static final ResolvedResource findResolvedWithFallback(String path,
             UResourceBundle actualBundle, UResourceBundle requested) {
         if (path.length() == 0) {
             return null;
@@ -929,15 +1020,7 @@ public  class ICUResourceBundle extends UResourceBundle {
                 }
                 if (depth == keys.length) {
                     // We found it.
-                    if (sub != null) {
-                        return sub.getString();  // string from alias handling
-                    } else {
-                        String s = reader.getString(res);
-                        if (s == null) {
-                            throw new UResourceTypeMismatchException("");
-                        }
-                        return s;
-                    }
+                    return new ResolvedResource(reader, res, sub);
                 }
                 if (sub != null) {
                     base = sub;
@@ -83,13 +83,35 @@ public final class Norm2AllModes {
         }
 
         // normalize
+        // Each of these first spans the quick-check "yes" prefix of the source,
+        // which is copied as is, and only normalizes the remainder.
+        // The prefix ends at a normalization boundary, so the remainder
+        // can be processed like the second string in normalizeSecondAndAppend().
+        @Override
+        public String normalize(CharSequence src) {
+            int length=src.length();
+            int spanLength=spanQuickCheckYes(src);
+            if(spanLength==length) {
+                return src.toString();  // Returns src itself if it is a String.
+            }
+            StringBuilder dest=new StringBuilder(length+16).append(src, 0, spanLength);
+            normalizeAndAppend(src, spanLength, length, true,
+                               new Normalizer2Impl.ReorderingBuffer(impl, dest, length));
+            return dest.toString();
+        }
         @Override
         public StringBuilder normalize(CharSequence src, StringBuilder dest) {
             if(dest==src) {
                 throw new IllegalArgumentException();
             }
             dest.setLength(0);
-            normalize(src, new Normalizer2Impl.ReorderingBuffer(impl, dest, src.length()));
+            int length=src.length();
+            int spanLength=spanQuickCheckYes(src);
+            dest.append(src, 0, spanLength);
+            if(spanLength<length) {
+                normalizeAndAppend(src, spanLength, length, true,
+                                   new Normalizer2Impl.ReorderingBuffer(impl, dest, length));
+            }
             return dest;
         }
         @Override
@@ -97,13 +119,21 @@ public final class Norm2AllModes {
             if(dest==src) {
                 throw new IllegalArgumentException();
             }
-            Normalizer2Impl.ReorderingBuffer buffer=
-                new Normalizer2Impl.ReorderingBuffer(impl, dest, src.length());
-            normalize(src, buffer);
-            buffer.flush();
+            int length=src.length();
+            int spanLength=spanQuickCheckYes(src);
+            try {
+                dest.append(src, 0, spanLength);
+            } catch(IOException e) {
+                throw new ICUUncheckedIOException(e);  // Avoid declaring "throws IOException".
+            }
+            if(spanLength<length) {
+                Normalizer2Impl.ReorderingBuffer buffer=
+                    new Normalizer2Impl.ReorderingBuffer(impl, dest, length-spanLength);
+                normalizeAndAppend(src, spanLength, length, true, buffer);
+                buffer.flush();
+            }
             return dest;
         }
-        protected abstract void normalize(CharSequence src, Normalizer2Impl.ReorderingBuffer buffer);
 
         // normalize and append
         @Override
@@ -119,13 +149,28 @@ public final class Norm2AllModes {
             if(first==second) {
                 throw new IllegalArgumentException();
             }
+            int length=second.length();
+            int start=0;
+            if(doNormalize && first.length()==0) {
+                // Nothing to merge with: Copy the "yes" prefix without a ReorderingBuffer.
+                start=spanQuickCheckYes(second);
+                first.append(second, 0, start);
+                if(start==length) {
+                    return first;
+                }
+            }
             normalizeAndAppend(
-                second, doNormalize,
-                new Normalizer2Impl.ReorderingBuffer(impl, first, first.length()+second.length()));
+                second, start, length, doNormalize,
+                new Normalizer2Impl.ReorderingBuffer(impl, first, first.length()+length-start));
             return first;
         }
+        /**
+         * Normalizes src[start, limit[ (if doNormalize) and appends it to the buffer,
+         * merging it with the buffer contents at the boundary.
+         */
         protected abstract void normalizeAndAppend(
-                CharSequence src, boolean doNormalize, Normalizer2Impl.ReorderingBuffer buffer);
+                CharSequence src, int start, int limit, boolean doNormalize,
+                Normalizer2Impl.ReorderingBuffer buffer);
 
         @Override
         public String getDecomposition(int c) {
@@ -167,14 +212,11 @@ public final class Norm2AllModes {
             super(ni);
         }
 
-        @Override
-        protected void normalize(CharSequence src, Normalizer2Impl.ReorderingBuffer buffer) {
-            impl.decompose(src, 0, src.length(), buffer);
-        }
         @Override
         protected void normalizeAndAppend(
-                CharSequence src, boolean doNormalize, Normalizer2Impl.ReorderingBuffer buffer) {
-            impl.decomposeAndAppend(src, doNormalize, buffer);
+                CharSequence src, int start, int limit, boolean doNormalize,
+                Normalizer2Impl.ReorderingBuffer buffer) {
+            impl.decomposeAndAppend(src, start, limit, doNormalize, buffer);
         }
         @Override
         public int spanQuickCheckYes(CharSequence s) {
@@ -198,14 +240,11 @@ public final class Norm2AllModes {
             onlyContiguous=fcc;
         }
 
-        @Override
-        protected void normalize(CharSequence src, Normalizer2Impl.ReorderingBuffer buffer) {
-            impl.compose(src, 0, src.length(), onlyContiguous, true, buffer);
-        }
         @Override
         protected void normalizeAndAppend(
-                CharSequence src, boolean doNormalize, Normalizer2Impl.ReorderingBuffer buffer) {
-            impl.composeAndAppend(src, doNormalize, onlyContiguous, buffer);
+                CharSequence src, int start, int limit, boolean doNormalize,
+                Normalizer2Impl.ReorderingBuffer buffer) {
+            impl.composeAndAppend(src, start, limit, doNormalize, onlyContiguous, buffer);
         }
 
         @Override
@@ -253,14 +292,11 @@ public final class Norm2AllModes {
             super(ni);
         }
 
-        @Override
-        protected void normalize(CharSequence src, Normalizer2Impl.ReorderingBuffer buffer) {
-            impl.makeFCD(src, 0, src.length(), buffer);
-        }
         @Override
         protected void normalizeAndAppend(
-                CharSequence src, boolean doNormalize, Normalizer2Impl.ReorderingBuffer buffer) {
-            impl.makeFCDAndAppend(src, doNormalize, buffer);
+                CharSequence src, int start, int limit, boolean doNormalize,
+                Normalizer2Impl.ReorderingBuffer buffer) {
+            impl.makeFCDAndAppend(src, start, limit, doNormalize, buffer);
         }
         @Override
         public int spanQuickCheckYes(CharSequence s) {
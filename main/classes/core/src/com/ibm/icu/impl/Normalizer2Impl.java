@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- *   Copyright (C) 2009-2014, International Business Machines
+ *   Copyright (C) 2009-2015, International Business Machines
  *   Corporation and others.  All Rights Reserved.
  *******************************************************************************
  */
@@ -358,6 +358,44 @@ public final class Normalizer2Impl {
          * @return true or false
          */
         public static boolean isSurrogateLead(int c) { return (c&0x400)==0; }
+        /**
+         * Returns the index of the first non-ASCII code unit (above U+007F)
+         * in s[start, limit[, or limit if there is none.
+         * Tests four code units per iteration by OR-ing them together,
+         * which keeps the loop short and branch-poor for the JIT.
+         * @param s string
+         * @param start start index
+         * @param limit limit index
+         * @return the end of the ASCII span
+         */
+        public static int spanASCII(CharSequence s, int start, int limit) {
+            int limit4=limit-3;
+            while(start<limit4 &&
+                  ((s.charAt(start)|s.charAt(start+1)|s.charAt(start+2)|s.charAt(start+3))&0xff80)==0) {
+                start+=4;
+            }
+            while(start<limit && s.charAt(start)<=0x7f) {
+                ++start;
+            }
+            return start;
+        }
+        /**
+         * Same as spanASCII(CharSequence, int, int) but for a char array.
+         * @param s char array
+         * @param start start index
+         * @param limit limit index
+         * @return the end of the ASCII span
+         */
+        public static int spanASCII(char[] s, int start, int limit) {
+            int limit4=limit-3;
+            while(start<limit4 && ((s[start]|s[start+1]|s[start+2]|s[start+3])&0xff80)==0) {
+                start+=4;
+            }
+            while(start<limit && s[start]<=0x7f) {
+                ++start;
+            }
+            return start;
+        }
         /**
          * Compares two CharSequence objects for binary equality.
          * @param s1 first sequence
@@ -443,8 +481,9 @@ public final class Normalizer2Impl {
             // Read the normTrie.
             int offset=inIndexes[IX_NORM_TRIE_OFFSET];
             int nextOffset=inIndexes[IX_EXTRA_DATA_OFFSET];
-            normTrie=Trie2_16.createFromSerialized(bytes);
-            int trieLength=normTrie.getSerializedLength();
+            int trieStart=bytes.position();
+            normTrie=Trie2_16Mapped.createForData(bytes);
+            int trieLength=bytes.position()-trieStart;
             if(trieLength>(nextOffset-offset)) {
                 throw new ICUUncheckedIOException("Normalizer2 data: not enough bytes for normTrie");
             }
@@ -572,7 +611,7 @@ public final class Normalizer2Impl {
 
     // low-level properties ------------------------------------------------ ***
 
-    public Trie2_16 getNormTrie() { return normTrie; }
+    public Trie2 getNormTrie() { return normTrie; }
 
     // Note: Normalizer2Impl.java r30983 (2011-nov-27)
     // still had getFCDTrie() which built and cached an FCD trie.
@@ -959,7 +998,11 @@ public final class Normalizer2Impl {
 
         for(;;) {
             // count code units below the minimum or with irrelevant data for the quick check
-            for(prevSrc=src; src!=limit;) {
+            prevSrc=src;
+            if(minNoCP>0x7f) {
+                src=UTF16Plus.spanASCII(s, src, limit);  // skip an ASCII run in bulk
+            }
+            for(; src!=limit;) {
                 if( (c=s.charAt(src))<minNoCP ||
                     isMostDecompYesAndZeroCC(norm16=normTrie.getFromU16SingleLead((char)c))
                 ) {
@@ -1019,17 +1062,25 @@ public final class Normalizer2Impl {
         return src;
     }
     public void decomposeAndAppend(CharSequence s, boolean doDecompose, ReorderingBuffer buffer) {
-        int limit=s.length();
-        if(limit==0) {
+        decomposeAndAppend(s, 0, s.length(), doDecompose, buffer);
+    }
+    /**
+     * Like decomposeAndAppend(s, doDecompose, buffer) but only for s[start, limit[.
+     * Avoids a subSequence() copy when the caller has already
+     * spanned a quick-check "yes" prefix of the source.
+     */
+    public void decomposeAndAppend(CharSequence s, int start, int limit,
+                                   boolean doDecompose, ReorderingBuffer buffer) {
+        if(start==limit) {
             return;
         }
         if(doDecompose) {
-            decompose(s, 0, limit, buffer);
+            decompose(s, start, limit, buffer);
             return;
         }
         // Just merge the strings at the boundary.
-        int c=Character.codePointAt(s, 0);
-        int src=0;
+        int c=Character.codePointAt(s, start);
+        int src=start;
         int firstCC, prevCC, cc;
         firstCC=prevCC=cc=getCC(getNorm16(c));
         while(cc!=0) {
@@ -1041,7 +1092,7 @@ public final class Normalizer2Impl {
             c=Character.codePointAt(s, src);
             cc=getCC(getNorm16(c));
         };
-        buffer.append(s, 0, src, firstCC, prevCC);
+        buffer.append(s, start, src, firstCC, prevCC);
         buffer.append(s, src, limit);
     }
     // Very similar to composeQuickCheck(): Make the same changes in both places if relevant.
@@ -1075,7 +1126,11 @@ public final class Normalizer2Impl {
 
         for(;;) {
             // count code units below the minimum or with irrelevant data for the quick check
-            for(prevSrc=src; src!=limit;) {
+            prevSrc=src;
+            if(minNoMaybeCP>0x7f) {
+                src=UTF16Plus.spanASCII(s, src, limit);  // skip an ASCII run in bulk
+            }
+            for(; src!=limit;) {
                 if( (c=s.charAt(src))<minNoMaybeCP ||
                     isCompYesAndZeroCC(norm16=normTrie.getFromU16SingleLead((char)c))
                 ) {
@@ -1311,7 +1366,11 @@ public final class Normalizer2Impl {
 
         for(;;) {
             // count code units below the minimum or with irrelevant data for the quick check
-            for(prevSrc=src;;) {
+            prevSrc=src;
+            if(minNoMaybeCP>0x7f) {
+                src=UTF16Plus.spanASCII(s, src, limit);  // skip an ASCII run in bulk
+            }
+            for(;;) {
                 if(src==limit) {
                     return (src<<1)|qcResult;  // "yes" or "maybe"
                 }
@@ -1394,17 +1453,26 @@ public final class Normalizer2Impl {
                                  boolean doCompose,
                                  boolean onlyContiguous,
                                  ReorderingBuffer buffer) {
-        int src=0, limit=s.length();
+        composeAndAppend(s, 0, s.length(), doCompose, onlyContiguous, buffer);
+    }
+    /**
+     * Like composeAndAppend(s, doCompose, onlyContiguous, buffer) but only for s[start, limit[.
+     */
+    public void composeAndAppend(CharSequence s, int start, int limit,
+                                 boolean doCompose,
+                                 boolean onlyContiguous,
+                                 ReorderingBuffer buffer) {
+        int src=start;
         if(!buffer.isEmpty()) {
-            int firstStarterInSrc=findNextCompBoundary(s, 0, limit);
-            if(0!=firstStarterInSrc) {
+            int firstStarterInSrc=findNextCompBoundary(s, start, limit);
+            if(start!=firstStarterInSrc) {
                 int lastStarterInDest=findPreviousCompBoundary(buffer.getStringBuilder(),
                                                                buffer.length());
                 StringBuilder middle=new StringBuilder((buffer.length()-lastStarterInDest)+
                                                        firstStarterInSrc+16);
                 middle.append(buffer.getStringBuilder(), lastStarterInDest, buffer.length());
                 buffer.removeSuffix(buffer.length()-lastStarterInDest);
-                middle.append(s, 0, firstStarterInSrc);
+                middle.append(s, start, firstStarterInSrc);
                 compose(middle, 0, middle.length(), onlyContiguous, true, buffer);
                 src=firstStarterInSrc;
             }
@@ -1435,7 +1503,11 @@ public final class Normalizer2Impl {
 
         for(;;) {
             // count code units with lccc==0
-            for(prevSrc=src; src!=limit;) {
+            prevSrc=src;
+            if((src=UTF16Plus.spanASCII(s, src, limit))!=prevSrc) {
+                prevFCD16=0;  // ASCII has lccc==tccc==0
+            }
+            for(; src!=limit;) {
                 if((c=s.charAt(src))<MIN_CCC_LCCC_CP) {
                     prevFCD16=~c;
                     ++src;
@@ -1547,17 +1619,24 @@ public final class Normalizer2Impl {
         return src;
     }
     public void makeFCDAndAppend(CharSequence s, boolean doMakeFCD, ReorderingBuffer buffer) {
-        int src=0, limit=s.length();
+        makeFCDAndAppend(s, 0, s.length(), doMakeFCD, buffer);
+    }
+    /**
+     * Like makeFCDAndAppend(s, doMakeFCD, buffer) but only for s[start, limit[.
+     */
+    public void makeFCDAndAppend(CharSequence s, int start, int limit,
+                                 boolean doMakeFCD, ReorderingBuffer buffer) {
+        int src=start;
         if(!buffer.isEmpty()) {
-            int firstBoundaryInSrc=findNextFCDBoundary(s, 0, limit);
-            if(0!=firstBoundaryInSrc) {
+            int firstBoundaryInSrc=findNextFCDBoundary(s, start, limit);
+            if(start!=firstBoundaryInSrc) {
                 int lastBoundaryInDest=findPreviousFCDBoundary(buffer.getStringBuilder(),
                                                                buffer.length());
                 StringBuilder middle=new StringBuilder((buffer.length()-lastBoundaryInDest)+
                                                        firstBoundaryInSrc+16);
                 middle.append(buffer.getStringBuilder(), lastBoundaryInDest, buffer.length());
                 buffer.removeSuffix(buffer.length()-lastBoundaryInDest);
-                middle.append(s, 0, firstBoundaryInSrc);
+                middle.append(s, start, firstBoundaryInSrc);
                 makeFCD(middle, 0, middle.length(), buffer);
                 src=firstBoundaryInSrc;
             }
@@ -2203,7 +2282,7 @@ public final class Normalizer2Impl {
     private int limitNoNo;
     private int minMaybeYes;
 
-    private Trie2_16 normTrie;
+    private Trie2 normTrie;
     private String maybeYesCompositions;
     private String extraData;  // mappings and/or compositions for yesYes, yesNo & noNo characters
     private byte[] smallFCD;  // [0x100] one bit per 32 BMP code points, set if any FCD!=0
@@ -1,6 +1,6 @@
  /*
   *******************************************************************************
-  * Copyright (C) 2005-2014, International Business Machines Corporation and    *
+  * Copyright (C) 2005-2015, International Business Machines Corporation and    *
   * others. All Rights Reserved.                                                *
   *******************************************************************************
   */
@@ -246,6 +246,8 @@ public class OlsonTimeZone extends BasicTimeZone {
             finalZone = stz;
 
         } else {
+            // finalZone may be shared with the zone this one was cloned from
+            finalZone = (SimpleTimeZone) finalZone.clone();
             finalZone.setRawOffset(offsetMillis);
         }
 
@@ -286,6 +288,54 @@ public class OlsonTimeZone extends BasicTimeZone {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void getOffsets(long[] dates, int datesStart, int[] offsets, int offsetsStart, int length) {
+        if (datesStart < 0 || offsetsStart < 0 || length < 0
+                || datesStart > dates.length - length || offsetsStart > offsets.length - length) {
+            throw new IndexOutOfBoundsException("datesStart=" + datesStart
+                    + ", offsetsStart=" + offsetsStart + ", length=" + length);
+        }
+        int[] fields = null;
+        long intervalStart = Long.MAX_VALUE;
+        long intervalLimit = Long.MIN_VALUE;
+        int offset = 0;
+        for (int i = 0; i < length; i++) {
+            long date = dates[datesStart + i];
+            if (date < intervalStart || date >= intervalLimit) {
+                if (finalZone != null && date >= finalStartMillis) {
+                    if (fields == null) {
+                        fields = new int[2];
+                    }
+                    finalZone.getOffset(date, false, fields);
+                    offset = fields[0] + fields[1];
+                    intervalStart = (long)finalStartMillis;
+                    TimeZoneTransition tzt = finalZone.getPreviousTransition(date, true);
+                    if (tzt != null && tzt.getTime() > intervalStart) {
+                        intervalStart = tzt.getTime();
+                    }
+                    tzt = finalZone.getNextTransition(date, false);
+                    intervalLimit = (tzt == null) ? Long.MAX_VALUE : tzt.getTime();
+                } else {
+                    // The offsets are constant from a transition up to the next
+                    // one, or up to the start of the final zone.
+                    int transIdx = findTransitionIndex(Grego.floorDivide(date, Grego.MILLIS_PER_SECOND));
+                    offset = zoneOffsetAt(transIdx) * Grego.MILLIS_PER_SECOND;
+                    intervalStart = (transIdx < 0) ?
+                            Long.MIN_VALUE : transitionTimes64[transIdx] * Grego.MILLIS_PER_SECOND;
+                    intervalLimit = (transIdx + 1 < transitionCount) ?
+                            transitionTimes64[transIdx + 1] * Grego.MILLIS_PER_SECOND : Long.MAX_VALUE;
+                    if (finalZone != null && intervalLimit > finalStartMillis) {
+                        intervalLimit = (long)finalStartMillis;
+                    }
+                }
+            }
+            offsets[offsetsStart + i] = offset;
+        }
+    }
+
     /* (non-Javadoc)
      * @see com.ibm.icu.util.TimeZone#getRawOffset()
      */
@@ -480,6 +530,9 @@ public class OlsonTimeZone extends BasicTimeZone {
     public OlsonTimeZone(UResourceBundle top, UResourceBundle res, String id){
         super(id);
         construct(top, res);
+        if (finalZone != null){
+            finalZone.setID(id);
+        }
     }
 
     private void construct(UResourceBundle top, UResourceBundle res){
@@ -662,6 +715,8 @@ public class OlsonTimeZone extends BasicTimeZone {
         }
 
         if (finalZone != null){
+            // finalZone may be shared with the zone this one was cloned from
+            finalZone = (SimpleTimeZone) finalZone.clone();
             finalZone.setID(id);
         }
         super.setID(id);
@@ -682,10 +737,24 @@ public class OlsonTimeZone extends BasicTimeZone {
                 offsets[0] = initialRawOffset() * Grego.MILLIS_PER_SECOND;
                 offsets[1] = initialDstOffset() * Grego.MILLIS_PER_SECOND;
             } else {
-                // Linear search from the end is the fastest approach, since
-                // most lookups will happen at/near the end.
-                int transIdx;
-                for (transIdx = transitionCount - 1; transIdx >= 0; transIdx--) {
+                // Transitions more than MAX_OFFSET_SECONDS away from sec are
+                // unambiguous for local times as well, so the last lookup's
+                // interval usually answers consecutive lookups directly.
+                int margin = local ? MAX_OFFSET_SECONDS : 0;
+                int transIdx = historicalOffsetIdx;
+                if (transIdx >= -1 && transIdx < transitionCount
+                        && (transIdx < 0 || sec >= transitionTimes64[transIdx] + margin)
+                        && (transIdx + 1 >= transitionCount || sec < transitionTimes64[transIdx + 1] - margin)) {
+                    offsets[0] = rawOffsetAt(transIdx) * Grego.MILLIS_PER_SECOND;
+                    offsets[1] = dstOffsetAt(transIdx) * Grego.MILLIS_PER_SECOND;
+                    return;
+                }
+                // Binary search for the last transition which may apply:
+                // for local times, transitions after sec + MAX_OFFSET_SECONDS
+                // cannot, and those up to sec - MAX_OFFSET_SECONDS always do,
+                // so the linear search below only examines a couple of
+                // transitions around sec.
+                for (transIdx = findTransitionIndex(sec + margin); transIdx >= 0; transIdx--) {
                     long transition = transitionTimes64[transIdx];
                     if (local && (sec >= (transition - MAX_OFFSET_SECONDS))) {
                         int offsetBefore = zoneOffsetAt(transIdx - 1);
@@ -736,6 +805,7 @@ public class OlsonTimeZone extends BasicTimeZone {
                 // transIdx could be -1 when local=true
                 offsets[0] = rawOffsetAt(transIdx) * Grego.MILLIS_PER_SECOND;
                 offsets[1] = dstOffsetAt(transIdx) * Grego.MILLIS_PER_SECOND;
+                historicalOffsetIdx = transIdx;
             }
         } else {
             // No transitions, single pair of offsets only
@@ -744,6 +814,46 @@ public class OlsonTimeZone extends BasicTimeZone {
         }
     }
 
+    /*
+     * Returns the index of the last transition at or before the given time
+     * in seconds, or -1 if there is none.
+     */
+    private int findTransitionIndex(long sec) {
+        int start = 0;
+        int limit = transitionCount;
+        while (start < limit) {
+            int mid = (start + limit) >>> 1;
+            if (transitionTimes64[mid] <= sec) {
+                start = mid + 1;
+            } else {
+                limit = mid;
+            }
+        }
+        return start - 1;
+    }
+
+    /*
+     * Returns the index of the last transition before the given time
+     * in milliseconds, or at or before it if atOrBefore is true,
+     * or -1 if there is none.
+     * Compares instead of adjusting the time by one millisecond,
+     * which would overflow at Long.MIN_VALUE.
+     */
+    private int findTransitionIndexMillis(long millis, boolean atOrBefore) {
+        int start = 0;
+        int limit = transitionCount;
+        while (start < limit) {
+            int mid = (start + limit) >>> 1;
+            long t = transitionTimes64[mid] * Grego.MILLIS_PER_SECOND;
+            if (t < millis || (atOrBefore && t == millis)) {
+                start = mid + 1;
+            } else {
+                limit = mid;
+            }
+        }
+        return start - 1;
+    }
+
     private int getInt(byte val){
         return val & 0xFF; 
     }
@@ -857,6 +967,13 @@ public class OlsonTimeZone extends BasicTimeZone {
      */
     private byte[] typeMapData;
 
+    /**
+     * Index of the transition interval found by the last getHistoricalOffset()
+     * call, tried first by the next one. Races are harmless since the index
+     * is validated against the (immutable) transition times before use.
+     */
+    private transient int historicalOffsetIdx = Integer.MIN_VALUE;
+
     /**
      * For year >= finalStartYear, the finalZone will be used.
      */
@@ -963,12 +1080,10 @@ public class OlsonTimeZone extends BasicTimeZone {
         }
         if (historicRules != null) {
             // Find a historical transition
-            int ttidx = transitionCount - 1;
-            for (; ttidx >= firstTZTransitionIdx; ttidx--) {
-                long t = transitionTimes64[ttidx] * Grego.MILLIS_PER_SECOND;
-                if (base > t || (!inclusive && base == t)) {
-                    break;
-                }
+            // Last transition before base (at or before base if !inclusive)
+            int ttidx = findTransitionIndexMillis(base, !inclusive);
+            if (ttidx < firstTZTransitionIdx) {
+                ttidx = firstTZTransitionIdx - 1;
             }
             if (ttidx == transitionCount - 1)  {
                 return firstFinalTZTransition;
@@ -1014,13 +1129,8 @@ public class OlsonTimeZone extends BasicTimeZone {
 
         if (historicRules != null) {
             // Find a historical transition
-            int ttidx = transitionCount - 1;
-            for (; ttidx >= firstTZTransitionIdx; ttidx--) {
-                long t = transitionTimes64[ttidx] * Grego.MILLIS_PER_SECOND;
-                if (base > t || (inclusive && base == t)) {
-                    break;
-                }
-            }
+            // Last transition before base (at or before base if inclusive)
+            int ttidx = findTransitionIndexMillis(base, inclusive);
             if (ttidx < firstTZTransitionIdx) {
                 // No more transitions
                 return null;
@@ -1283,11 +1393,6 @@ public class OlsonTimeZone extends BasicTimeZone {
      */
     public TimeZone cloneAsThawed() {
         OlsonTimeZone tz = (OlsonTimeZone)super.cloneAsThawed();
-        if (finalZone != null) {
-            // TODO Do we really need this?
-            finalZone.setID(getID());
-            tz.finalZone = (SimpleTimeZone) finalZone.clone();
-        }
 
         // Following data are read-only and never changed.
         // Therefore, shallow copies should be sufficient.
@@ -1295,6 +1400,11 @@ public class OlsonTimeZone extends BasicTimeZone {
         // transitionTimes64
         // typeMapData
         // typeOffsets
+        //
+        // finalZone is only modified by setRawOffset() and setID(), which
+        // replace it with a private copy first. So a clone of a cached
+        // system zone, such as the ones returned by TimeZone.getTimeZone()
+        // and TimeZone.getDefault(), shares it until it is actually mutated.
 
         tz.isFrozen = false;
         return tz;
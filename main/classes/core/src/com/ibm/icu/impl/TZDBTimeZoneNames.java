@@ -374,7 +374,7 @@ public class TZDBTimeZoneNames extends TimeZoneNames {
                             trie.put(dst, dstInf);
                         }
                     }
-                    TZDB_NAMES_TRIE = trie;
+                    TZDB_NAMES_TRIE = trie.freeze();
                 }
             }
         }
@@ -1,6 +1,6 @@
 /*
  * ********************************************************************************
- * Copyright (C) 2007-2011, International Business Machines Corporation and others.
+ * Copyright (C) 2007-2015, International Business Machines Corporation and others.
  * All Rights Reserved.
  * ********************************************************************************
  */
@@ -16,11 +16,17 @@ import com.ibm.icu.lang.UCharacter;
 /**
  * TextTrieMap is a trie implementation for supporting
  * fast prefix match for the key.
+ * <p>
+ * Searching a trie which is still open for modification is serialized
+ * on the trie. Once all entries are added, the trie can be frozen by
+ * {@link #freeze()}, after which it is immutable and searches no longer
+ * take any lock.
  */
 public class TextTrieMap<V> {
 
     private Node _root = new Node();
     boolean _ignoreCase;
+    private volatile boolean _frozen;
 
     /**
      * Constructs a TextTrieMap object.
@@ -38,6 +44,9 @@ public class TextTrieMap<V> {
      * @param val The value object associated with the text.
      */
     public TextTrieMap<V> put(CharSequence text, V val) {
+        if (_frozen) {
+            throw new UnsupportedOperationException("Attempt to modify frozen object");
+        }
         CharIterator chitr = new CharIterator(text, 0, _ignoreCase);
         _root.add(chitr, val);
         return this;
@@ -86,10 +95,40 @@ public class TextTrieMap<V> {
     
     public void find(CharSequence text, int offset, ResultHandler<V> handler) {
         CharIterator chitr = new CharIterator(text, offset, _ignoreCase);
-        find(_root, chitr, handler);
+        if (_frozen) {
+            // The node tree is never modified once frozen and the volatile
+            // read of _frozen publishes it, so no lock is necessary.
+            find(_root, chitr, handler);
+        } else {
+            synchronized (this) {
+                find(_root, chitr, handler);
+            }
+        }
+    }
+
+    /**
+     * Freezes this trie. After this call, the trie can no longer be modified
+     * and may be searched concurrently by multiple threads without locking.
+     * All entries must be added by the thread calling this method, or be
+     * otherwise visible to it, before the trie is frozen.
+     * 
+     * @return this object.
+     */
+    public TextTrieMap<V> freeze() {
+        _frozen = true;
+        return this;
+    }
+
+    /**
+     * Returns true if this trie is frozen.
+     * 
+     * @return true if this trie is frozen.
+     */
+    public boolean isFrozen() {
+        return _frozen;
     }
 
-    private synchronized void find(Node node, CharIterator chitr, ResultHandler<V> handler) {
+    private void find(Node node, CharIterator chitr, ResultHandler<V> handler) {
         Iterator<V> values = node.values();
         if (values != null) {
             if (!handler.handlePrefixMatch(chitr.processedLength(), values)) {
@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 2011-2014, International Business Machines Corporation and    *
+ * Copyright (C) 2011-2015, International Business Machines Corporation and    *
  * others. All Rights Reserved.                                                *
  *******************************************************************************
  */
@@ -54,8 +54,10 @@ public class TimeZoneNamesImpl extends TimeZoneNames {
     private transient ConcurrentHashMap<String, ZNames> _mzNamesMap;
     private transient ConcurrentHashMap<String, TZNames> _tzNamesMap;
 
+    // The names trie is populated on demand. Once all names are loaded,
+    // it is replaced by an immutable compact trie.
     private transient TextTrieMap<NameInfo> _namesTrie;
-    private transient boolean _namesTrieFullyLoaded;
+    private transient volatile CompactTextTrieMap<NameInfo> _fullNamesTrie;
 
     public TimeZoneNamesImpl(ULocale locale) {
         initialize(locale);
@@ -193,19 +195,54 @@ public class TimeZoneNamesImpl extends TimeZoneNames {
      * @see com.ibm.icu.text.TimeZoneNames#find(java.lang.CharSequence, int, java.util.Set)
      */
     @Override
-    public synchronized Collection<MatchInfo> find(CharSequence text, int start, EnumSet<NameType> nameTypes) {
+    public Collection<MatchInfo> find(CharSequence text, int start, EnumSet<NameType> nameTypes) {
         if (text == null || text.length() == 0 || start < 0 || start >= text.length()) {
             throw new IllegalArgumentException("bad input text or range");
         }
         NameSearchHandler handler = new NameSearchHandler(nameTypes);
-        _namesTrie.find(text, start, handler);
-        if (handler.getMaxMatchLen() == (text.length() - start) || _namesTrieFullyLoaded) {
-            // perfect match
+        CompactTextTrieMap<NameInfo> fullNamesTrie = _fullNamesTrie;
+        if (fullNamesTrie != null) {
+            // The compact trie is immutable, so it can be searched without locking.
+            fullNamesTrie.find(text, start, handler);
             return handler.getMatches();
         }
 
-        // All names are not yet loaded into the trie
+        synchronized (this) {
+            fullNamesTrie = _fullNamesTrie;
+            if (fullNamesTrie == null) {
+                _namesTrie.find(text, start, handler);
+                if (handler.getMaxMatchLen() == (text.length() - start)) {
+                    // perfect match
+                    return handler.getMatches();
+                }
+
+                // All names are not yet loaded into the trie
+                fullNamesTrie = loadAllNames();
+                handler.resetResults();
+            }
 
+            // now, try it again
+            fullNamesTrie.find(text, start, handler);
+            return handler.getMatches();
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see com.ibm.icu.text.TimeZoneNames#loadAllDisplayNames()
+     */
+    @Override
+    public synchronized void loadAllDisplayNames() {
+        if (_fullNamesTrie == null) {
+            loadAllNames();
+        }
+    }
+
+    /**
+     * Loads all time zone and meta zone names, and publishes them in the
+     * compact trie. Must be called while holding the lock on this object.
+     * @return The compact trie containing all names.
+     */
+    private CompactTextTrieMap<NameInfo> loadAllNames() {
         // time zone names
         Set<String> tzIDs = TimeZone.getAvailableIDs(SystemTimeZoneType.CANONICAL, null, null);
         for (String tzID : tzIDs) {
@@ -217,12 +254,46 @@ public class TimeZoneNamesImpl extends TimeZoneNames {
         for (String mzID : mzIDs) {
             loadMetaZoneNames(mzID);
         }
-        _namesTrieFullyLoaded = true;
 
-        // now, try it again
-        handler.resetResults();
-        _namesTrie.find(text, start, handler);
-        return handler.getMatches();
+        // Publish the complete names in the compact trie and
+        // release the incremental one.
+        CompactTextTrieMap<NameInfo> fullNamesTrie = buildFullNamesTrie();
+        _fullNamesTrie = fullNamesTrie;
+        _namesTrie = null;
+        return fullNamesTrie;
+    }
+
+    /**
+     * Builds the compact trie from all names loaded into the name maps.
+     * @return The compact trie containing all names.
+     */
+    private CompactTextTrieMap<NameInfo> buildFullNamesTrie() {
+        CompactTextTrieMap.Builder<NameInfo> builder = new CompactTextTrieMap.Builder<NameInfo>(true);
+        for (Map.Entry<String, TZNames> entry : _tzNamesMap.entrySet()) {
+            TZNames tznames = entry.getValue();
+            for (NameType t : NameType.values()) {
+                String name = tznames.getName(t);
+                if (name != null) {
+                    NameInfo info = new NameInfo();
+                    info.tzID = entry.getKey();
+                    info.type = t;
+                    builder.put(name, info);
+                }
+            }
+        }
+        for (Map.Entry<String, ZNames> entry : _mzNamesMap.entrySet()) {
+            ZNames znames = entry.getValue();
+            for (NameType t : NameType.values()) {
+                String name = znames.getName(t);
+                if (name != null) {
+                    NameInfo info = new NameInfo();
+                    info.mzID = entry.getKey();
+                    info.type = t;
+                    builder.put(name, info);
+                }
+            }
+        }
+        return builder.build();
     }
 
     /**
@@ -240,7 +311,7 @@ public class TimeZoneNamesImpl extends TimeZoneNames {
         _mzNamesMap = new ConcurrentHashMap<String, ZNames>();
 
         _namesTrie = new TextTrieMap<NameInfo>(true);
-        _namesTrieFullyLoaded = false;
+        _fullNamesTrie = null;
 
         // Preload zone strings for the default time zone
         TimeZone tz = TimeZone.getDefault();
@@ -256,7 +327,7 @@ public class TimeZoneNamesImpl extends TimeZoneNames {
      * strings.
      * @param tzCanonicalID the canonical time zone ID
      */
-    private synchronized void loadStrings(String tzCanonicalID) {
+    private void loadStrings(String tzCanonicalID) {
         if (tzCanonicalID == null || tzCanonicalID.length() == 0) {
             return;
         }
@@ -292,19 +363,36 @@ public class TimeZoneNamesImpl extends TimeZoneNames {
      * @param mzID the meta zone ID
      * @return An instance of ZNames that includes a set of meta zone display names.
      */
-    private synchronized ZNames loadMetaZoneNames(String mzID) {
+    private ZNames loadMetaZoneNames(String mzID) {
+        ZNames znames = _mzNamesMap.get(mzID);
+        if (znames == null) {
+            znames = createMetaZoneNames(mzID);
+        }
+        return znames;
+    }
+
+    /**
+     * Creates a set of names for the given meta zone ID and puts them into
+     * the internal map and trie, unless another thread already did so.
+     * @param mzID the meta zone ID
+     * @return An instance of ZNames that includes a set of meta zone display names.
+     */
+    private synchronized ZNames createMetaZoneNames(String mzID) {
         ZNames znames = _mzNamesMap.get(mzID);
         if (znames == null) {
             znames = ZNames.getInstance(_zoneStrings, MZ_PREFIX + mzID);
-            // put names into the trie
+            // put names into the trie, unless the trie was already replaced
+            // by the compact trie of all available meta zones
             mzID = mzID.intern();
-            for (NameType t : NameType.values()) {
-                String name = znames.getName(t);
-                if (name != null) {
-                    NameInfo info = new NameInfo();
-                    info.mzID = mzID;
-                    info.type = t;
-                    _namesTrie.put(name, info);
+            if (_fullNamesTrie == null) {
+                for (NameType t : NameType.values()) {
+                    String name = znames.getName(t);
+                    if (name != null) {
+                        NameInfo info = new NameInfo();
+                        info.mzID = mzID;
+                        info.type = t;
+                        _namesTrie.put(name, info);
+                    }
                 }
             }
             ZNames tmpZnames = _mzNamesMap.putIfAbsent(mzID, znames);
@@ -319,19 +407,36 @@ public class TimeZoneNamesImpl extends TimeZoneNames {
      * @param tzID the canonical time zone ID
      * @return An instance of TZNames that includes a set of time zone display names.
      */
-    private synchronized TZNames loadTimeZoneNames(String tzID) {
+    private TZNames loadTimeZoneNames(String tzID) {
+        TZNames tznames = _tzNamesMap.get(tzID);
+        if (tznames == null) {
+            tznames = createTimeZoneNames(tzID);
+        }
+        return tznames;
+    }
+
+    /**
+     * Creates a set of names for the given time zone ID and puts them into
+     * the internal map and trie, unless another thread already did so.
+     * @param tzID the canonical time zone ID
+     * @return An instance of TZNames that includes a set of time zone display names.
+     */
+    private synchronized TZNames createTimeZoneNames(String tzID) {
         TZNames tznames = _tzNamesMap.get(tzID);
         if (tznames == null) {
             tznames = TZNames.getInstance(_zoneStrings, tzID.replace('/', ':'), tzID);
-            // put names into the trie
+            // put names into the trie, unless the trie was already replaced
+            // by the compact trie of all canonical zones
             tzID = tzID.intern();
-            for (NameType t : NameType.values()) {
-                String name = tznames.getName(t);
-                if (name != null) {
-                    NameInfo info = new NameInfo();
-                    info.tzID = tzID;
-                    info.type = t;
-                    _namesTrie.put(name, info);
+            if (_fullNamesTrie == null) {
+                for (NameType t : NameType.values()) {
+                    String name = tznames.getName(t);
+                    if (name != null) {
+                        NameInfo info = new NameInfo();
+                        info.tzID = tzID;
+                        info.type = t;
+                        _namesTrie.put(name, info);
+                    }
                 }
             }
             TZNames tmpTznames = _tzNamesMap.putIfAbsent(tzID, tznames);
@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 2009-2014, International Business Machines Corporation and
+ * Copyright (C) 2009-2015, International Business Machines Corporation and
  * others. All Rights Reserved.
  *******************************************************************************
  */
@@ -92,36 +92,8 @@ public abstract class Trie2 implements Iterable<Trie2.Range> {
 
         ByteOrder outerByteOrder = bytes.order();
         try {
-            UTrie2Header header = new UTrie2Header();
+            UTrie2Header header = readHeader(bytes);
 
-            /* check the signature */
-            header.signature = bytes.getInt();
-            switch (header.signature) {
-            case 0x54726932:
-                // The buffer is already set to the trie data byte order.
-                break;
-            case 0x32697254:
-                // Temporarily reverse the byte order.
-                boolean isBigEndian = outerByteOrder == ByteOrder.BIG_ENDIAN;
-                bytes.order(isBigEndian ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
-                header.signature = 0x54726932;
-                break;
-            default:
-                throw new IllegalArgumentException("Buffer does not contain a serialized UTrie2");
-            }
-
-            header.options = bytes.getChar();
-            header.indexLength = bytes.getChar();
-            header.shiftedDataLength = bytes.getChar();
-            header.index2NullOffset = bytes.getChar();
-            header.dataNullOffset   = bytes.getChar();
-            header.shiftedHighStart = bytes.getChar();
-
-            // Trie2 data width - 0: 16 bits
-            //                    1: 32 bits
-            if ((header.options & UTRIE2_OPTIONS_VALUE_BITS_MASK) > 1) {
-                throw new IllegalArgumentException("UTrie2 serialized format error.");
-            }
             ValueWidth width;
             Trie2 This;
             if ((header.options & UTRIE2_OPTIONS_VALUE_BITS_MASK) == 0) {
@@ -195,6 +167,45 @@ public abstract class Trie2 implements Iterable<Trie2.Range> {
         }
     }
 
+    /**
+     * Read and check the header of a serialized Trie2.
+     * Sets the byte order of the buffer to that of the trie data;
+     * the caller must restore the original byte order.
+     */
+    static UTrie2Header readHeader(ByteBuffer bytes) {
+        UTrie2Header header = new UTrie2Header();
+
+        /* check the signature */
+        header.signature = bytes.getInt();
+        switch (header.signature) {
+        case 0x54726932:
+            // The buffer is already set to the trie data byte order.
+            break;
+        case 0x32697254:
+            // Temporarily reverse the byte order.
+            boolean isBigEndian = bytes.order() == ByteOrder.BIG_ENDIAN;
+            bytes.order(isBigEndian ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+            header.signature = 0x54726932;
+            break;
+        default:
+            throw new IllegalArgumentException("Buffer does not contain a serialized UTrie2");
+        }
+
+        header.options = bytes.getChar();
+        header.indexLength = bytes.getChar();
+        header.shiftedDataLength = bytes.getChar();
+        header.index2NullOffset = bytes.getChar();
+        header.dataNullOffset   = bytes.getChar();
+        header.shiftedHighStart = bytes.getChar();
+
+        // Trie2 data width - 0: 16 bits
+        //                    1: 32 bits
+        if ((header.options & UTRIE2_OPTIONS_VALUE_BITS_MASK) > 1) {
+            throw new IllegalArgumentException("UTrie2 serialized format error.");
+        }
+        return header;
+    }
+
     /**
      * Get the UTrie version from an InputStream containing the serialized form
      * of either a Trie (version 1) or a Trie2 (version 2).
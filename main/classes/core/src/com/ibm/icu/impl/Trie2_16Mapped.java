@@ -0,0 +1,283 @@
+/*
+ *******************************************************************************
+ * Copyright (C) 2015, International Business Machines Corporation and
+ * others. All Rights Reserved.
+ *******************************************************************************
+ */
+
+package com.ibm.icu.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+
+
+/**
+ * A read-only Trie2 holding 16 bit data values, which reads the index and
+ * data directly from the buffer that holds the serialized trie, instead of
+ * copying them into an array like Trie2_16 does.
+ *
+ * When the buffer is mapped from an ICU data file, loading the trie touches only
+ * its header, and the pages of the file are shared by all processes that map it.
+ *
+ * The lookup code is the same as in Trie2_16, with each array access replaced by
+ * an absolute get() on a CharBuffer view of the trie.
+ * The view must not be modified while the trie is in use.
+ */
+public final class Trie2_16Mapped extends Trie2 {
+
+    /**
+     * ICUConfig property which enables mapped tries in createForData().
+     */
+    static final String ENABLED_CONFIG_KEY = "com.ibm.icu.impl.Trie2_16Mapped.enabled";
+
+    private static final boolean ENABLED =
+        Boolean.valueOf(ICUConfig.get(ENABLED_CONFIG_KEY, "false")).booleanValue();
+
+    /** The index, followed by the data. */
+    private final CharBuffer chars;
+
+
+    private Trie2_16Mapped(CharBuffer chars) {
+        this.chars = chars;
+    }
+
+
+    /**
+     * Create a Trie2 which reads from the serialized form in the buffer.
+     * The serialized format is identical between ICU4C and ICU4J, and the
+     * trie may be in either little or big endian byte order.
+     *
+     * Reads the header from the current position and leaves the buffer after
+     * the end of the trie. The index and data are not copied; the buffer contents
+     * must not be modified while the trie is in use.
+     *
+     * @param bytes a byte buffer to the serialized form of a UTrie2.
+     * @return A Trie2_16Mapped, ready for use.
+     * @throws IllegalArgumentException if the buffer does not contain a serialized
+     *         Trie2 with 16 bit data.
+     * @throws IOException if a read error occurs in the buffer.
+     */
+    public static Trie2_16Mapped createFromSerialized(ByteBuffer bytes) throws IOException {
+        ByteOrder outerByteOrder = bytes.order();
+        try {
+            UTrie2Header header = readHeader(bytes);
+            if ((header.options & UTRIE2_OPTIONS_VALUE_BITS_MASK) != 0) {
+                throw new IllegalArgumentException("UTrie2 does not have 16 bit data.");
+            }
+
+            int indexLength = header.indexLength;
+            int dataLength = header.shiftedDataLength << UTRIE2_INDEX_SHIFT;
+            int byteLength = (indexLength + dataLength) * 2;
+            if (bytes.remaining() < byteLength) {
+                throw new IOException("UTrie2 data is truncated.");
+            }
+            // The view starts at the index. slice() and asReadOnlyBuffer() reset the byte order.
+            ByteBuffer trieBytes = bytes.slice().asReadOnlyBuffer();
+            trieBytes.limit(byteLength);
+            trieBytes.order(bytes.order());
+            bytes.position(bytes.position() + byteLength);
+
+            Trie2_16Mapped This = new Trie2_16Mapped(trieBytes.asCharBuffer());
+            This.header = header;
+
+            /* get the length values and offsets */
+            This.indexLength      = indexLength;
+            This.dataLength       = dataLength;
+            This.index2NullOffset = header.index2NullOffset;
+            This.dataNullOffset   = header.dataNullOffset;
+            This.highStart        = header.shiftedHighStart << UTRIE2_SHIFT_1;
+            This.highValueIndex   = dataLength - UTRIE2_DATA_GRANULARITY + indexLength;
+
+            This.data16 = indexLength;
+            This.initialValue = This.chars.get(This.dataNullOffset);
+            This.errorValue   = This.chars.get(This.data16 + UTRIE2_BAD_UTF8_DATA_OFFSET);
+            return This;
+        } finally {
+            bytes.order(outerByteOrder);
+        }
+    }
+
+    /**
+     * Create a read-only Trie2 with 16 bit data from the serialized form in the
+     * buffer, for ICU data loaded by ICUBinary.
+     *
+     * Returns a Trie2_16Mapped if the buffer is direct, as it is for data files
+     * mapped from the ICU data path, and the ICUConfig property
+     * com.ibm.icu.impl.Trie2_16Mapped.enabled is true.
+     * Otherwise returns a Trie2_16.
+     *
+     * Leaves the buffer after the end of the trie.
+     *
+     * @param bytes a byte buffer to the serialized form of a UTrie2.
+     * @return A Trie2 with 16 bit data, ready for use.
+     * @throws IllegalArgumentException if the buffer does not contain a serialized
+     *         Trie2 with 16 bit data.
+     * @throws IOException if a read error occurs in the buffer.
+     */
+    public static Trie2 createForData(ByteBuffer bytes) throws IOException {
+        if (ENABLED && bytes.isDirect()) {
+            return createFromSerialized(bytes);
+        }
+        Trie2 trie = Trie2.createFromSerialized(bytes);
+        if (!(trie instanceof Trie2_16)) {
+            throw new IllegalArgumentException("UTrie2 does not have 16 bit data.");
+        }
+        return trie;
+    }
+
+    /**
+     * Get the value for a code point as stored in the Trie2.
+     *
+     * @param codePoint the code point
+     * @return the value
+     */
+    @Override
+    public final int get(int codePoint) {
+        int value;
+        int ix;
+
+        if (codePoint >= 0) {
+            if (codePoint < 0x0d800 || (codePoint > 0x0dbff && codePoint <= 0x0ffff)) {
+                // Ordinary BMP code point, excluding leading surrogates.
+                // BMP uses a single level lookup.  BMP index starts at offset 0 in the Trie2 index.
+                // 16 bit data is stored in the index array itself.
+                ix = chars.get(codePoint >> UTRIE2_SHIFT_2);
+                ix = (ix << UTRIE2_INDEX_SHIFT) + (codePoint & UTRIE2_DATA_MASK);
+                value = chars.get(ix);
+                return value;
+            }
+            if (codePoint <= 0xffff) {
+                // Lead Surrogate Code Point.  A Separate index section is stored for
+                // lead surrogate code units and code points.
+                ix = chars.get(UTRIE2_LSCP_INDEX_2_OFFSET + ((codePoint - 0xd800) >> UTRIE2_SHIFT_2));
+                ix = (ix << UTRIE2_INDEX_SHIFT) + (codePoint & UTRIE2_DATA_MASK);
+                value = chars.get(ix);
+                return value;
+            }
+            if (codePoint < highStart) {
+                // Supplemental code point, use two-level lookup.
+                ix = (UTRIE2_INDEX_1_OFFSET - UTRIE2_OMITTED_BMP_INDEX_1_LENGTH) + (codePoint >> UTRIE2_SHIFT_1);
+                ix = chars.get(ix);
+                ix += (codePoint >> UTRIE2_SHIFT_2) & UTRIE2_INDEX_2_MASK;
+                ix = chars.get(ix);
+                ix = (ix << UTRIE2_INDEX_SHIFT) + (codePoint & UTRIE2_DATA_MASK);
+                value = chars.get(ix);
+                return value;
+            }
+            if (codePoint <= 0x10ffff) {
+                value = chars.get(highValueIndex);
+                return value;
+            }
+        }
+
+        // Fall through.  The code point is outside of the legal range of 0..0x10ffff.
+        return errorValue;
+    }
+
+
+    /**
+     * Get a Trie2 value for a UTF-16 code unit.
+     *
+     * This function returns the same value as get() if the input
+     * character is outside of the lead surrogate range
+     *
+     * There are two values stored in a Trie2 for inputs in the lead
+     * surrogate range.  This function returns the alternate value,
+     * while Trie2.get() returns the main value.
+     *
+     * @param codeUnit a 16 bit code unit or lead surrogate value.
+     * @return the value
+     */
+    @Override
+    public int getFromU16SingleLead(char codeUnit) {
+        int ix = chars.get(codeUnit >> UTRIE2_SHIFT_2);
+        ix = (ix << UTRIE2_INDEX_SHIFT) + (codeUnit & UTRIE2_DATA_MASK);
+        return chars.get(ix);
+    }
+
+
+    /**
+     * @return the number of bytes of the serialized trie
+     */
+    public int getSerializedLength() {
+        return 16+(header.indexLength+dataLength)*2;
+    }
+
+
+    /**
+     * Given a starting code point, find the last in a range of code points,
+     * all with the same value.
+     *
+     * This function is part of the implementation of iterating over the
+     * Trie2's contents.  It is the same as Trie2_16.rangeEnd().
+     * @param startingCP The code point at which to begin looking.
+     * @return The last code point with the same value as the starting code point.
+     */
+    @Override
+    int rangeEnd(int startingCP, int limit, int value) {
+        int   cp = startingCP;
+        int   block = 0;
+        int   index2Block = 0;
+
+      outerLoop:
+        for (;;) {
+            if (cp >= limit) {
+                break;
+            }
+            if (cp < 0x0d800 || (cp > 0x0dbff && cp <= 0x0ffff)) {
+                // Ordinary BMP code point, excluding leading surrogates.
+                index2Block = 0;
+                block       = chars.get(cp >> UTRIE2_SHIFT_2) << UTRIE2_INDEX_SHIFT;
+            } else if (cp < 0xffff) {
+                // Lead Surrogate Code Point, 0xd800 <= cp < 0xdc00
+                index2Block = UTRIE2_LSCP_INDEX_2_OFFSET;
+                block       = chars.get(index2Block + ((cp - 0xd800) >> UTRIE2_SHIFT_2)) << UTRIE2_INDEX_SHIFT;
+            } else if (cp < highStart) {
+                // Supplemental code point, use two-level lookup.
+                int ix = (UTRIE2_INDEX_1_OFFSET - UTRIE2_OMITTED_BMP_INDEX_1_LENGTH) + (cp >> UTRIE2_SHIFT_1);
+                index2Block = chars.get(ix);
+                block = chars.get(index2Block + ((cp >> UTRIE2_SHIFT_2) & UTRIE2_INDEX_2_MASK)) << UTRIE2_INDEX_SHIFT;
+            } else  {
+                // Code point above highStart.
+                if (value == chars.get(highValueIndex)) {
+                    cp = limit;
+                }
+                break;
+            }
+
+            if (index2Block == index2NullOffset) {
+                if (value != initialValue) {
+                    break;
+                }
+                cp += UTRIE2_CP_PER_INDEX_1_ENTRY;
+            } else if (block == dataNullOffset) {
+                // The block at dataNullOffset has all values == initialValue.
+                if (value != initialValue) {
+                    break;
+                }
+                cp += UTRIE2_DATA_BLOCK_LENGTH;
+            } else {
+                // Current position refers to an ordinary data block.
+                // Walk over the data entries, checking the values.
+                int startIx = block + (cp & UTRIE2_DATA_MASK);
+                int limitIx = block + UTRIE2_DATA_BLOCK_LENGTH;
+                for (int ix = startIx; ix<limitIx; ix++) {
+                    if (chars.get(ix) != value) {
+                        // We came to an entry with a different value.
+                        cp += (ix - startIx);
+                        break outerLoop;
+                    }
+                }
+                // The ordinary data block contained our value until its end.
+                cp += limitIx - startIx;
+            }
+        }
+        if (cp > limit) {
+            cp = limit;
+        }
+
+        return cp - 1;
+    }
+}
@@ -1,7 +1,7 @@
 /*
  *******************************************************************************
  *
- *   Copyright (C) 2004-2014, International Business Machines
+ *   Copyright (C) 2004-2015, International Business Machines
  *   Corporation and others.  All Rights Reserved.
  *
  *******************************************************************************
@@ -55,9 +55,10 @@ public final class UBiDiProps {
         }
 
         // read the trie
-        trie=Trie2_16.createFromSerialized(bytes);
+        int trieStart=bytes.position();
+        trie=Trie2_16Mapped.createForData(bytes);
         int expectedTrieLength=indexes[IX_TRIE_SIZE];
-        int trieLength=trie.getSerializedLength();
+        int trieLength=bytes.position()-trieStart;
         if(trieLength>expectedTrieLength) {
             throw new IOException(DATA_FILE_NAME+": not enough bytes for the trie");
         }
@@ -260,7 +261,7 @@ public final class UBiDiProps {
     private byte jgArray[];
     private byte jgArray2[];
 
-    private Trie2_16 trie;
+    private Trie2 trie;
 
     // data format constants ----------------------------------------------- ***
     private static final String DATA_NAME="ubidi";
@@ -1,7 +1,7 @@
 /*
  *******************************************************************************
  *
- *   Copyright (C) 2004-2014, International Business Machines
+ *   Copyright (C) 2004-2015, International Business Machines
  *   Corporation and others.  All Rights Reserved.
  *
  *******************************************************************************
@@ -58,9 +58,10 @@ public final class UCaseProps {
         }
 
         // read the trie
-        trie=Trie2_16.createFromSerialized(bytes);
+        int trieStart=bytes.position();
+        trie=Trie2_16Mapped.createForData(bytes);
         int expectedTrieLength=indexes[IX_TRIE_SIZE];
-        int trieLength=trie.getSerializedLength();
+        int trieLength=bytes.position()-trieStart;
         if(trieLength>expectedTrieLength) {
             throw new IOException(DATA_FILE_NAME+": not enough bytes for the trie");
         }
@@ -1155,6 +1156,30 @@ public final class UCaseProps {
         return c;
     }
 
+    /**
+     * Appends the full case folding of the leading ASCII run of s[start, limit[ to out,
+     * without trie lookups.
+     * In ASCII, only the uppercase letters change, by the same delta,
+     * except for the Turkic mapping of U+0049 which is left to toFullFolding().
+     * @return the index after the characters handled here;
+     *         limit, or the index of a non-ASCII character or of a Turkic-folded I
+     */
+    public static int foldASCII(CharSequence s, int start, int limit, StringBuilder out, int options) {
+        boolean isTurkic=(options&FOLD_CASE_OPTIONS_MASK)!=UCharacter.FOLD_CASE_DEFAULT;
+        int asciiLimit=Normalizer2Impl.UTF16Plus.spanASCII(s, start, limit);
+        for(int i=start; i<asciiLimit; ++i) {
+            char c=s.charAt(i);
+            if('A'<=c && c<='Z') {
+                if(c=='I' && isTurkic) {
+                    return i;
+                }
+                c+=0x20;
+            }
+            out.append(c);
+        }
+        return asciiLimit;
+    }
+
     /*
      * Issue for canonical caseless match (UAX #21):
      * Turkic casefolding (using "T" mappings in CaseFolding.txt) does not preserve
@@ -1308,7 +1333,7 @@ public final class UCaseProps {
     private char exceptions[];
     private char unfold[];
 
-    private Trie2_16 trie;
+    private Trie2 trie;
 
     // data format constants ----------------------------------------------- ***
     private static final String DATA_NAME="ucase";
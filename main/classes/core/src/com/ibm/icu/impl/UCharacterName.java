@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 1996-2014, International Business Machines Corporation and
+ * Copyright (C) 1996-2015, International Business Machines Corporation and
  * others. All Rights Reserved.
  *******************************************************************************
  */
@@ -16,6 +16,9 @@ import com.ibm.icu.lang.UCharacter;
 import com.ibm.icu.lang.UCharacterCategory;
 import com.ibm.icu.text.UTF16;
 import com.ibm.icu.text.UnicodeSet;
+import com.ibm.icu.util.BytesTrie;
+import com.ibm.icu.util.BytesTrieBuilder;
+import com.ibm.icu.util.StringTrieBuilder;
 
 /**
 * Internal class to manage character names.
@@ -77,26 +80,55 @@ public final class UCharacterName
     * @return if code point is above 0x1fff, null is returned
     */
     public String getName(int ch, int choice)
+    {
+        StringBuilder result = new StringBuilder();
+        if (appendName(ch, choice, result)) {
+            return result.toString();
+        }
+        return null;
+    }
+
+    /**
+    * Appends the name of a Unicode code point to a buffer.
+    * Like getName(), but does not create a String, so that a caller naming
+    * many code points can reuse one buffer. Group names are expanded
+    * without locking.
+    *
+    * @param ch the code point for which to get the name.
+    * @param choice Selector for which name to get.
+    * @param appendTo buffer to which to append the name
+    * @return true if a name was appended, false if the code point has no
+    *         such name, in which case appendTo is unchanged
+    */
+    public boolean appendName(int ch, int choice, StringBuilder appendTo)
     {
         if (ch < UCharacter.MIN_VALUE || ch > UCharacter.MAX_VALUE ||
             choice > UCharacterNameChoice.CHAR_NAME_CHOICE_COUNT) {
-            return null;
+            return false;
         }
 
-        String result = null;
-
-        result = getAlgName(ch, choice);
+        /* Only the normative character name can be algorithmic. */
+        if (choice == UCharacterNameChoice.UNICODE_CHAR_NAME ||
+            choice == UCharacterNameChoice.EXTENDED_CHAR_NAME
+        ) {
+            for (int index = m_algorithm_.length - 1; index >= 0; index --) {
+                if (m_algorithm_[index].contains(ch)) {
+                    m_algorithm_[index].appendName(ch, appendTo);
+                    return true;
+                }
+            }
+        }
 
         // getting normal character name
-        if (result == null || result.length() == 0) {
-            if (choice == UCharacterNameChoice.EXTENDED_CHAR_NAME) {
-                result = getExtendedName(ch);
-            } else {
-                result = getGroupName(ch, choice);
+        if (choice == UCharacterNameChoice.EXTENDED_CHAR_NAME) {
+            if (!appendGroupName(ch, UCharacterNameChoice.UNICODE_CHAR_NAME,
+                                 appendTo)) {
+                // TODO: Return Name_Alias/control names for control codes 0..1F & 7F..9F.
+                appendExtendedOr10Name(ch, appendTo);
             }
+            return true;
         }
-
-        return result;
+        return appendGroupName(ch, choice, appendTo);
     }
 
     /**
@@ -233,6 +265,25 @@ public final class UCharacterName
     * @return name of the group
     */
     public String getGroupName(int index, int length, int choice)
+    {
+        StringBuilder result = new StringBuilder();
+        if (appendGroupName(index, length, choice, result)) {
+            return result.toString();
+        }
+        return null;
+    }
+
+    /**
+    * Appends the name of the argument group index to a buffer.
+    * See getGroupName(int, int, int).
+    * @param index of the group name string in byte count
+    * @param length of the group name string
+    * @param choice of Unicode 1.0 name or the most current name
+    * @param appendTo buffer to which to append the name
+    * @return true if a name was appended
+    */
+    private boolean appendGroupName(int index, int length, int choice,
+                                    StringBuilder appendTo)
     {
         if (choice != UCharacterNameChoice.UNICODE_CHAR_NAME &&
             choice != UCharacterNameChoice.EXTENDED_CHAR_NAME
@@ -258,54 +309,48 @@ public final class UCharacterName
             }
         }
 
-        synchronized (m_utilStringBuffer_) {
-            m_utilStringBuffer_.delete(0, m_utilStringBuffer_.length());
-            byte b;
-            char token;
-            for (int i = 0; i < length;) {
-                b = m_groupstring_[index + i];
-                i ++;
+        int start = appendTo.length();
+        byte b;
+        char token;
+        for (int i = 0; i < length;) {
+            b = m_groupstring_[index + i];
+            i ++;
 
-                if (b >= m_tokentable_.length) {
+            if (b >= m_tokentable_.length) {
+                if (b == ';') {
+                    break;
+                }
+                appendTo.append(b); // implicit letter
+            }
+            else {
+                token = m_tokentable_[b & 0x00ff];
+                if (token == 0xFFFE) {
+                    // this is a lead byte for a double-byte token
+                    token = m_tokentable_[b << 8 |
+                                      (m_groupstring_[index + i] & 0x00ff)];
+                    i ++;
+                }
+                if (token == 0xFFFF) {
                     if (b == ';') {
+                        // skip the semicolon if we are seeking extended
+                        // names and there was no 2.0 name but there
+                        // is a 1.0 name.
+                        if (appendTo.length() == start && choice ==
+                               UCharacterNameChoice.EXTENDED_CHAR_NAME) {
+                            continue;
+                        }
                         break;
                     }
-                    m_utilStringBuffer_.append(b); // implicit letter
+                    // explicit letter
+                    appendTo.append((char)(b & 0x00ff));
                 }
-                else {
-                    token = m_tokentable_[b & 0x00ff];
-                    if (token == 0xFFFE) {
-                        // this is a lead byte for a double-byte token
-                        token = m_tokentable_[b << 8 |
-                                          (m_groupstring_[index + i] & 0x00ff)];
-                        i ++;
-                    }
-                    if (token == 0xFFFF) {
-                        if (b == ';') {
-                            // skip the semicolon if we are seeking extended
-                            // names and there was no 2.0 name but there
-                            // is a 1.0 name.
-                            if (m_utilStringBuffer_.length() == 0 && choice ==
-                                   UCharacterNameChoice.EXTENDED_CHAR_NAME) {
-                                continue;
-                            }
-                            break;
-                        }
-                        // explicit letter
-                        m_utilStringBuffer_.append((char)(b & 0x00ff));
-                    }
-                    else { // write token word
-                        UCharacterUtility.getNullTermByteSubString(
-                                m_utilStringBuffer_, m_tokenstring_, token);
-                    }
+                else { // write token word
+                    UCharacterUtility.getNullTermByteSubString(
+                            appendTo, m_tokenstring_, token);
                 }
             }
-
-            if (m_utilStringBuffer_.length() > 0) {
-                return m_utilStringBuffer_.toString();
-            }
         }
-        return null;
+        return appendTo.length() > start;
     }
 
     /**
@@ -354,35 +399,10 @@ public final class UCharacterName
      */
     public String getExtendedOr10Name(int ch)
     {
-        String result = null;
         // TODO: Return Name_Alias/control names for control codes 0..1F & 7F..9F.
-        if (result == null) {
-            int type = getType(ch);
-            // Return unknown if the table of names above is not up to
-            // date.
-            if (type >= TYPE_NAMES_.length) {
-                result = UNKNOWN_TYPE_NAME_;
-            }
-            else {
-                result = TYPE_NAMES_[type];
-            }
-            synchronized (m_utilStringBuffer_) {
-                m_utilStringBuffer_.delete(0, m_utilStringBuffer_.length());
-                m_utilStringBuffer_.append('<');
-                m_utilStringBuffer_.append(result);
-                m_utilStringBuffer_.append('-');
-                String chStr = Integer.toHexString(ch).toUpperCase(Locale.ENGLISH);
-                int zeros = 4 - chStr.length();
-                while (zeros > 0) {
-                    m_utilStringBuffer_.append('0');
-                    zeros --;
-                }
-                m_utilStringBuffer_.append(chStr);
-                m_utilStringBuffer_.append('>');
-                result = m_utilStringBuffer_.toString();
-            }
-        }
-        return result;
+        StringBuilder result = new StringBuilder();
+        appendExtendedOr10Name(ch, result);
+        return result.toString();
     }
 
     /**
@@ -501,21 +521,12 @@ public final class UCharacterName
     * @param ch character to get the group name
     * @param choice name choice selector to choose a unicode 1.0 or newer name
     */
-    public synchronized String getGroupName(int ch, int choice)
+    public String getGroupName(int ch, int choice)
     {
-        // gets the msb
-        int msb   = getCodepointMSB(ch);
-        int group = getGroup(ch);
-
-        // return this if it is an exact match
-        if (msb == m_groupinfo_[group * m_groupsize_]) {
-            int index = getGroupLengths(group, m_groupoffsets_,
-                                        m_grouplengths_);
-            int offset = ch & GROUP_MASK_;
-            return getGroupName(index + m_groupoffsets_[offset],
-                                m_grouplengths_[offset], choice);
+        StringBuilder result = new StringBuilder();
+        if (appendGroupName(ch, choice, result)) {
+            return result.toString();
         }
-
         return null;
     }
 
@@ -676,13 +687,13 @@ public final class UCharacterName
         }
 
         /**
-        * Appends algorithm name of code point into StringBuffer.
+        * Appends algorithm name of code point into StringBuilder.
         * Note this method does not check for validity of code point in Algorithm,
         * result is undefined if code point does not belong in Algorithm.
         * @param ch code point
-        * @param str StringBuffer to append to
+        * @param str StringBuilder to append to
         */
-        void appendName(int ch, StringBuffer str)
+        void appendName(int ch, StringBuilder str)
         {
             str.append(m_prefix_);
             switch (m_type_)
@@ -856,9 +867,9 @@ public final class UCharacterName
         private String m_prefix_;
         private byte m_factorstring_[];
         /**
-         * Utility StringBuffer
+         * Utility StringBuilder
          */
-        private StringBuffer m_utilStringBuffer_ = new StringBuffer();
+        private StringBuilder m_utilStringBuffer_ = new StringBuilder();
         /**
          * Utility int buffer
          */
@@ -1030,10 +1041,11 @@ public final class UCharacterName
     private AlgorithmName m_algorithm_[];
 
     /**
-    * Group use.  Note - access must be synchronized.
+    * Tries from group names to code points, indexed by name choice,
+    * built lazily.  Replaced as a whole when a trie is added.
     */
-    private char m_groupoffsets_[] = new char[LINES_PER_GROUP_ + 1];
-    private char m_grouplengths_[] = new char[LINES_PER_GROUP_ + 1];
+    private volatile byte m_nameTries_[][] =
+                        new byte[UCharacterNameChoice.CHAR_NAME_CHOICE_COUNT][];
 
     /**
     * Default name of the name datafile
@@ -1083,9 +1095,9 @@ public final class UCharacterName
      */
     private int m_ISOCommentSet_[] = new int[8];
     /**
-     * Utility StringBuffer
+     * Utility StringBuilder
      */
-    private StringBuffer m_utilStringBuffer_ = new StringBuffer();
+    private StringBuilder m_utilStringBuffer_ = new StringBuilder();
     /**
      * Utility int buffer
      */
@@ -1175,31 +1187,58 @@ public final class UCharacterName
     // private methods ---------------------------------------------------
 
     /**
-    * Gets the algorithmic name for the argument character
-    * @param ch character to determine name for
-    * @param choice name choice
-    * @return the algorithmic name or null if not found
+    * Appends the group name of the character to a buffer.
+    * The group offsets and lengths are decoded into local arrays, so that
+    * concurrent callers need not lock.
+    * @param ch character to get the group name
+    * @param choice name choice selector to choose a unicode 1.0 or newer name
+    * @param appendTo buffer to which to append the name
+    * @return true if a name was appended
     */
-    private String getAlgName(int ch, int choice)
+    private boolean appendGroupName(int ch, int choice, StringBuilder appendTo)
     {
-        /* Only the normative character name can be algorithmic. */
-        if (choice == UCharacterNameChoice.UNICODE_CHAR_NAME ||
-            choice == UCharacterNameChoice.EXTENDED_CHAR_NAME
-        ) {
-            // index in terms integer index
-            synchronized (m_utilStringBuffer_) {
-                m_utilStringBuffer_.delete(0, m_utilStringBuffer_.length());
+        // gets the msb
+        int msb   = getCodepointMSB(ch);
+        int group = getGroup(ch);
 
-                for (int index = m_algorithm_.length - 1; index >= 0; index --)
-                {
-                   if (m_algorithm_[index].contains(ch)) {
-                      m_algorithm_[index].appendName(ch, m_utilStringBuffer_);
-                      return m_utilStringBuffer_.toString();
-                   }
-                }
-            }
+        // return this if it is an exact match
+        if (msb == m_groupinfo_[group * m_groupsize_]) {
+            char offsets[] = new char[LINES_PER_GROUP_ + 1];
+            char lengths[] = new char[LINES_PER_GROUP_ + 1];
+            int index = getGroupLengths(group, offsets, lengths);
+            int offset = ch & GROUP_MASK_;
+            return appendGroupName(index + offsets[offset], lengths[offset],
+                                   choice, appendTo);
         }
-        return null;
+        return false;
+    }
+
+    /**
+    * Appends the extended name of the form &lt;type-XXXX&gt; to a buffer.
+    * @param ch codepoint
+    * @param appendTo buffer to which to append the name
+    */
+    private static void appendExtendedOr10Name(int ch, StringBuilder appendTo)
+    {
+        int type = getType(ch);
+        // Return unknown if the table of names above is not up to
+        // date.
+        appendTo.append('<');
+        if (type >= TYPE_NAMES_.length) {
+            appendTo.append(UNKNOWN_TYPE_NAME_);
+        }
+        else {
+            appendTo.append(TYPE_NAMES_[type]);
+        }
+        appendTo.append('-');
+        String chStr = Integer.toHexString(ch).toUpperCase(Locale.ENGLISH);
+        int zeros = 4 - chStr.length();
+        while (zeros > 0) {
+            appendTo.append('0');
+            zeros --;
+        }
+        appendTo.append(chStr);
+        appendTo.append('>');
     }
 
     /**
@@ -1208,106 +1247,95 @@ public final class UCharacterName
     * @return character with the tokenized argument name or -1 if character
     *         is not found
     */
-    private synchronized int getGroupChar(String name, int choice)
+    private int getGroupChar(String name, int choice)
     {
-        for (int i = 0; i < m_groupcount_; i ++) {
-            // populating the data set of grouptable
-
-            int startgpstrindex = getGroupLengths(i, m_groupoffsets_,
-                                                  m_grouplengths_);
-
-            // shift out to function
-            int result = getGroupChar(startgpstrindex, m_grouplengths_, name,
-                                      choice);
-            if (result != -1) {
-                return (m_groupinfo_[i * m_groupsize_] << GROUP_SHIFT_)
-                         | result;
+        byte trieBytes[] = getNameTrie(choice);
+        if (trieBytes.length == 0) {
+            return -1;
+        }
+        BytesTrie trie = new BytesTrie(trieBytes, 0);
+        BytesTrie.Result result = BytesTrie.Result.NO_MATCH;
+        for (int i = 0; i < name.length(); i ++) {
+            char c = name.charAt(i);
+            if (c > 0xFF) {
+                return -1;
+            }
+            result = trie.next(c);
+            if (!result.hasNext() && i + 1 < name.length()) {
+                return -1;
             }
         }
-        return -1;
+        return result.hasValue() ? trie.getValue() : -1;
     }
 
     /**
-    * Compares and retrieve character if name is found within the argument
-    * group
-    * @param index index where the set of names reside in the group block
-    * @param length list of lengths of the strings
-    * @param name character name to search for
-    * @param choice of either 1.0 or the most current unicode name
-    * @return relative character in the group which matches name, otherwise if
-    *         not found, -1 will be returned
+    * Gets the serialized trie mapping the group names for the name choice
+    * to their code points, building it on first use.
+    * The trie replaces a linear search which expanded each group name.
+    * @param choice name choice, less than CHAR_NAME_CHOICE_COUNT
+    * @return trie bytes, empty if there are no such names
     */
-    private int getGroupChar(int index, char length[], String name,
-                             int choice)
+    private byte[] getNameTrie(int choice)
     {
-        byte b = 0;
-        char token;
-        int len;
-        int namelen = name.length();
-        int nindex;
-        int count;
-
-        for (int result = 0; result <= LINES_PER_GROUP_; result ++) {
-            nindex = 0;
-            len = length[result];
-
-            if (choice != UCharacterNameChoice.UNICODE_CHAR_NAME &&
-                choice != UCharacterNameChoice.EXTENDED_CHAR_NAME
-            ) {
-                /*
-                 * skip the modern name if it is not requested _and_
-                 * if the semicolon byte value is a character, not a token number
-                 */
-                int fieldIndex= choice==UCharacterNameChoice.ISO_COMMENT_ ? 2 : choice;
-                do {
-                    int oldindex = index;
-                    index += UCharacterUtility.skipByteSubString(m_groupstring_,
-                                                         index, len, (byte)';');
-                    len -= (index - oldindex);
-                } while(--fieldIndex>0);
+        byte tries[][] = m_nameTries_;
+        if (tries[choice] == null) {
+            synchronized (this) {
+                tries = m_nameTries_;
+                if (tries[choice] == null) {
+                    tries = tries.clone();
+                    tries[choice] = buildNameTrie(choice);
+                    m_nameTries_ = tries;
+                }
             }
+        }
+        return tries[choice];
+    }
 
-            // number of tokens is > the length of the name
-            // write each letter directly, and write a token word per token
-            for (count = 0; count < len && nindex != -1 && nindex < namelen;
-                ) {
-                b = m_groupstring_[index + count];
-                count ++;
-
-                if (b >= m_tokentable_.length) {
-                    if (name.charAt(nindex ++) != (b & 0xFF)) {
-                        nindex = -1;
-                    }
+    /**
+    * Builds the trie for getNameTrie().
+    * Where several code points have the same name, the lowest one is kept.
+    * @param choice name choice
+    * @return trie bytes, empty if there are no such names
+    */
+    private byte[] buildNameTrie(int choice)
+    {
+        BytesTrieBuilder builder = new BytesTrieBuilder();
+        boolean isEmpty = true;
+        char offsets[] = new char[LINES_PER_GROUP_ + 1];
+        char lengths[] = new char[LINES_PER_GROUP_ + 1];
+        StringBuilder name = new StringBuilder();
+        byte key[] = new byte[64];
+        for (int group = 0; group < m_groupcount_; group ++) {
+            int index = getGroupLengths(group, offsets, lengths);
+            int msb = m_groupinfo_[group * m_groupsize_];
+            for (int offset = 0; offset < LINES_PER_GROUP_; offset ++) {
+                name.setLength(0);
+                if (!appendGroupName(index + offsets[offset], lengths[offset],
+                                     choice, name)) {
+                    continue;
                 }
-                else {
-                    token = m_tokentable_[b & 0xFF];
-                    if (token == 0xFFFE) {
-                        // this is a lead byte for a double-byte token
-                        token = m_tokentable_[b << 8 |
-                                   (m_groupstring_[index + count] & 0x00ff)];
-                        count ++;
-                    }
-                    if (token == 0xFFFF) {
-                        if (name.charAt(nindex ++) != (b & 0xFF)) {
-                            nindex = -1;
-                        }
-                    }
-                    else {
-                        // compare token with name
-                        nindex = UCharacterUtility.compareNullTermByteSubString(
-                                        name, m_tokenstring_, nindex, token);
-                    }
+                int length = name.length();
+                if (key.length < length) {
+                    key = new byte[2 * length];
+                }
+                for (int i = 0; i < length; i ++) {
+                    key[i] = (byte)name.charAt(i);
+                }
+                try {
+                    builder.add(key, length, (msb << GROUP_SHIFT_) | offset);
+                    isEmpty = false;
+                } catch (IllegalArgumentException e) {
+                    // duplicate name, keep the lower code point
                 }
             }
-
-            if (namelen == nindex &&
-                (count == len || m_groupstring_[index + count] == ';')) {
-                return result;
-            }
-
-            index += len;
         }
-        return -1;
+        if (isEmpty) {
+            return new byte[0];
+        }
+        ByteBuffer trie = builder.buildByteBuffer(StringTrieBuilder.Option.SMALL);
+        byte result[] = new byte[trie.remaining()];
+        trie.get(result);
+        return result;
     }
 
     /**
@@ -1425,7 +1453,7 @@ public final class UCharacterName
      * @param set set to add all chars of str to
      * @param str string to add
      */
-    private static int add(int set[], StringBuffer str)
+    private static int add(int set[], StringBuilder str)
     {
         int result = str.length();
 
@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 1996-2014, International Business Machines Corporation and
+ * Copyright (C) 1996-2015, International Business Machines Corporation and
  * others. All Rights Reserved.
  *******************************************************************************
  */
@@ -51,7 +51,7 @@ public final class UCharacterProperty
     /**
     * Trie data
     */
-    public Trie2_16 m_trie_;
+    public Trie2 m_trie_;
     /**
     * Unicode version
     */
@@ -401,6 +401,125 @@ public final class UCharacterProperty
         return getProperty(c)&TYPE_MASK;
     }
 
+    /**
+     * Returns the Script property value of the code point, without checking
+     * that it is in range.
+     */
+    public int getScript(int c) {
+        int scriptX=getAdditional(c, 0)&SCRIPT_X_MASK;
+        if(scriptX<SCRIPT_X_WITH_COMMON) {
+            return scriptX;
+        } else if(scriptX<SCRIPT_X_WITH_INHERITED) {
+            return UScript.COMMON;
+        } else if(scriptX<SCRIPT_X_WITH_OTHER) {
+            return UScript.INHERITED;
+        } else {
+            return m_scriptExtensions_[scriptX&SCRIPT_MASK_];
+        }
+    }
+
+    /**
+     * Writes the General_Category value of each code unit of s[start..limit-1]
+     * to dest, starting at destStart.
+     * Both units of a surrogate pair get the value of the supplementary code point;
+     * a surrogate pair that straddles limit is treated as an unpaired surrogate.
+     * Latin-1 characters are looked up in a table, and other BMP characters
+     * in the trie without decoding a code point.
+     */
+    public void getTypes(CharSequence s, int start, int limit, byte[] dest, int destStart) {
+        checkBulkRange(s, start, limit, dest.length, destStart);
+        byte[] latin1=m_latin1Types_;
+        Trie2 trie=m_trie_;
+        while(start<limit) {
+            char c=s.charAt(start++);
+            if(c<=0xff) {
+                dest[destStart++]=latin1[c];
+            } else if(!UTF16.isSurrogate(c)) {
+                dest[destStart++]=(byte)(trie.getFromU16SingleLead(c)&TYPE_MASK);
+            } else {
+                char c2;
+                if(UTF16.isLeadSurrogate(c) && start<limit &&
+                        UTF16.isTrailSurrogate(c2=s.charAt(start))) {
+                    byte type=(byte)(trie.get(getRawSupplementary(c, c2))&TYPE_MASK);
+                    dest[destStart++]=type;
+                    dest[destStart++]=type;
+                    ++start;
+                } else {
+                    // Not getFromU16SingleLead(): that returns lead surrogate code unit values.
+                    dest[destStart++]=(byte)(trie.get(c)&TYPE_MASK);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the Script value of each code unit of s[start..limit-1]
+     * to dest, starting at destStart, as getTypes() does for General_Category.
+     */
+    public void getScripts(CharSequence s, int start, int limit, int[] dest, int destStart) {
+        checkBulkRange(s, start, limit, dest.length, destStart);
+        int[] latin1=m_latin1Scripts_;
+        while(start<limit) {
+            char c=s.charAt(start++);
+            if(c<=0xff) {
+                dest[destStart++]=latin1[c];
+            } else {
+                char c2;
+                if(UTF16.isLeadSurrogate(c) && start<limit &&
+                        UTF16.isTrailSurrogate(c2=s.charAt(start))) {
+                    int script=getScript(getRawSupplementary(c, c2));
+                    dest[destStart++]=script;
+                    dest[destStart++]=script;
+                    ++start;
+                } else {
+                    dest[destStart++]=getScript(c);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the value of an int property for each code unit of s[start..limit-1]
+     * to dest, starting at destStart, as getTypes() does for General_Category.
+     */
+    public void getIntPropertyValues(CharSequence s, int start, int limit, int which,
+                                     int[] dest, int destStart) {
+        if(which==UProperty.SCRIPT) {
+            getScripts(s, start, limit, dest, destStart);
+            return;
+        }
+        checkBulkRange(s, start, limit, dest.length, destStart);
+        IntProperty prop=
+            UProperty.INT_START<=which && which<UProperty.INT_LIMIT ?
+                intProps[which-UProperty.INT_START] : null;
+        while(start<limit) {
+            char c=s.charAt(start++);
+            char c2;
+            int cp;
+            if(UTF16.isLeadSurrogate(c) && start<limit &&
+                    UTF16.isTrailSurrogate(c2=s.charAt(start))) {
+                cp=getRawSupplementary(c, c2);
+            } else {
+                cp=c;
+            }
+            int value= prop!=null ? prop.getValue(cp) : getIntPropertyValue(cp, which);
+            dest[destStart++]=value;
+            if(cp>0xffff) {
+                dest[destStart++]=value;
+                ++start;
+            }
+        }
+    }
+
+    private static void checkBulkRange(CharSequence s, int start, int limit,
+                                       int destLength, int destStart) {
+        if(start<0 || start>limit || limit>s.length() ||
+                destStart<0 || destStart>destLength-(limit-start)) {
+            throw new IndexOutOfBoundsException(
+                "start="+start+" limit="+limit+" destStart="+destStart);
+        }
+    }
+
     /*
      * Map some of the Grapheme Cluster Break values to Hangul Syllable Types.
      * Hangul_Syllable_Type is fully redundant with a subset of Grapheme_Cluster_Break.
@@ -524,7 +643,7 @@ public final class UCharacterProperty
         },
         new IntProperty(0, SCRIPT_MASK_, 0) {
             int getValue(int c) {
-                return UScript.getScript(c);
+                return getScript(c);
             }
         },
         new IntProperty(SRC_PROPSVEC) {  // HANGUL_SYLLABLE_TYPE
@@ -939,7 +1058,7 @@ public final class UCharacterProperty
     /**
      * Extra property trie
      */
-    Trie2_16 m_additionalTrie_;
+    Trie2 m_additionalTrie_;
     /**
      * Extra property vectors, 1st column for age and second for binary
      * properties.
@@ -965,6 +1084,12 @@ public final class UCharacterProperty
      */
     public char[] m_scriptExtensions_;
 
+    /**
+     * General_Category and Script values of U+0000..U+00FF, for bulk lookups
+     */
+    private byte m_latin1Types_[];
+    private int m_latin1Scripts_[];
+
     // private variables -------------------------------------------------
 
     /**
@@ -1202,9 +1327,10 @@ public final class UCharacterProperty
         ICUBinary.skipBytes(bytes, (16 - 12) << 2);
 
         // read the main properties trie
-        m_trie_ = Trie2_16.createFromSerialized(bytes);
+        int trieStart = bytes.position();
+        m_trie_ = Trie2_16Mapped.createForData(bytes);
         int expectedTrieLength = (propertyOffset - 16) * 4;
-        int trieLength = m_trie_.getSerializedLength();
+        int trieLength = bytes.position() - trieStart;
         if(trieLength > expectedTrieLength) {
             throw new IOException("uprops.icu: not enough bytes for main trie");
         }
@@ -1216,9 +1342,10 @@ public final class UCharacterProperty
 
         if(m_additionalColumnsCount_ > 0) {
             // reads the additional property block
-            m_additionalTrie_ = Trie2_16.createFromSerialized(bytes);
+            trieStart = bytes.position();
+            m_additionalTrie_ = Trie2_16Mapped.createForData(bytes);
             expectedTrieLength = (additionalVectorsOffset-additionalOffset)*4;
-            trieLength = m_additionalTrie_.getSerializedLength();
+            trieLength = bytes.position() - trieStart;
             if(trieLength > expectedTrieLength) {
                 throw new IOException("uprops.icu: not enough bytes for additional-properties trie");
             }
@@ -1241,6 +1368,13 @@ public final class UCharacterProperty
                 m_scriptExtensions_[i] = bytes.getChar();
             }
         }
+
+        m_latin1Types_ = new byte[0x100];
+        m_latin1Scripts_ = new int[0x100];
+        for(int c = 0; c < 0x100; ++c) {
+            m_latin1Types_[c] = (byte)getType(c);
+            m_latin1Scripts_[c] = getScript(c);
+        }
     }
 
     private static final class IsAcceptable implements ICUBinary.Authenticate {
@@ -1,6 +1,6 @@
 /**
 *******************************************************************************
-* Copyright (C) 1996-2004, International Business Machines Corporation and    *
+* Copyright (C) 1996-2015, International Business Machines Corporation and    *
 * others. All Rights Reserved.                                                *
 *******************************************************************************
 */
@@ -50,13 +50,13 @@ public final class UCharacterUtility
     * Substring is a set of non-zero bytes starting from argument start to the 
     * next zero byte. If the first byte is a zero, the next byte will be taken as
     * the first byte.
-    * @param str stringbuffer to store data in, data will be store with each
+    * @param str StringBuilder to store data in, data will be store with each
     *            byte as a char
     * @param array byte array
     * @param index to start substring in byte count
     * @return the end position of the substring within the character array
     */
-    static int getNullTermByteSubString(StringBuffer str, byte[] array, 
+    static int getNullTermByteSubString(StringBuilder str, byte[] array, 
                                                   int index)
     {
         byte b = 1;
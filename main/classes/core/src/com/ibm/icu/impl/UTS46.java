@@ -47,6 +47,12 @@ public final class UTS46 extends IDNA {
 
     @Override
     public StringBuilder nameToASCII(CharSequence name, StringBuilder dest, Info info) {
+        if(dest!=name && isLowercaseLDHName(name)) {
+            // Fastpath: The name maps to itself without errors.
+            resetInfo(info);
+            dest.setLength(0);
+            return dest.append(name);
+        }
         process(name, false, true, dest, info);
         if( dest.length()>=254 && !info.getErrors().contains(Error.DOMAIN_NAME_TOO_LONG) &&
             isASCIIString(dest) &&
@@ -57,6 +63,16 @@ public final class UTS46 extends IDNA {
         return dest;
     }
 
+    @Override
+    public int nameToASCII(CharSequence name, char[] dest, int destStart, Info info) {
+        if(isLowercaseLDHName(name)) {
+            // Fastpath: Copy the name without allocating a StringBuilder.
+            resetInfo(info);
+            return copyResult(name, dest, destStart);
+        }
+        return super.nameToASCII(name, dest, destStart, info);
+    }
+
     @Override
     public StringBuilder nameToUnicode(CharSequence name, StringBuilder dest, Info info) {
         return process(name, false, false, dest, info);
@@ -77,12 +93,43 @@ public final class UTS46 extends IDNA {
     private static boolean
     isASCIIString(CharSequence dest) {
         int length=dest.length();
+        return Normalizer2Impl.UTF16Plus.spanASCII(dest, 0, length)==length;
+    }
+
+    // Returns true if name is a domain name of lowercase ASCII letters, digits, hyphens and dots
+    // that ToASCII maps to itself without any errors, regardless of the options:
+    // Each label has 1..63 characters, does not start or end with a hyphen,
+    // and does not have hyphens in its third and fourth positions (which includes "xn--").
+    // Only the last label may be empty (the root label after a trailing dot),
+    // and the name fits into 253 characters, or 254 with a trailing dot.
+    private static boolean
+    isLowercaseLDHName(CharSequence name) {
+        int length=name.length();
+        if(length==0 || length>254) {
+            return false;
+        }
+        int labelStart=0;
         for(int i=0; i<length; ++i) {
-            if(dest.charAt(i)>0x7f) {
+            char c=name.charAt(i);
+            if(c=='.') {
+                int labelLength=i-labelStart;
+                if(labelLength==0 || labelLength>63 || name.charAt(i-1)=='-') {
+                    return false;
+                }
+                labelStart=i+1;
+            } else if(c=='-') {
+                if(i==labelStart || ((i-labelStart)==3 && name.charAt(i-1)=='-')) {
+                    return false;
+                }
+            } else if(!(('a'<=c && c<='z') || ('0'<=c && c<='9'))) {
                 return false;
             }
         }
-        return true;
+        int labelLength=length-labelStart;
+        if(labelLength==0) {
+            return true;  // trailing dot
+        }
+        return length<254 && labelLength<=63 && name.charAt(length-1)!='-';
     }
 
     // UTS #46 data for ASCII characters.
@@ -1,6 +1,6 @@
 /**
 *******************************************************************************
-* Copyright (C) 1996-2014, International Business Machines Corporation and
+* Copyright (C) 1996-2015, International Business Machines Corporation and
 * others. All Rights Reserved.
 *******************************************************************************
 */
@@ -3597,6 +3597,29 @@ public final class UCharacter implements ECharacterCategory, ECharacterDirection
         return UCharacterProperty.INSTANCE.getType(ch);
     }
 
+    /**
+     * {@icu} Returns the categories of the code points in a range of text,
+     * one per code unit: both units of a surrogate pair get the category of
+     * the supplementary code point, so that
+     * <code>dest[destStart + i - start]</code> is the category at
+     * <code>s.charAt(i)</code>.
+     * This is faster than calling {@link #getType(int)} for each code point.
+     * @param s the text
+     * @param start the index of the first code unit
+     * @param limit the index after the last code unit
+     * @param dest the array for the categories, which are values of
+     *        UCharacterCategory, with room for <code>limit - start</code> values
+     * @param destStart the index in dest for the first category
+     * @throws IndexOutOfBoundsException if the range is not within s or dest
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static void getTypes(CharSequence s, int start, int limit,
+                                byte[] dest, int destStart)
+    {
+        UCharacterProperty.INSTANCE.getTypes(s, start, limit, dest, destStart);
+    }
+
     /**
      * Determines if a code point has a defined meaning in the up-to-date
      * Unicode standard.
@@ -5298,6 +5321,11 @@ public final class UCharacter implements ECharacterCategory, ECharacterDirection
 
         length = str.length();
         for(i=0; i<length;) {
+            // Fastpath: ASCII runs fold without trie lookups.
+            i=UCaseProps.foldASCII(str, i, length, result, options);
+            if(i==length) {
+                break;
+            }
             c=UTF16.charAt(str, i);
             i+=UTF16.getCharCount(c);
             c = UCaseProps.INSTANCE.toFullFolding(c, result, options);
@@ -5653,6 +5681,31 @@ public final class UCharacter implements ECharacterCategory, ECharacterDirection
     {
         return UCharacterProperty.INSTANCE.getIntPropertyValue(ch, type);
     }
+
+    /**
+     * {@icu} Returns the property values of the code points in a range of
+     * text, one per code unit, as {@link #getIntPropertyValue(int, int)} does
+     * for each code point. Both units of a surrogate pair get the value of the
+     * supplementary code point, so that <code>dest[destStart + i - start]</code>
+     * is the value at <code>s.charAt(i)</code>.
+     * The property is resolved once for the whole range.
+     * @param s the text
+     * @param start the index of the first code unit
+     * @param limit the index after the last code unit
+     * @param type UProperty selector constant, as for getIntPropertyValue()
+     * @param dest the array for the property values, with room for
+     *        <code>limit - start</code> values
+     * @param destStart the index in dest for the first value
+     * @throws IndexOutOfBoundsException if the range is not within s or dest
+     * @see #getIntPropertyValue
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static void getIntPropertyValues(CharSequence s, int start, int limit, int type,
+                                            int[] dest, int destStart)
+    {
+        UCharacterProperty.INSTANCE.getIntPropertyValues(s, start, limit, type, dest, destStart);
+    }
     /**
      * {@icu} Returns a string version of the property value.
      * @param propertyEnum The property enum value.
@@ -1,6 +1,6 @@
 /**
  *******************************************************************************
- * Copyright (C) 2001-2014 International Business Machines Corporation and
+ * Copyright (C) 2001-2015 International Business Machines Corporation and
  * others. All Rights Reserved.
  *******************************************************************************
  */
@@ -1065,21 +1065,69 @@ public final class UScript {
      */
     public static final int getScript(int codepoint){
         if (codepoint >= UCharacter.MIN_VALUE & codepoint <= UCharacter.MAX_VALUE) {
-            int scriptX=UCharacterProperty.INSTANCE.getAdditional(codepoint, 0)&UCharacterProperty.SCRIPT_X_MASK;
-            if(scriptX<UCharacterProperty.SCRIPT_X_WITH_COMMON) {
-                return scriptX;
-            } else if(scriptX<UCharacterProperty.SCRIPT_X_WITH_INHERITED) {
-                return UScript.COMMON;
-            } else if(scriptX<UCharacterProperty.SCRIPT_X_WITH_OTHER) {
-                return UScript.INHERITED;
-            } else {
-                return UCharacterProperty.INSTANCE.m_scriptExtensions_[scriptX&UCharacterProperty.SCRIPT_MASK_];
-            }
+            return UCharacterProperty.INSTANCE.getScript(codepoint);
         }else{
             throw new IllegalArgumentException(Integer.toString(codepoint));
         }
     }
 
+    /**
+     * Gets the script codes of the code points in a range of text, one per
+     * code unit: both units of a surrogate pair get the script code of the
+     * supplementary code point, so that <code>dest[destStart + i - start]</code>
+     * is the script code at <code>s.charAt(i)</code>.
+     * This is faster than calling {@link #getScript(int)} for each code point.
+     *
+     * @param s the text
+     * @param start the index of the first code unit
+     * @param limit the index after the last code unit
+     * @param dest the array for the script codes, with room for
+     *        <code>limit - start</code> values
+     * @param destStart the index in dest for the first script code
+     * @throws IndexOutOfBoundsException if the range is not within s or dest
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static final void getScripts(CharSequence s, int start, int limit,
+                                        int[] dest, int destStart) {
+        UCharacterProperty.INSTANCE.getScripts(s, start, limit, dest, destStart);
+    }
+
+    /**
+     * Finds all of the script runs in a range of text in one pass.
+     * A script run is a maximal range of text in a single script.
+     * Characters in the COMMON and INHERITED scripts join the run they are in,
+     * and the paired punctuation of matching brackets and quotes gets the
+     * script of the text around the opening character.
+     * Run <code>i</code> goes from <code>runLimits[i - 1]</code> (or
+     * <code>start</code> for the first run) to <code>runLimits[i]</code>,
+     * in the script <code>runScripts[i]</code>.
+     *
+     * <p>This method does not keep any shared state, so different threads can
+     * find the script runs of different pieces of text, such as paragraphs,
+     * at the same time.
+     *
+     * @param text the text
+     * @param start the index of the first character of the range
+     * @param limit the index after the last character of the range
+     * @param runLimits receives the limit of each run; <code>limit - start</code>
+     *        entries are always enough
+     * @param runScripts receives the script code of each run
+     * @return the number of runs
+     * @throws IllegalArgumentException if the range is not within the text
+     * @throws IndexOutOfBoundsException if the arrays are too short for the runs
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    @SuppressWarnings("deprecation")
+    public static final int itemize(CharSequence text, int start, int limit,
+                                    int[] runLimits, int[] runScripts) {
+        if (start < 0 || start > limit || limit > text.length()) {
+            throw new IllegalArgumentException();
+        }
+        return new UScriptRun().itemizeRuns(text, start, limit, runLimits, runScripts);
+    }
+
     /**
      * Do the Script_Extensions of code point c contain script sc?
      * If c does not have explicit Script_Extensions, then this tests whether
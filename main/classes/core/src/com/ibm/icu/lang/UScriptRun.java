@@ -1,7 +1,7 @@
 /*
  *******************************************************************************
  *
- *   Copyright (C) 1999-2014, International Business Machines
+ *   Copyright (C) 1999-2015, International Business Machines
  *   Corporation and others.  All Rights Reserved.
  *
  *******************************************************************************
@@ -402,6 +402,128 @@ public final class UScriptRun
         return true;
     }
 
+    /**
+     * Find all of the script runs in a range of the text in one pass, with the
+     * same results as iterating over them with <code>next()</code>.
+     * Equivalent to {@link UScript#itemize(CharSequence, int, int, int[], int[])}.
+     *
+     * @param text the text
+     * @param start the index of the first character of the range
+     * @param limit the index after the last character of the range
+     * @param runLimits receives the limit of each run; <code>limit - start</code>
+     *        entries are always enough
+     * @param runScripts receives the script code of each run
+     * @return the number of runs
+     * @exception IllegalArgumentException If the range is outside of the text.
+     * @exception IndexOutOfBoundsException If the arrays are too short for the runs.
+     *
+     * @internal
+     * @deprecated This API is ICU internal only.
+     */
+    @Deprecated
+    public static int itemize(CharSequence text, int start, int limit,
+                              int[] runLimits, int[] runScripts)
+    {
+        return UScript.itemize(text, start, limit, runLimits, runScripts);
+    }
+
+    /**
+     * Implements UScript.itemize() on a new UScriptRun, whose paren stack
+     * is not shared with any other object.
+     */
+    int itemizeRuns(CharSequence text, int start, int limit,
+                    int[] runLimits, int[] runScripts)
+    {
+        int[] scripts = new int[Math.min(limit - start, ITEMIZE_BLOCK_SIZE)];
+        int runCount = 0;
+
+        scriptCode = UScript.COMMON;
+        syncFixup();
+
+        int blockStart = start;
+        while (blockStart < limit) {
+            int blockLimit = Math.min(limit, blockStart + ITEMIZE_BLOCK_SIZE);
+
+            // Don't split a surrogate pair between blocks.
+            if (blockLimit < limit && UTF16.isLeadSurrogate(text.charAt(blockLimit - 1))
+                    && UTF16.isTrailSurrogate(text.charAt(blockLimit))) {
+                blockLimit -= 1;
+            }
+
+            UScript.getScripts(text, blockStart, blockLimit, scripts, 0);
+
+            // Both units of a surrogate pair have the script of the code point,
+            // so the second unit always matches the run the first one went into,
+            // and paired characters are all in the BMP.
+            for (int i = blockStart; i < blockLimit; i += 1) {
+                int sc = scripts[i - blockStart];
+
+                if (sc == scriptCode && sc > UScript.INHERITED) {
+                    continue;
+                }
+
+                int pairIndex = -1;
+
+                if (sc == UScript.COMMON) {
+                    char ch = text.charAt(i);
+
+                    if (ch <= PAIRED_CHAR_MAX) {
+                        pairIndex = getPairIndex(ch);
+                    }
+                }
+
+                if (pairIndex >= 0) {
+                    if ((pairIndex & 1) == 0) {
+                        push(pairIndex, scriptCode);
+                    } else {
+                        int pi = pairIndex & ~1;
+
+                        while (stackIsNotEmpty() && top().pairIndex != pi) {
+                            pop();
+                        }
+
+                        if (stackIsNotEmpty()) {
+                            sc = top().scriptCode;
+                        }
+                    }
+                } else if (sc <= UScript.INHERITED) {
+                    continue;
+                }
+
+                if (sameScript(scriptCode, sc)) {
+                    if (scriptCode <= UScript.INHERITED && sc > UScript.INHERITED) {
+                        scriptCode = sc;
+
+                        fixup(scriptCode);
+                    }
+
+                    if (pairIndex >= 0 && (pairIndex & 1) != 0) {
+                        pop();
+                    }
+                } else {
+                    // This character starts the next run.
+                    runLimits[runCount]  = i;
+                    runScripts[runCount] = scriptCode;
+                    runCount += 1;
+
+                    scriptCode = UScript.COMMON;
+                    syncFixup();
+                    i -= 1;
+                }
+            }
+
+            blockStart = blockLimit;
+        }
+
+        if (limit > start) {
+            runLimits[runCount]  = limit;
+            runScripts[runCount] = scriptCode;
+            runCount += 1;
+        }
+
+        return runCount;
+    }
+
     /**
      * Compare two script codes to see if they are in the same script. If one script is
      * a strong script, and the other is INHERITED or COMMON, it will compare equal.
@@ -540,7 +662,7 @@ public final class UScriptRun
     private int  scriptCode;
 
     private static int PAREN_STACK_DEPTH = 32;
-    private static ParenStackEntry parenStack[] = new ParenStackEntry[PAREN_STACK_DEPTH];
+    private ParenStackEntry parenStack[] = new ParenStackEntry[PAREN_STACK_DEPTH];
     private int parenSP = -1;
     private int pushCount = 0;
     private int fixupCount = 0;
@@ -640,5 +762,8 @@ public final class UScriptRun
 
     private static int pairedCharPower = 1 << highBit(pairedChars.length);
     private static int pairedCharExtra = pairedChars.length - pairedCharPower;
+    private static final int PAIRED_CHAR_MAX = pairedChars[pairedChars.length - 1];
+
+    private static final int ITEMIZE_BLOCK_SIZE = 256;
 }
 
@@ -1,6 +1,6 @@
 /*
 *******************************************************************************
-*   Copyright (C) 2001-2014, International Business Machines
+*   Copyright (C) 2001-2015, International Business Machines
 *   Corporation and others.  All Rights Reserved.
 *******************************************************************************
 */
@@ -1123,6 +1123,9 @@ public class Bidi {
     /* for option OPTION_REMOVE_CONTROLS */
     int                 controlCount;
 
+    /* reused by writeReordered(int, char[], int) */
+    StringBuilder       writeBuffer;
+
     /*
      * Sometimes, bit values are more appropriate
      * to deal with directionality properties.
@@ -1325,6 +1328,9 @@ public class Bidi {
     /*
      * We are allowed to allocate memory if object==null or
      * mayAllocate==true for each array that we need.
+     * The arrays only ever grow, so that a Bidi object which is reused
+     * for many (short) texts stops allocating once it has seen the longest one;
+     * users of the arrays rely on this.length rather than on array.length.
      *
      * Assume sizeNeeded>0.
      * If object != null, then assume size > 0.
@@ -1334,21 +1340,16 @@ public class Bidi {
     {
         int len = Array.getLength(array);
 
-        /* we have at least enough memory and must not allocate */
-        if (sizeNeeded == len) {
+        /* we have at least enough memory */
+        if (sizeNeeded <= len) {
             return array;
         }
         if (!mayAllocate) {
             /* we must not allocate */
-            if (sizeNeeded <= len) {
-                return array;
-            }
             throw new OutOfMemoryError("Failed to allocate memory for "
                                        + label);
         }
-        /* we may try to grow or shrink */
-        /* FOOD FOR THOUGHT: when shrinking it should be possible to avoid
-           the allocation altogether and rely on this.length */
+        /* we may try to grow */
         try {
             return Array.newInstance(arrayClass, sizeNeeded);
         } catch (Exception e) {
@@ -1801,8 +1802,78 @@ public class Bidi {
     static final int SEEKING_STRONG_FOR_FSI = 2;    /* 2: looking for first strong after FSI */
     static final int LOOKING_FOR_PDI = 3;           /* 3: found strong after FSI, looking for PDI */
 
+    /*
+     * Bidi classes of the code points below the Hebrew block, or -1 for
+     * the few which can make a paragraph non-LTR (AN, B) in getDirProps().
+     * Used by getDirPropsSimpleLTR().
+     */
+    private static final class SimpleLTRClasses {
+        static final int LIMIT = 0x590;
+        static final byte[] classes = new byte[LIMIT];
+        static {
+            UBiDiProps bdp = UBiDiProps.INSTANCE;
+            for (int c = 0; c < LIMIT; ++c) {
+                int dirProp = bdp.getClass(c);
+                if (dirProp >= UCharacterDirection.CHAR_DIRECTION_COUNT) {
+                    dirProp = ON;
+                }
+                if ((DirPropFlag((byte)dirProp) & SIMPLE_LTR_MASK) != 0) {
+                    classes[c] = (byte)dirProp;
+                } else {
+                    classes[c] = -1;
+                }
+            }
+        }
+    }
+
+    /* classes which leave a paragraph unidirectionally LTR without any (Xn) processing */
+    static final int SIMPLE_LTR_MASK = DirPropFlag(L) | DirPropFlag(EN) |
+            DirPropFlag(ES) | DirPropFlag(ET) | DirPropFlag(CS) | DirPropFlag(S) |
+            DirPropFlag(WS) | DirPropFlag(ON) | DirPropFlag(NSM) | DirPropFlag(BN);
+
+    /*
+     * Fast path for getDirProps(): Most short UI strings are plain LTR text
+     * without any paragraph separators. If the whole text consists of such
+     * characters, then a single table lookup per code unit yields the same
+     * dirProps[], flags and paragraph data as the general loop in getDirProps().
+     * Returns false (and leaves the object in an unspecified state for
+     * getDirProps() to overwrite) as soon as any other character is seen.
+     */
+    private boolean getDirPropsSimpleLTR()
+    {
+        if (customClassifier != null ||
+            (paraLevel & 1) != 0 ||
+            (IsDefaultLevel(paraLevel) && prologue != null) ||
+            (reorderingOptions & OPTION_STREAMING) != 0) {
+            return false;
+        }
+        byte[] classes = SimpleLTRClasses.classes;
+        int flags = 0;
+        for (int i = 0; i < originalLength; ++i) {
+            char c = text[i];
+            byte dirProp;
+            if (c >= SimpleLTRClasses.LIMIT || (dirProp = classes[c]) < 0) {
+                return false;
+            }
+            flags |= DirPropFlag(dirProp);
+            dirProps[i] = dirProp;
+        }
+        lastArabicPos = -1;
+        controlCount = 0;
+        if (IsDefaultLevel(paraLevel)) {
+            paraLevel = 0;
+        }
+        paras_limit[0] = originalLength;
+        paras_level[0] = paraLevel;
+        this.flags = flags | DirPropFlagLR(paraLevel);
+        return true;
+    }
+
     private void getDirProps()
     {
+        if (getDirPropsSimpleLTR()) {
+            return;
+        }
         int i = 0, i0, i1;
         flags = 0;          /* collect all directionalities in the text */
         int uchar;
@@ -5724,6 +5795,89 @@ public class Bidi {
         return BidiWriter.writeReordered(this, options);
     }
 
+    /**
+     * Take a <code>Bidi</code> object containing the reordering
+     * information for a piece of text (one or more paragraphs) set by
+     * <code>setPara()</code> or for a line of text set by <code>setLine()</code>
+     * and append the reordered text to a <code>StringBuilder</code>.
+     *
+     * <p>This is the same as <code>writeReordered(int)</code> except that no
+     * <code>String</code> is created. Together with reusing the same
+     * <code>Bidi</code> object for <code>setPara()</code>, which only grows
+     * its internal arrays, this allows many short strings to be
+     * reordered without per-string allocations.</p>
+     *
+     * @param options A bit set of options for the reordering that control
+     *                how the reordered text is written.
+     *                See <code>writeReordered(int)</code>.
+     * @param dest The reordered text is appended to this buffer.
+     * @return dest
+     *
+     * @throws IllegalStateException if this call is not preceded by a successful
+     *         call to <code>setPara</code> or <code>setLine</code>
+     *
+     * @see #writeReordered(int)
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public StringBuilder writeReordered(int options, StringBuilder dest)
+    {
+        verifyValidParaOrLine();
+        if (length > 0) {
+            BidiWriter.writeReordered(this, options, dest);
+        }
+        return dest;
+    }
+
+    /**
+     * Take a <code>Bidi</code> object containing the reordering
+     * information for a piece of text (one or more paragraphs) set by
+     * <code>setPara()</code> or for a line of text set by <code>setLine()</code>
+     * and write the reordered text into a <code>char[]</code>.
+     *
+     * <p>This is the same as <code>writeReordered(int)</code> except that no
+     * <code>String</code> is created; the text is assembled in a buffer
+     * owned by this <code>Bidi</code> object, which is reused by
+     * subsequent calls.</p>
+     *
+     * @param options A bit set of options for the reordering that control
+     *                how the reordered text is written.
+     *                See <code>writeReordered(int)</code>.
+     * @param dest destination array
+     * @param destStart start index in dest where the reordered text is written
+     * @return the number of chars written to dest
+     *
+     * @throws IllegalStateException if this call is not preceded by a successful
+     *         call to <code>setPara</code> or <code>setLine</code>
+     * @throws IndexOutOfBoundsException if the reordered text does not fit into
+     *         dest starting at destStart; the exception message is the
+     *         required length of the reordered text
+     *
+     * @see #writeReordered(int)
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public int writeReordered(int options, char[] dest, int destStart)
+    {
+        verifyValidParaOrLine();
+        if (length == 0) {
+            /* nothing to do */
+            return 0;
+        }
+        if (writeBuffer == null) {
+            writeBuffer = new StringBuilder();
+        } else {
+            writeBuffer.setLength(0);
+        }
+        BidiWriter.writeReordered(this, options, writeBuffer);
+        int reorderedLength = writeBuffer.length();
+        if (destStart < 0 || reorderedLength > dest.length - destStart) {
+            throw new IndexOutOfBoundsException(Integer.toString(reorderedLength));
+        }
+        writeBuffer.getChars(0, reorderedLength, dest, destStart);
+        return reorderedLength;
+    }
+
     /**
      * Reverse a Right-To-Left run of Unicode text.
      *
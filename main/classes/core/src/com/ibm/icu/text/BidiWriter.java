@@ -1,6 +1,6 @@
 /*
 *******************************************************************************
-*   Copyright (C) 2001-2010, International Business Machines
+*   Copyright (C) 2001-2015, International Business Machines
 *   Corporation and others.  All Rights Reserved.
 *******************************************************************************
 */
@@ -36,67 +36,72 @@ final class BidiWriter {
      * since the implicit second reversal must not do it.
      * It looks strange to do mirroring in LTR output, but it is only because
      * we are writing RTL output in reverse.
+     *
+     * The run text[start..limit[ is appended to dest.
      */
-    private static String doWriteForward(String src, int options) {
+    private static void doWriteForward(char[] text, int start, int limit,
+                                       int options, StringBuilder dest)
+    {
         /* optimize for several combinations of options */
         switch(options&(Bidi.REMOVE_BIDI_CONTROLS|Bidi.DO_MIRRORING)) {
         case 0: {
-            /* simply return the LTR run */
-            return src;
+            /* simply copy the LTR run */
+            dest.append(text, start, limit - start);
+            break;
         }
         case Bidi.DO_MIRRORING: {
-            StringBuffer dest = new StringBuffer(src.length());
-
             /* do mirroring */
-            int i=0;
+            int i = start;
             int c;
 
             do {
-                c = UTF16.charAt(src, i);
+                c = UTF16.charAt(text, start, limit, i - start);
                 i += UTF16.getCharCount(c);
-                UTF16.append(dest, UCharacter.getMirror(c));
-            } while(i < src.length());
-            return dest.toString();
+                dest.appendCodePoint(UCharacter.getMirror(c));
+            } while(i < limit);
+            break;
         }
         case Bidi.REMOVE_BIDI_CONTROLS: {
-            StringBuilder dest = new StringBuilder(src.length());
-
             /* copy the LTR run and remove any Bidi control characters */
-            int i = 0;
+            int i = start;
             char c;
             do {
-                c = src.charAt(i++);
+                c = text[i++];
                 if(!Bidi.IsBidiControlChar(c)) {
                     dest.append(c);
                 }
-            } while(i < src.length());
-            return dest.toString();
+            } while(i < limit);
+            break;
         }
         default: {
-            StringBuffer dest = new StringBuffer(src.length());
-
             /* remove Bidi control characters and do mirroring */
-            int i = 0;
+            int i = start;
             int c;
             do {
-                c = UTF16.charAt(src, i);
+                c = UTF16.charAt(text, start, limit, i - start);
                 i += UTF16.getCharCount(c);
                 if(!Bidi.IsBidiControlChar(c)) {
-                    UTF16.append(dest, UCharacter.getMirror(c));
+                    dest.appendCodePoint(UCharacter.getMirror(c));
                 }
-            } while(i < src.length());
-            return dest.toString();
+            } while(i < limit);
+            break;
         }
         } /* end of switch */
     }
 
-    private static String doWriteForward(char[] text, int start, int limit,
-                                         int options)
-    {
-        return doWriteForward(new String(text, start, limit - start), options);
+    static String writeReverse(String src, int options) {
+        char[] text = src.toCharArray();
+        StringBuilder dest = new StringBuilder(text.length);
+        doWriteReverse(text, 0, text.length, options, dest);
+        return dest.toString();
     }
 
-    static String writeReverse(String src, int options) {
+    /*
+     * Append the run text[start..limit[ to dest in reverse order.
+     */
+    private static void doWriteReverse(char[] text, int start, int limit,
+                                       int options, StringBuilder dest)
+    {
         /*
          * RTL run -
          *
@@ -115,7 +120,6 @@ final class BidiWriter {
          * whether characters should be replaced by their mirror-image
          * equivalent Unicode characters.
          */
-        StringBuffer dest = new StringBuffer(src.length());
 
         /* optimize for several combinations of options */
         switch (options &
@@ -129,11 +133,9 @@ final class BidiWriter {
              * run will have the same length as the source run,
              * and there is no mirroring and no keeping combining characters
              * with their base characters.
-             *
-             * XXX: or dest = UTF16.reverse(new StringBuffer(src));
              */
 
-            int srcLength = src.length();
+            int srcLength = limit;
 
             /* preserve character integrity */
             do {
@@ -142,12 +144,12 @@ final class BidiWriter {
                 int i = srcLength;
 
                 /* collect code units for one base character */
-                srcLength -= UTF16.getCharCount(UTF16.charAt(src,
-                                                             srcLength - 1));
+                srcLength -= UTF16.getCharCount(UTF16.charAt(text, start, limit,
+                                                             srcLength - 1 - start));
 
                 /* copy this base character */
-                dest.append(src.substring(srcLength, i));
-            } while(srcLength > 0);
+                dest.append(text, srcLength, i - srcLength);
+            } while(srcLength > start);
             break;
 
         case Bidi.KEEP_BASE_COMBINING:
@@ -158,7 +160,7 @@ final class BidiWriter {
              * We do need to keep combining characters with their base
              * characters.
              */
-            srcLength = src.length();
+            srcLength = limit;
 
             /* preserve character integrity */
             do {
@@ -170,13 +172,13 @@ final class BidiWriter {
                 /* collect code units and modifier letters for one base
                  * character */
                 do {
-                    c = UTF16.charAt(src, srcLength - 1);
+                    c = UTF16.charAt(text, start, limit, srcLength - 1 - start);
                     srcLength -= UTF16.getCharCount(c);
-                } while(srcLength > 0 && IsCombining(UCharacter.getType(c)));
+                } while(srcLength > start && IsCombining(UCharacter.getType(c)));
 
                 /* copy this "user character" */
-                dest.append(src.substring(srcLength, i));
-            } while(srcLength > 0);
+                dest.append(text, srcLength, i - srcLength);
+            } while(srcLength > start);
             break;
 
         default:
@@ -187,7 +189,7 @@ final class BidiWriter {
              * keep combining characters with their base characters
              * as requested.
              */
-            srcLength = src.length();
+            srcLength = limit;
 
             /* preserve character integrity */
             do {
@@ -196,12 +198,12 @@ final class BidiWriter {
                 int i = srcLength;
 
                 /* collect code units for one base character */
-                int c = UTF16.charAt(src, srcLength - 1);
+                int c = UTF16.charAt(text, start, limit, srcLength - 1 - start);
                 srcLength -= UTF16.getCharCount(c);
                 if ((options & Bidi.KEEP_BASE_COMBINING) != 0) {
                     /* collect modifier letters for this base character */
-                    while(srcLength > 0 && IsCombining(UCharacter.getType(c))) {
-                        c = UTF16.charAt(src, srcLength - 1);
+                    while(srcLength > start && IsCombining(UCharacter.getType(c))) {
+                        c = UTF16.charAt(text, start, limit, srcLength - 1 - start);
                         srcLength -= UTF16.getCharCount(c);
                     }
                 }
@@ -217,26 +219,30 @@ final class BidiWriter {
                 if((options & Bidi.DO_MIRRORING) != 0) {
                     /* mirror only the base character */
                     c = UCharacter.getMirror(c);
-                    UTF16.append(dest, c);
+                    dest.appendCodePoint(c);
                     j += UTF16.getCharCount(c);
                 }
-                dest.append(src.substring(j, i));
-            } while(srcLength > 0);
+                dest.append(text, j, i - j);
+            } while(srcLength > start);
             break;
         } /* end of switch */
-
-        return dest.toString();
     }
 
-    static String doWriteReverse(char[] text, int start, int limit, int options)
+    static String writeReordered(Bidi bidi, int options)
     {
-        return writeReverse(new String(text, start, limit - start), options);
+        StringBuilder dest = new StringBuilder(
+                (options & Bidi.INSERT_LRM_FOR_NUMERIC) != 0 ?
+                bidi.length * 2 : bidi.length);
+        writeReordered(bidi, options, dest);
+        return dest.toString();
     }
 
-    static String writeReordered(Bidi bidi, int options)
+    /*
+     * Append the reordered text to dest, which may be a reused buffer.
+     */
+    static void writeReordered(Bidi bidi, int options, StringBuilder dest)
     {
         int run, runCount;
-        StringBuilder dest;
         char[] text = bidi.text;
         runCount = bidi.countRuns();
 
@@ -266,8 +272,6 @@ final class BidiWriter {
             (bidi.reorderingMode != Bidi.REORDER_RUNS_ONLY)) {
             options &= ~Bidi.INSERT_LRM_FOR_NUMERIC;
         }
-        dest = new StringBuilder((options & Bidi.INSERT_LRM_FOR_NUMERIC) != 0 ?
-                                 bidi.length * 2 : bidi.length);
         /*
          * Iterate through all visual runs and copy the run text segments to
          * the destination, according to the options.
@@ -284,12 +288,12 @@ final class BidiWriter {
                 for (run = 0; run < runCount; ++run) {
                     BidiRun bidiRun = bidi.getVisualRun(run);
                     if (bidiRun.isEvenRun()) {
-                        dest.append(doWriteForward(text, bidiRun.start,
+                        doWriteForward(text, bidiRun.start,
                                                    bidiRun.limit,
-                                                   options & ~Bidi.DO_MIRRORING));
+                                                   options & ~Bidi.DO_MIRRORING, dest);
                      } else {
-                        dest.append(doWriteReverse(text, bidiRun.start,
-                                                   bidiRun.limit, options));
+                        doWriteReverse(text, bidiRun.start,
+                                                   bidiRun.limit, options, dest);
                      }
                 }
             } else {
@@ -321,9 +325,9 @@ final class BidiWriter {
                         if (uc != 0) {
                             dest.append(uc);
                         }
-                        dest.append(doWriteForward(text,
+                        doWriteForward(text,
                                                    bidiRun.start, bidiRun.limit,
-                                                   options & ~Bidi.DO_MIRRORING));
+                                                   options & ~Bidi.DO_MIRRORING, dest);
 
                         if (bidi.isInverse() &&
                              dirProps[bidiRun.limit - 1] != Bidi.L) {
@@ -355,8 +359,8 @@ final class BidiWriter {
                         if (uc != 0) {
                             dest.append(uc);
                         }
-                        dest.append(doWriteReverse(text, bidiRun.start,
-                                                   bidiRun.limit, options));
+                        doWriteReverse(text, bidiRun.start,
+                                                   bidiRun.limit, options, dest);
 
                         if(bidi.isInverse() &&
                                 (MASK_R_AL & Bidi.DirPropFlag(dirProps[bidiRun.start])) == 0) {
@@ -382,12 +386,12 @@ final class BidiWriter {
                 for(run = runCount; --run >= 0; ) {
                     BidiRun bidiRun = bidi.getVisualRun(run);
                     if (bidiRun.isEvenRun()) {
-                        dest.append(doWriteReverse(text,
+                        doWriteReverse(text,
                                                    bidiRun.start, bidiRun.limit,
-                                                   options & ~Bidi.DO_MIRRORING));
+                                                   options & ~Bidi.DO_MIRRORING, dest);
                     } else {
-                        dest.append(doWriteForward(text, bidiRun.start,
-                                                   bidiRun.limit, options));
+                        doWriteForward(text, bidiRun.start,
+                                                   bidiRun.limit, options, dest);
                     }
                 }
             } else {
@@ -403,8 +407,8 @@ final class BidiWriter {
                             dest.append(LRM_CHAR);
                         }
 
-                        dest.append(doWriteReverse(text, bidiRun.start,
-                                bidiRun.limit, options & ~Bidi.DO_MIRRORING));
+                        doWriteReverse(text, bidiRun.start,
+                                bidiRun.limit, options & ~Bidi.DO_MIRRORING, dest);
 
                         if (dirProps[bidiRun.start] != Bidi.L) {
                             dest.append(LRM_CHAR);
@@ -414,8 +418,8 @@ final class BidiWriter {
                             dest.append(RLM_CHAR);
                         }
 
-                        dest.append(doWriteForward(text, bidiRun.start,
-                                                   bidiRun.limit, options));
+                        doWriteForward(text, bidiRun.start,
+                                                   bidiRun.limit, options, dest);
 
                         if ((MASK_R_AL & Bidi.DirPropFlag(dirProps[bidiRun.limit - 1])) == 0) {
                             dest.append(RLM_CHAR);
@@ -425,6 +429,5 @@ final class BidiWriter {
             }
         }
 
-        return dest.toString();
     }
 }
@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 2014, International Business Machines Corporation and         *
+ * Copyright (C) 2014-2015, International Business Machines Corporation and    *
  * others. All Rights Reserved.                                                *
  *******************************************************************************
  */
@@ -11,13 +11,15 @@ import java.text.CharacterIterator;
 import com.ibm.icu.impl.Assert;
 import com.ibm.icu.util.BytesTrie;
 import com.ibm.icu.util.BytesTrie.Result;
+import com.ibm.icu.util.ICUCloneNotSupportedException;
 
 class BytesDictionaryMatcher extends DictionaryMatcher {
-    private final byte[] characters;
     private final int transform;
+    // Looks up first bytes in a table; cloned for each match.
+    private final BytesTrie trie;
     
     public BytesDictionaryMatcher(byte[] chars, int transform) {
-        characters = chars;
+        trie = new BytesTrie(chars, 0).withFirstByteTable();
         Assert.assrt((transform & DictionaryData.TRANSFORM_TYPE_MASK) == DictionaryData.TRANSFORM_TYPE_OFFSET);
         // while there is only one transform type so far, save the entire transform constant so that
         // if we add any others, we need only change code in transform() and the assert above rather
@@ -41,7 +43,12 @@ class BytesDictionaryMatcher extends DictionaryMatcher {
 
     public int matches(CharacterIterator text_, int maxLength, int[] lengths, int[] count_, int limit, int[] values) {
         UCharacterIterator text = UCharacterIterator.getInstance(text_);
-        BytesTrie bt = new BytesTrie(characters, 0);
+        BytesTrie bt;
+        try {
+            bt = (BytesTrie) trie.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new ICUCloneNotSupportedException(e);
+        }
         int c = text.nextCodePoint();
         if (c == UCharacterIterator.DONE) {
             return 0;
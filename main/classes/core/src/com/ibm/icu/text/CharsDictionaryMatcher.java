@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 2014, International Business Machines Corporation and         *
+ * Copyright (C) 2014-2015, International Business Machines Corporation and    *
  * others. All Rights Reserved.                                                *
  *******************************************************************************
  */
@@ -10,17 +10,24 @@ import java.text.CharacterIterator;
 
 import com.ibm.icu.util.BytesTrie.Result;
 import com.ibm.icu.util.CharsTrie;
+import com.ibm.icu.util.ICUCloneNotSupportedException;
 
 class CharsDictionaryMatcher extends DictionaryMatcher {
-    private CharSequence characters;
+    // Looks up first characters in a table; cloned for each match.
+    private final CharsTrie trie;
     
     public CharsDictionaryMatcher(CharSequence chars) {
-        characters = chars;
+        trie = new CharsTrie(chars, 0).withFirstUnitTable();
     }
 
     public int matches(CharacterIterator text_, int maxLength, int[] lengths, int[] count_, int limit, int[] values) {
         UCharacterIterator text = UCharacterIterator.getInstance(text_);
-        CharsTrie uct = new CharsTrie(characters, 0);
+        CharsTrie uct;
+        try {
+            uct = (CharsTrie) trie.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new ICUCloneNotSupportedException(e);
+        }
         int c = text.nextCodePoint();
         if (c == UCharacterIterator.DONE) {
             return 0;
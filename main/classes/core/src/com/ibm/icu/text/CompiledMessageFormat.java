@@ -0,0 +1,749 @@
+/*
+ *******************************************************************************
+ * Copyright (C) 2015, International Business Machines Corporation and
+ * others. All Rights Reserved.
+ *******************************************************************************
+ */
+package com.ibm.icu.text;
+
+import java.io.IOException;
+import java.text.Format;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.ibm.icu.text.MessageFormat.PluralSelectorContext;
+import com.ibm.icu.text.MessageFormat.PluralSelectorProvider;
+import com.ibm.icu.text.MessagePattern.ArgType;
+import com.ibm.icu.text.MessagePattern.Part;
+import com.ibm.icu.text.PluralRules.PluralType;
+import com.ibm.icu.util.ICUUncheckedIOException;
+import com.ibm.icu.util.ULocale;
+
+/**
+ * {@icu} <code>CompiledMessageFormat</code> is an immutable, precompiled form of a
+ * {@link MessageFormat}. The message pattern is compiled once into a tree of
+ * formatting operations, with literal text already unquoted, argument formatters
+ * resolved, and the sub-messages of choice, plural and select arguments as well as
+ * their plural rules prepared. Formatting then only dispatches on the arguments,
+ * selecting sub-messages and formatting arguments the same way as MessageFormat.
+ *
+ * <p>The result is the same as the one of the corresponding <code>MessageFormat</code>
+ * <code>format()</code> methods, except that field positions and attributes are not
+ * supported. The argument formatters of the <code>MessageFormat</code> are copied at
+ * construction time, so later changes to the <code>MessageFormat</code> do not affect
+ * this object.
+ *
+ * <p>A <code>CompiledMessageFormat</code> can be used by multiple threads concurrently.
+ * Each format() call uses its own copies of the argument formatters. One set of copies
+ * is kept for reuse by the next call, and concurrent calls create their own.
+ *
+ * <p>Arguments can be passed in a <code>Map</code> like for <code>MessageFormat</code>, or
+ * in an array. For a message with numbered arguments the array index is the argument number.
+ * For a message with named arguments the array index of an argument name is given by
+ * {@link #getArgumentIndex(String)}, which avoids map lookups while formatting.
+ *
+ * @draft ICU 55
+ * @provisional This API might change or be removed in a future release.
+ */
+public final class CompiledMessageFormat {
+
+    private final ULocale ulocale;
+    /** A frozen copy of the MessageFormat's pattern, for sub-message selection. */
+    private final MessagePattern msgPattern;
+    private final boolean namedArguments;
+    private final Map<String, Integer> argIndexes;
+    private final int argCount;
+    private final Op[] message;
+    /**
+     * Private copies of the MessageFormat's argument formatters, never used directly
+     * but cloned for each concurrent format() call.
+     */
+    private final Format[] formats;
+    /** Formatters which are not in use, or null. */
+    private final AtomicReference<Formatters> spareFormatters = new AtomicReference<Formatters>();
+
+    /**
+     * Constructs a CompiledMessageFormat for the pattern and locale.
+     *
+     * @param pattern the pattern for this message format
+     * @param locale the locale for this message format
+     * @throws IllegalArgumentException if the pattern is invalid
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public CompiledMessageFormat(String pattern, ULocale locale) {
+        this(new MessageFormat(pattern, locale));
+    }
+
+    /**
+     * Constructs a CompiledMessageFormat from the current pattern, locale and
+     * formatters of a MessageFormat.
+     *
+     * @param format the MessageFormat to be compiled
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public CompiledMessageFormat(MessageFormat format) {
+        ulocale = format.getULocale();
+        msgPattern = format.getPattern().cloneAsThawed().freeze();
+        namedArguments = msgPattern.hasNamedArguments();
+        Compiler compiler = new Compiler(msgPattern, format.getCachedFormatters(), ulocale);
+        argIndexes = compiler.collectArguments(namedArguments);
+        argCount = compiler.argCount;
+        message = compiler.compileMessage(0);
+        formats = compiler.formats.toArray(new Format[compiler.formats.size()]);
+    }
+
+    /**
+     * Returns the locale of this message format.
+     *
+     * @return the locale
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public ULocale getULocale() {
+        return ulocale;
+    }
+
+    /**
+     * Returns true if the message uses named arguments.
+     *
+     * @return true if named arguments are used.
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public boolean usesNamedArguments() {
+        return namedArguments;
+    }
+
+    /**
+     * Returns the minimum length of an arguments array which covers all arguments
+     * of the message.
+     *
+     * @return the number of argument array slots used by the message.
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public int getArgumentCount() {
+        return argCount;
+    }
+
+    /**
+     * Returns the index of an argument in the arguments array. For named arguments,
+     * the indexes are assigned in the order of the first occurrence of the names in
+     * the pattern. For numbered arguments, the index is the argument number.
+     *
+     * @param argumentName the argument name, or the argument number as a string
+     * @return the argument index, or -1 if the message has no such argument.
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public int getArgumentIndex(String argumentName) {
+        Integer index = argIndexes.get(argumentName);
+        return index == null ? -1 : index.intValue();
+    }
+
+    /**
+     * Formats the arguments into a string.
+     *
+     * @param arguments the arguments, indexed as described in {@link #getArgumentIndex(String)}
+     * @return the formatted message
+     * @throws IllegalArgumentException if an argument is not of the type
+     *         expected by the format element that uses it.
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public String format(Object[] arguments) {
+        return format(arguments, new StringBuilder()).toString();
+    }
+
+    /**
+     * Formats the arguments into a string.
+     *
+     * @param arguments a map from argument names to argument values
+     * @return the formatted message
+     * @throws IllegalArgumentException if an argument is not of the type
+     *         expected by the format element that uses it.
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public String format(Map<String, Object> arguments) {
+        return format(arguments, new StringBuilder()).toString();
+    }
+
+    /**
+     * Formats the arguments and appends the result to dest.
+     *
+     * @param arguments the arguments, indexed as described in {@link #getArgumentIndex(String)}
+     * @param dest the destination, for example a StringBuilder
+     * @return dest
+     * @throws IllegalArgumentException if an argument is not of the type
+     *         expected by the format element that uses it.
+     * @throws ICUUncheckedIOException if appending to dest throws an IOException.
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public <T extends Appendable> T format(Object[] arguments, T dest) {
+        if (arguments == null) {
+            arguments = EMPTY_ARGS;
+        }
+        format(arguments, null, dest);
+        return dest;
+    }
+
+    /**
+     * Formats the arguments and appends the result to dest.
+     *
+     * @param arguments a map from argument names to argument values
+     * @param dest the destination, for example a StringBuilder
+     * @return dest
+     * @throws IllegalArgumentException if an argument is not of the type
+     *         expected by the format element that uses it.
+     * @throws ICUUncheckedIOException if appending to dest throws an IOException.
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public <T extends Appendable> T format(Map<String, Object> arguments, T dest) {
+        format(null, arguments, dest);
+        return dest;
+    }
+
+    private static final Object[] EMPTY_ARGS = new Object[0];
+
+    /**
+     * Exactly one of args and argsMap is non-null, except that argsMap is
+     * also null when formatting with a null Map.
+     */
+    private void format(Object[] args, Map<String, Object> argsMap, Appendable dest) {
+        Formatters formatters = spareFormatters.getAndSet(null);
+        if (formatters == null) {
+            formatters = new Formatters(formats);
+        }
+        try {
+            formatMessage(message, new Context(this, args, argsMap, formatters, dest), null);
+        } catch (IOException e) {
+            throw new ICUUncheckedIOException(e);
+        } finally {
+            spareFormatters.set(formatters);
+        }
+    }
+
+    private static void formatMessage(Op[] ops, Context ctx, PluralSelectorContext pluralNumber)
+            throws IOException {
+        for (int i = 0; i < ops.length; ++i) {
+            ops[i].format(ctx, pluralNumber);
+        }
+    }
+
+    /**
+     * Copies of the formatters, used by one format() call at a time.
+     */
+    private static final class Formatters {
+        Formatters(Format[] prototypes) {
+            formats = new Format[prototypes.length];
+            for (int i = 0; i < prototypes.length; ++i) {
+                formats[i] = (Format)prototypes[i].clone();
+            }
+        }
+
+        final Format[] formats;
+        NumberFormat stockNumberFormatter;
+        DateFormat stockDateFormatter;
+    }
+
+    /**
+     * The state of one format() call.
+     */
+    private static final class Context {
+        Context(CompiledMessageFormat owner, Object[] args, Map<String, Object> argsMap,
+                Formatters formatters, Appendable dest) {
+            this.owner = owner;
+            this.args = args;
+            this.argsMap = argsMap;
+            this.formatters = formatters;
+            this.dest = dest;
+        }
+
+        /**
+         * Returns the argument value, or NO_ARG if the argument is not supplied.
+         */
+        Object getArgument(int index, String name) {
+            if (args != null) {
+                return index < args.length ? args[index] : NO_ARG;
+            }
+            if (argsMap != null && argsMap.containsKey(name)) {
+                return argsMap.get(name);
+            }
+            return NO_ARG;
+        }
+
+        NumberFormat getStockNumberFormatter() {
+            if (formatters.stockNumberFormatter == null) {
+                formatters.stockNumberFormatter = NumberFormat.getInstance(owner.ulocale);
+            }
+            return formatters.stockNumberFormatter;
+        }
+
+        DateFormat getStockDateFormatter() {
+            if (formatters.stockDateFormatter == null) {
+                formatters.stockDateFormatter = DateFormat.getDateTimeInstance(
+                        DateFormat.SHORT, DateFormat.SHORT, owner.ulocale);
+            }
+            return formatters.stockDateFormatter;
+        }
+
+        /**
+         * Formats the arguments with a MessageFormat created at runtime
+         * and appends the result.
+         */
+        void formatWith(MessageFormat subMsgFormat) throws IOException {
+            StringBuilder sb = new StringBuilder();
+            if (args != null && owner.namedArguments) {
+                Map<String, Object> map = new HashMap<String, Object>();
+                for (Map.Entry<String, Integer> entry : owner.argIndexes.entrySet()) {
+                    int index = entry.getValue();
+                    if (index < args.length) {
+                        map.put(entry.getKey(), args[index]);
+                    }
+                }
+                subMsgFormat.formatTo(null, map, sb);
+            } else {
+                subMsgFormat.formatTo(args, argsMap, sb);
+            }
+            dest.append(sb);
+        }
+
+        final CompiledMessageFormat owner;
+        final Object[] args;
+        final Map<String, Object> argsMap;
+        final Formatters formatters;
+        final Appendable dest;
+    }
+
+    private static final Object NO_ARG = new Object();
+
+    /**
+     * A formatting operation. The plural number is non-null while formatting
+     * the selected sub-message of a plural argument, for '#' and for the first
+     * occurrence of the argument in the "other" sub-message.
+     */
+    private static abstract class Op {
+        abstract void format(Context ctx, PluralSelectorContext pluralNumber) throws IOException;
+    }
+
+    private static final class LiteralOp extends Op {
+        LiteralOp(String text) {
+            this.text = text;
+        }
+
+        void format(Context ctx, PluralSelectorContext pluralNumber) throws IOException {
+            ctx.dest.append(text);
+        }
+
+        private final String text;
+    }
+
+    /**
+     * '#' in a plural sub-message.
+     */
+    private static final class ReplaceNumberOp extends Op {
+        void format(Context ctx, PluralSelectorContext pluralNumber) throws IOException {
+            if (pluralNumber.forReplaceNumber) {
+                // number-offset was already formatted.
+                ctx.dest.append(pluralNumber.numberString);
+            } else {
+                ctx.dest.append(ctx.getStockNumberFormatter().format(pluralNumber.number));
+            }
+        }
+    }
+
+    /**
+     * Base class for arguments, handling missing and null values.
+     */
+    private static abstract class ArgOp extends Op {
+        ArgOp(int argStart, int index, String name) {
+            this.argStart = argStart;
+            this.index = index;
+            this.name = name;
+        }
+
+        final void format(Context ctx, PluralSelectorContext pluralNumber) throws IOException {
+            Object arg = ctx.getArgument(index, name);
+            if (arg == NO_ARG) {
+                ctx.dest.append('{').append(name).append('}');
+            } else if (arg == null) {
+                ctx.dest.append("null");
+            } else {
+                formatArg(ctx, pluralNumber, arg);
+            }
+        }
+
+        abstract void formatArg(Context ctx, PluralSelectorContext pluralNumber, Object arg)
+                throws IOException;
+
+        final int argStart;
+        final int index;
+        final String name;
+    }
+
+    private static final int NONE = 0;
+    private static final int FORMATTER = 1;
+    private static final int CUSTOM_COMPLEX = 2;
+
+    /**
+     * An argument without style, or with a formatter.
+     */
+    private static final class SimpleArgOp extends ArgOp {
+        SimpleArgOp(int argStart, int index, String name, int kind, int slot) {
+            super(argStart, index, name);
+            this.kind = kind;
+            this.slot = slot;
+        }
+
+        void formatArg(Context ctx, PluralSelectorContext pluralNumber, Object arg) throws IOException {
+            if (pluralNumber != null && pluralNumber.numberArgIndex == argStart) {
+                if (pluralNumber.offset == 0) {
+                    // The number was already formatted with this formatter.
+                    ctx.dest.append(pluralNumber.numberString);
+                } else {
+                    // Do not use the formatted (number-offset) string for a named argument
+                    // that formats the number without subtracting the offset.
+                    ctx.dest.append(pluralNumber.formatter.format(arg));
+                }
+            } else if (kind == FORMATTER) {
+                ctx.dest.append(ctx.formatters.formats[slot].format(arg));
+            } else if (kind == CUSTOM_COMPLEX) {
+                // A ChoiceFormat, PluralFormat or SelectFormat set via setFormat()
+                // or its siblings.
+                String subMsgString = ctx.formatters.formats[slot].format(arg);
+                MessageFormat subMsgFormat = MessageFormat.newCustomSubMessageFormat(
+                        subMsgString, ctx.owner.msgPattern.jdkAposMode(), ctx.owner.ulocale);
+                if (subMsgFormat != null) {
+                    ctx.formatWith(subMsgFormat);
+                } else {
+                    ctx.dest.append(subMsgString);
+                }
+            } else if (arg instanceof Number) {
+                ctx.dest.append(ctx.getStockNumberFormatter().format(arg));
+            } else if (arg instanceof Date) {
+                ctx.dest.append(ctx.getStockDateFormatter().format(arg));
+            } else {
+                ctx.dest.append(arg.toString());
+            }
+        }
+
+        private final int kind;
+        private final int slot;
+    }
+
+    /**
+     * Base class for choice, plural and select arguments.
+     * The sub-message is selected on the MessagePattern like in MessageFormat,
+     * and then formatted with its compiled operations.
+     */
+    private static abstract class ComplexArgOp extends ArgOp {
+        ComplexArgOp(int argStart, int index, String name, int[] msgStarts, Op[][] messages) {
+            super(argStart, index, name);
+            this.msgStarts = msgStarts;
+            this.messages = messages;
+        }
+
+        /**
+         * Returns the compiled operations of the sub-message
+         * which starts at the MSG_START part index.
+         */
+        final Op[] getMessage(int msgStart) {
+            return messages[Arrays.binarySearch(msgStarts, msgStart)];
+        }
+
+        /** the MSG_START part indexes of the sub-messages, in ascending order */
+        private final int[] msgStarts;
+        private final Op[][] messages;
+    }
+
+    private static final class ChoiceArgOp extends ComplexArgOp {
+        ChoiceArgOp(int argStart, int index, String name, int[] msgStarts, Op[][] messages) {
+            super(argStart, index, name, msgStarts, messages);
+        }
+
+        void formatArg(Context ctx, PluralSelectorContext pluralNumber, Object arg) throws IOException {
+            if (!(arg instanceof Number)) {
+                throw new IllegalArgumentException("'" + arg + "' is not a Number");
+            }
+            double number = ((Number)arg).doubleValue();
+            int subMsgStart = MessageFormat.findChoiceSubMessage(ctx.owner.msgPattern, argStart + 2, number);
+            formatMessage(getMessage(subMsgStart), ctx, null);
+        }
+    }
+
+    private static final class PluralArgOp extends ComplexArgOp {
+        PluralArgOp(int argStart, int index, String name, int[] msgStarts, Op[][] messages,
+                PluralRules rules, int numberArgStart, int numberSlot) {
+            super(argStart, index, name, msgStarts, messages);
+            this.rules = rules;
+            this.numberArgStart = numberArgStart;
+            this.numberSlot = numberSlot;
+        }
+
+        void formatArg(final Context ctx, PluralSelectorContext pluralNumber, Object arg)
+                throws IOException {
+            if (!(arg instanceof Number)) {
+                throw new IllegalArgumentException("'" + arg + "' is not a Number");
+            }
+            MessagePattern msgPattern = ctx.owner.msgPattern;
+            int i = argStart + 2;
+            Number number = (Number)arg;
+            double offset = msgPattern.getPluralOffset(i);
+            PluralSelectorContext context = new PluralSelectorContext(i, name, number, offset);
+            PluralFormat.PluralSelector selector = new PluralFormat.PluralSelector() {
+                public String select(Object ctxObject, double num) {
+                    return PluralArgOp.this.select(ctx, (PluralSelectorContext)ctxObject, num);
+                }
+            };
+            int subMsgStart = PluralFormat.findSubMessage(
+                    msgPattern, i, selector, context, number.doubleValue());
+            formatMessage(getMessage(subMsgStart), ctx, context);
+        }
+
+        /**
+         * Like MessageFormat.PluralSelectorProvider.select(), with the number argument
+         * and its formatter found at compile time.
+         */
+        private String select(Context ctx, PluralSelectorContext context, double number) {
+            context.numberArgIndex = numberArgStart;
+            if (numberSlot >= 0) {
+                context.formatter = ctx.formatters.formats[numberSlot];
+            } else {
+                context.formatter = ctx.getStockNumberFormatter();
+                context.forReplaceNumber = true;
+            }
+            return PluralSelectorProvider.selectKeyword(rules, context, number);
+        }
+
+        private final PluralRules rules;
+        /** see MessageFormat.findFirstPluralNumberArg() */
+        private final int numberArgStart;
+        /** the formatter slot of the number argument, or -1 for the stock number formatter */
+        private final int numberSlot;
+    }
+
+    private static final class SelectArgOp extends ComplexArgOp {
+        SelectArgOp(int argStart, int index, String name, int[] msgStarts, Op[][] messages) {
+            super(argStart, index, name, msgStarts, messages);
+        }
+
+        void formatArg(Context ctx, PluralSelectorContext pluralNumber, Object arg) throws IOException {
+            int subMsgStart = SelectFormat.findSubMessage(ctx.owner.msgPattern, argStart + 2, arg.toString());
+            formatMessage(getMessage(subMsgStart), ctx, null);
+        }
+    }
+
+    /**
+     * A choice/plural/select sub-message in JDK apostrophe mode, which is
+     * formatted like a top-level message if it contains an argument.
+     * See MessageFormat.formatComplexSubMessage().
+     */
+    private static final class JdkSubMessageOp extends Op {
+        JdkSubMessageOp(int msgStart) {
+            this.msgStart = msgStart;
+        }
+
+        void format(Context ctx, PluralSelectorContext pluralNumber) throws IOException {
+            NumberFormat stockNumberFormatter = pluralNumber != null && !pluralNumber.forReplaceNumber ?
+                    ctx.getStockNumberFormatter() : null;
+            String subMsgString = MessageFormat.getJdkSubMessageString(
+                    ctx.owner.msgPattern, msgStart, pluralNumber, stockNumberFormatter);
+            MessageFormat subMsgFormat = MessageFormat.newJdkSubMessageFormat(subMsgString, ctx.owner.ulocale);
+            if (subMsgFormat != null) {
+                ctx.formatWith(subMsgFormat);
+            } else {
+                ctx.dest.append(subMsgString);
+            }
+        }
+
+        private final int msgStart;
+    }
+
+    /**
+     * Compiles a MessagePattern into formatting operations, mirroring
+     * the MessageFormat.format() part traversal.
+     */
+    private static final class Compiler {
+        Compiler(MessagePattern msgPattern, Map<Integer, Format> cachedFormatters, ULocale locale) {
+            this.msgPattern = msgPattern;
+            this.msgString = msgPattern.getPatternString();
+            this.cachedFormatters = cachedFormatters;
+            this.locale = locale;
+        }
+
+        /**
+         * Assigns the argument indexes and returns the map from argument names to indexes.
+         */
+        Map<String, Integer> collectArguments(boolean named) {
+            Map<String, Integer> indexes = new HashMap<String, Integer>();
+            int count = msgPattern.countParts();
+            for (int i = 1; i < count; ++i) {
+                Part part = msgPattern.getPart(i);
+                Part.Type type = part.getType();
+                if (type != Part.Type.ARG_NAME && type != Part.Type.ARG_NUMBER) {
+                    continue;
+                }
+                String name = msgPattern.getSubstring(part);
+                if (indexes.containsKey(name)) {
+                    continue;
+                }
+                int index;
+                if (named) {
+                    index = indexes.size();
+                } else {
+                    index = part.getValue();
+                }
+                indexes.put(name, index);
+                if (index >= argCount) {
+                    argCount = index + 1;
+                }
+            }
+            argIndexes = indexes;
+            return indexes;
+        }
+
+        Op[] compileMessage(int msgStart) {
+            List<Op> ops = new ArrayList<Op>();
+            StringBuilder literal = new StringBuilder();
+            int prevIndex = msgPattern.getPart(msgStart).getLimit();
+            for (int i = msgStart + 1;; ++i) {
+                Part part = msgPattern.getPart(i);
+                Part.Type type = part.getType();
+                int index = part.getIndex();
+                literal.append(msgString, prevIndex, index);
+                if (type == Part.Type.MSG_LIMIT) {
+                    break;
+                }
+                prevIndex = part.getLimit();
+                if (type == Part.Type.REPLACE_NUMBER) {
+                    flushLiteral(literal, ops);
+                    ops.add(new ReplaceNumberOp());
+                    continue;
+                }
+                if (type != Part.Type.ARG_START) {
+                    continue;
+                }
+                flushLiteral(literal, ops);
+                int argLimit = msgPattern.getLimitPartIndex(i);
+                ops.add(compileArgument(i));
+                prevIndex = msgPattern.getPart(argLimit).getLimit();
+                i = argLimit;
+            }
+            flushLiteral(literal, ops);
+            return ops.toArray(new Op[ops.size()]);
+        }
+
+        private static void flushLiteral(StringBuilder literal, List<Op> ops) {
+            if (literal.length() > 0) {
+                ops.add(new LiteralOp(literal.toString()));
+                literal.setLength(0);
+            }
+        }
+
+        private Op compileArgument(int argStart) {
+            ArgType argType = msgPattern.getPart(argStart).getArgType();
+            String name = msgPattern.getSubstring(msgPattern.getPart(argStart + 1));
+            int index = argIndexes.get(name);
+            Format formatter = null;
+            if (cachedFormatters != null) {
+                formatter = cachedFormatters.get(argStart);
+            }
+            if (formatter != null) {
+                // Handles all ArgType.SIMPLE, and formatters from setFormat() and its siblings.
+                int kind = MessageFormat.isComplexArgFormat(formatter) ? CUSTOM_COMPLEX : FORMATTER;
+                return new SimpleArgOp(argStart, index, name, kind, getSlot(argStart));
+            } else if (argType == ArgType.NONE ||
+                    (cachedFormatters != null && cachedFormatters.containsKey(argStart))) {
+                // ArgType.NONE, or
+                // any argument which got reset to null via setFormat() or its siblings.
+                return new SimpleArgOp(argStart, index, name, NONE, -1);
+            }
+            // The sub-messages, in the order of their MSG_START part indexes.
+            List<Integer> msgStarts = new ArrayList<Integer>();
+            List<Op[]> messages = new ArrayList<Op[]>();
+            int argLimit = msgPattern.getLimitPartIndex(argStart);
+            for (int i = argStart + 2; i < argLimit; ++i) {
+                if (msgPattern.getPartType(i) == Part.Type.MSG_START) {
+                    msgStarts.add(i);
+                    messages.add(compileSubMessage(i));
+                    i = msgPattern.getLimitPartIndex(i);
+                }
+            }
+            int[] msgStartArray = new int[msgStarts.size()];
+            for (int i = 0; i < msgStartArray.length; ++i) {
+                msgStartArray[i] = msgStarts.get(i);
+            }
+            Op[][] messageArray = messages.toArray(new Op[messages.size()][]);
+            if (argType == ArgType.CHOICE) {
+                return new ChoiceArgOp(argStart, index, name, msgStartArray, messageArray);
+            } else if (argType.hasPluralStyle()) {
+                PluralType type = argType == ArgType.PLURAL ? PluralType.CARDINAL : PluralType.ORDINAL;
+                // The number is formatted like its first occurrence in the "other" sub-message,
+                // see MessageFormat.PluralSelectorProvider.
+                int otherMsgStart = MessageFormat.findOtherSubMessage(msgPattern, argStart + 2);
+                int numberArgStart = MessageFormat.findFirstPluralNumberArg(msgPattern, otherMsgStart, name);
+                int numberSlot = -1;
+                if (numberArgStart > 0 && cachedFormatters != null
+                        && cachedFormatters.get(numberArgStart) != null) {
+                    numberSlot = getSlot(numberArgStart);
+                }
+                return new PluralArgOp(argStart, index, name, msgStartArray, messageArray,
+                        PluralRules.forLocale(locale, type), numberArgStart, numberSlot);
+            } else if (argType == ArgType.SELECT) {
+                return new SelectArgOp(argStart, index, name, msgStartArray, messageArray);
+            } else {
+                // This should never happen.
+                throw new IllegalStateException("unexpected argType " + argType);
+            }
+        }
+
+        /**
+         * Returns the slot of the formatter cached for the ARG_START part index.
+         */
+        private int getSlot(int argStart) {
+            Format formatter = cachedFormatters.get(argStart);
+            Integer slot = slots.get(formatter);
+            if (slot == null) {
+                slot = formats.size();
+                // Copy the formatter: the MessageFormat still owns the original,
+                // and may modify it or use it in another thread.
+                formats.add((Format)formatter.clone());
+                slots.put(formatter, slot);
+            }
+            return slot;
+        }
+
+        /**
+         * Compiles a choice/plural/select sub-message,
+         * see MessageFormat.formatComplexSubMessage().
+         */
+        private Op[] compileSubMessage(int msgStart) {
+            if (!msgPattern.jdkAposMode()) {
+                return compileMessage(msgStart);
+            }
+            // JDK compatibility mode: the sub-message is reduced to a pattern string
+            // and formatted at runtime.
+            return new Op[] { new JdkSubMessageOp(msgStart) };
+        }
+
+        private final MessagePattern msgPattern;
+        private final String msgString;
+        private final Map<Integer, Format> cachedFormatters;
+        private final ULocale locale;
+        private Map<String, Integer> argIndexes;
+        int argCount;
+        final List<Format> formats = new ArrayList<Format>();
+        private final Map<Format, Integer> slots = new IdentityHashMap<Format, Integer>();
+    }
+}
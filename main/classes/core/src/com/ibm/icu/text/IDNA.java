@@ -194,6 +194,61 @@ public abstract class IDNA {
      */
     public abstract StringBuilder nameToASCII(CharSequence name, StringBuilder dest, Info info);
 
+    /**
+     * Converts a whole domain name into its ASCII form for DNS lookup,
+     * and writes the result into a caller-provided char array.
+     * Otherwise the same as {@link #nameToASCII(CharSequence, StringBuilder, Info)}.
+     * <p>
+     * With a reused Info object, this variant need not allocate any objects
+     * when the domain name is already in its lowercase ASCII letter-digit-hyphen form.
+     *
+     * <p>
+     * If the result is longer than dest.length-destStart, then nothing is written to dest
+     * and an IndexOutOfBoundsException is thrown whose message is the required length,
+     * so that the caller can retry with a larger array:
+     * <pre>
+     * int length;
+     * try {
+     *     length=idna.nameToASCII(name, dest, 0, info);
+     * } catch(IndexOutOfBoundsException e) {
+     *     dest=new char[Integer.parseInt(e.getMessage())];
+     *     length=idna.nameToASCII(name, dest, 0, info);
+     * }
+     * </pre>
+     *
+     * @param name Input domain name
+     * @param dest Destination char array
+     * @param destStart Start index in dest for the result
+     * @param info Output container of IDNA processing details.
+     * @return the length of the result
+     * @throws IndexOutOfBoundsException if the result does not fit into dest
+     *         starting at destStart; the exception message is the required length
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public int nameToASCII(CharSequence name, char[] dest, int destStart, Info info) {
+        StringBuilder result=nameToASCII(name, new StringBuilder(name.length()), info);
+        return copyResult(result, dest, destStart);
+    }
+
+    /**
+     * Copies the result string into the destination array and returns its length.
+     * Throws an IndexOutOfBoundsException with the length as the message if it does not fit.
+     * @internal
+     * @deprecated This API is ICU internal only.
+     */
+    @Deprecated
+    protected static int copyResult(CharSequence result, char[] dest, int destStart) {
+        int length=result.length();
+        if(destStart<0 || length>(dest.length-destStart)) {
+            throw new IndexOutOfBoundsException(Integer.toString(length));
+        }
+        for(int i=0; i<length; ++i) {
+            dest[destStart+i]=result.charAt(i);
+        }
+        return length;
+    }
+
     /**
      * Converts a whole domain name into its Unicode form for human-readable display.
      * If any processing step fails, then info.hasErrors() will be true.
@@ -251,7 +306,14 @@ public abstract class IDNA {
          */
         public boolean isTransitionalDifferent() { return isTransDiff; }
 
-        private void reset() {
+        /**
+         * Resets this object to its initial state, with no errors,
+         * so that it can be reused.
+         * The IDNA processing functions call this themselves when they start.
+         * @draft ICU 55
+         * @provisional This API might change or be removed in a future release.
+         */
+        public void reset() {
             errors.clear();
             labelErrors.clear();
             isTransDiff=false;
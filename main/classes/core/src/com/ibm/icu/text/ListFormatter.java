@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 2012-2014, Google, International Business Machines Corporation and
+ * Copyright (C) 2012-2015, Google, International Business Machines Corporation and
  * others. All Rights Reserved.
  *******************************************************************************
  */
@@ -330,10 +330,10 @@ final public class ListFormatter {
                     getBundleInstance(ICUResourceBundle.ICU_BASE_NAME, ulocale);
            
             return new ListFormatter(
-                SimplePatternFormatter.compile(r.getWithFallback("listPattern/" + style + "/2").getString()),
-                SimplePatternFormatter.compile(r.getWithFallback("listPattern/" + style + "/start").getString()),
-                SimplePatternFormatter.compile(r.getWithFallback("listPattern/" + style + "/middle").getString()),
-                SimplePatternFormatter.compile(r.getWithFallback("listPattern/" + style + "/end").getString()),
+                SimplePatternFormatter.compile(r.getStringWithFallback("listPattern/" + style + "/2")),
+                SimplePatternFormatter.compile(r.getStringWithFallback("listPattern/" + style + "/start")),
+                SimplePatternFormatter.compile(r.getStringWithFallback("listPattern/" + style + "/middle")),
+                SimplePatternFormatter.compile(r.getStringWithFallback("listPattern/" + style + "/end")),
                 ulocale);
         }
     }
@@ -1,6 +1,6 @@
 /*
 **********************************************************************
-* Copyright (c) 2004-2014, International Business Machines
+* Copyright (c) 2004-2015, International Business Machines
 * Corporation and others.  All Rights Reserved.
 **********************************************************************
 * Author: Alan Liu
@@ -1674,15 +1674,13 @@ public class MessageFormat extends UFormat {
                 }
             } else if(cachedFormatters!=null && (formatter=cachedFormatters.get(i - 2))!=null) {
                 // Handles all ArgType.SIMPLE, and formatters from setFormat() and its siblings.
-                if (    formatter instanceof ChoiceFormat ||
-                        formatter instanceof PluralFormat ||
-                        formatter instanceof SelectFormat) {
+                if (isComplexArgFormat(formatter)) {
                     // We only handle nested formats here if they were provided via setFormat() or its siblings.
                     // Otherwise they are not cached and instead handled below according to argType.
                     String subMsgString = formatter.format(arg);
-                    if (subMsgString.indexOf('{') >= 0 ||
-                            (subMsgString.indexOf('\'') >= 0 && !msgPattern.jdkAposMode())) {
-                        MessageFormat subMsgFormat = new MessageFormat(subMsgString, ulocale);
+                    MessageFormat subMsgFormat =
+                            newCustomSubMessageFormat(subMsgString, msgPattern.jdkAposMode(), ulocale);
+                    if (subMsgFormat != null) {
                         subMsgFormat.format(0, null, args, argsMap, dest, null);
                     } else if (dest.attributes == null) {
                         dest.append(subMsgString);
@@ -1764,12 +1762,57 @@ public class MessageFormat extends UFormat {
             return;
         }
         // JDK compatibility mode: (see JDK MessageFormat.format() API docs)
-        // - remove SKIP_SYNTAX; that is, remove half of the apostrophes
-        // - if the result string contains an open curly brace '{' then
-        //   instantiate a temporary MessageFormat object and format again;
-        //   otherwise just append the result string
+        NumberFormat stockNumberFormatter =
+                pluralNumber != null && !pluralNumber.forReplaceNumber ? getStockNumberFormatter() : null;
+        String subMsgString =
+                getJdkSubMessageString(msgPattern, msgStart, pluralNumber, stockNumberFormatter);
+        MessageFormat subMsgFormat = newJdkSubMessageFormat(subMsgString, ulocale);
+        if (subMsgFormat != null) {
+            subMsgFormat.format(0, null, args, argsMap, dest, null);
+        } else {
+            dest.append(subMsgString);
+        }
+    }
+
+    // Helpers shared with CompiledMessageFormat.
+
+    /**
+     * Returns true if a formatter set via setFormat() or its siblings selects a sub-message
+     * which may need to be formatted again, see newCustomSubMessageFormat().
+     */
+    /*package*/ static boolean isComplexArgFormat(Format formatter) {
+        return formatter instanceof ChoiceFormat ||
+                formatter instanceof PluralFormat ||
+                formatter instanceof SelectFormat;
+    }
+
+    /**
+     * Returns a MessageFormat for the sub-message string selected by a ChoiceFormat,
+     * PluralFormat or SelectFormat set via setFormat() or its siblings,
+     * or null if the string is to be appended as is.
+     */
+    /*package*/ static MessageFormat newCustomSubMessageFormat(
+            String subMsgString, boolean jdkAposMode, ULocale locale) {
+        if (subMsgString.indexOf('{') >= 0 ||
+                (subMsgString.indexOf('\'') >= 0 && !jdkAposMode)) {
+            return new MessageFormat(subMsgString, locale);
+        }
+        return null;
+    }
+
+    /**
+     * Returns a choice/plural/select sub-message in JDK compatibility mode
+     * (see JDK MessageFormat.format() API docs):
+     * SKIP_SYNTAX is removed, that is, half of the apostrophes,
+     * '#' is replaced by the plural number,
+     * and arguments are kept as pattern text with reduced apostrophes.
+     * @param stockNumberFormatter formats the plural number for '#'
+     *        unless pluralNumber.forReplaceNumber; may be null otherwise
+     */
+    /*package*/ static String getJdkSubMessageString(
+            MessagePattern msgPattern, int msgStart, PluralSelectorContext pluralNumber,
+            NumberFormat stockNumberFormatter) {
         String msgString = msgPattern.getPatternString();
-        String subMsgString;
         StringBuilder sb = null;
         int prevIndex = msgPattern.getPart(msgStart).getLimit();
         for (int i = msgStart;;) {
@@ -1778,11 +1821,10 @@ public class MessageFormat extends UFormat {
             int index = part.getIndex();
             if (type == Part.Type.MSG_LIMIT) {
                 if (sb == null) {
-                    subMsgString = msgString.substring(prevIndex, index);
+                    return msgString.substring(prevIndex, index);
                 } else {
-                    subMsgString = sb.append(msgString, prevIndex, index).toString();
+                    return sb.append(msgString, prevIndex, index).toString();
                 }
-                break;
             } else if (type == Part.Type.REPLACE_NUMBER || type == Part.Type.SKIP_SYNTAX) {
                 if (sb == null) {
                     sb = new StringBuilder();
@@ -1793,7 +1835,7 @@ public class MessageFormat extends UFormat {
                         // number-offset was already formatted.
                         sb.append(pluralNumber.numberString);
                     } else {
-                        sb.append(getStockNumberFormatter().format(pluralNumber.number));
+                        sb.append(stockNumberFormatter.format(pluralNumber.number));
                     }
                 }
                 prevIndex = part.getLimit();
@@ -1809,13 +1851,19 @@ public class MessageFormat extends UFormat {
                 prevIndex = index;
             }
         }
+    }
+
+    /**
+     * Returns a MessageFormat for a JDK compatibility mode sub-message string
+     * if it contains an open curly brace '{', otherwise null for appending the string as is.
+     */
+    /*package*/ static MessageFormat newJdkSubMessageFormat(String subMsgString, ULocale locale) {
         if (subMsgString.indexOf('{') >= 0) {
-            MessageFormat subMsgFormat = new MessageFormat("", ulocale);
+            MessageFormat subMsgFormat = new MessageFormat("", locale);
             subMsgFormat.applyPattern(subMsgString, MessagePattern.ApostropheMode.DOUBLE_REQUIRED);
-            subMsgFormat.format(0, null, args, argsMap, dest, null);
-        } else {
-            dest.append(subMsgString);
+            return subMsgFormat;
         }
+        return null;
     }
 
     /**
@@ -1864,7 +1912,7 @@ public class MessageFormat extends UFormat {
      * @param number a number to be mapped to one of the ChoiceFormat argument's intervals
      * @return the sub-message start part index.
      */
-    private static int findChoiceSubMessage(MessagePattern pattern, int partIndex, double number) {
+    /*package*/ static int findChoiceSubMessage(MessagePattern pattern, int partIndex, double number) {
         int count=pattern.countParts();
         int msgStart;
         // Iterate over (ARG_INT|DOUBLE, ARG_SELECTOR, message) tuples
@@ -1971,10 +2019,11 @@ public class MessageFormat extends UFormat {
 
     /**
      * Finds the "other" sub-message.
+     * @param msgPattern A MessagePattern.
      * @param partIndex the index of the first PluralFormat argument style part.
      * @return the "other" sub-message start part index.
      */
-    private int findOtherSubMessage(int partIndex) {
+    /*package*/ static int findOtherSubMessage(MessagePattern msgPattern, int partIndex) {
         int count=msgPattern.countParts();
         MessagePattern.Part part=msgPattern.getPart(partIndex);
         if(part.getType().hasNumericValue()) {
@@ -2006,7 +2055,7 @@ public class MessageFormat extends UFormat {
      * Returns -1 if it is a REPLACE_NUMBER.
      * Returns 0 if there is neither.
      */
-    private int findFirstPluralNumberArg(int msgStart, String argName) {
+    /*package*/ static int findFirstPluralNumberArg(MessagePattern msgPattern, int msgStart, String argName) {
         for(int i=msgStart+1;; ++i) {
             Part part=msgPattern.getPart(i);
             Part.Type type=part.getType();
@@ -2033,8 +2082,8 @@ public class MessageFormat extends UFormat {
      * Mutable input/output values for the PluralSelectorProvider.
      * Separate so that it is possible to make MessageFormat Freezable.
      */
-    private static final class PluralSelectorContext {
-        private PluralSelectorContext(int start, String name, Number num, double off) {
+    /*package*/ static final class PluralSelectorContext {
+        /*package*/ PluralSelectorContext(int start, String name, Number num, double off) {
             startIndex = start;
             argName = name;
             // number needs to be set even when select() is not called.
@@ -2074,7 +2123,7 @@ public class MessageFormat extends UFormat {
      * For example, if the number matches an explicit-value selector like "=1"
      * we do not need any PluralRules.
      */
-    private static final class PluralSelectorProvider implements PluralFormat.PluralSelector {
+    /*package*/ static final class PluralSelectorProvider implements PluralFormat.PluralSelector {
         public PluralSelectorProvider(MessageFormat mf, PluralType type) {
             msgFormat = mf;
             this.type = type;
@@ -2090,8 +2139,9 @@ public class MessageFormat extends UFormat {
             // which must always be present and usually contains the number.
             // Message authors should be consistent across sub-messages.
             PluralSelectorContext context = (PluralSelectorContext)ctx;
-            int otherIndex = msgFormat.findOtherSubMessage(context.startIndex);
-            context.numberArgIndex = msgFormat.findFirstPluralNumberArg(otherIndex, context.argName);
+            int otherIndex = findOtherSubMessage(msgFormat.msgPattern, context.startIndex);
+            context.numberArgIndex =
+                    findFirstPluralNumberArg(msgFormat.msgPattern, otherIndex, context.argName);
             if(context.numberArgIndex > 0 && msgFormat.cachedFormatters != null) {
                 context.formatter = msgFormat.cachedFormatters.get(context.numberArgIndex);
             }
@@ -2099,6 +2149,14 @@ public class MessageFormat extends UFormat {
                 context.formatter = msgFormat.getStockNumberFormatter();
                 context.forReplaceNumber = true;
             }
+            return selectKeyword(rules, context, number);
+        }
+
+        /**
+         * Formats the number with the context's formatter and
+         * selects the keyword for how it is formatted.
+         */
+        /*package*/ static String selectKeyword(PluralRules rules, PluralSelectorContext context, double number) {
             assert context.number.doubleValue() == number;  // argument number minus the offset
             context.numberString = context.formatter.format(context.number);
             if(context.formatter instanceof DecimalFormat) {
@@ -2139,6 +2197,24 @@ public class MessageFormat extends UFormat {
         format(0, null, arguments, argsMap, dest, fp);
     }
 
+    // Package-private access for CompiledMessageFormat.
+
+    /*package*/ MessagePattern getPattern() {
+        return msgPattern;
+    }
+
+    /*package*/ Map<Integer, Format> getCachedFormatters() {
+        return cachedFormatters;
+    }
+
+    /**
+     * Formats the whole message like the public format() methods but without
+     * checking the kind of arguments, appending the result to dest.
+     */
+    /*package*/ void formatTo(Object[] args, Map<String, Object> argsMap, StringBuilder dest) {
+        format(0, null, args, argsMap, new AppendableWrapper(dest), null);
+    }
+
     private void resetPattern() {
         if (msgPattern != null) {
             msgPattern.clear();
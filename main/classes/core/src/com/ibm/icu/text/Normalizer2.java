@@ -227,6 +227,51 @@ public abstract class Normalizer2 {
         return normalize(src, new StringBuilder(src.length())).toString();
     }
 
+    /**
+     * Normalizes each of the source strings and appends the results to the
+     * destination string, one after the other, recording where each one starts.
+     * Unlike with normalizeSecondAndAppend(), the strings are normalized independently
+     * and are not merged at their boundaries.
+     * <p>
+     * Source strings that are already normalized are appended without further processing.
+     * The others are normalized via one intermediate buffer that is reused for the whole batch.
+     * <p>
+     * On return, the normalized form of src[i] is dest[offsets[i]..offsets[i+1]-1],
+     * and offsets[src.length] is the new length of dest.
+     * None of the source strings may be the same object as dest.
+     * @param src source strings
+     * @param dest destination string; gets the normalized source strings appended
+     * @param offsets receives the start index in dest of each normalized string
+     *        followed by the final length of dest;
+     *        must have at least src.length+1 elements
+     * @return dest
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public StringBuilder normalizeAll(CharSequence[] src, StringBuilder dest, int[] offsets) {
+        if(offsets.length<=src.length) {
+            throw new IllegalArgumentException("offsets.length must be at least src.length+1");
+        }
+        StringBuilder normalized=null;
+        for(int i=0; i<src.length; ++i) {
+            CharSequence s=src[i];
+            if(s==dest) {
+                throw new IllegalArgumentException();
+            }
+            offsets[i]=dest.length();
+            if(spanQuickCheckYes(s)==s.length()) {
+                dest.append(s);
+            } else {
+                if(normalized==null) {
+                    normalized=new StringBuilder();
+                }
+                dest.append(normalize(s, normalized));
+            }
+        }
+        offsets[src.length]=dest.length();
+        return dest;
+    }
+
     /**
      * Writes the normalized form of the source string to the destination string
      * (replacing its contents) and returns the destination string.
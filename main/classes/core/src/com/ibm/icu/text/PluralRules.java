@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 2007-2014, International Business Machines Corporation and
+ * Copyright (C) 2007-2015, International Business Machines Corporation and
  * others. All Rights Reserved.
  *******************************************************************************
  */
@@ -188,6 +188,7 @@ public class PluralRules implements Serializable {
 
     private final RuleList rules;
     private final transient Set<String> keywords;
+    private final transient CompiledRules compiledRules;
 
     /**
      * Provides a factory for returning plural rules
@@ -1781,6 +1782,191 @@ public class PluralRules implements Serializable {
         }
     }
 
+    /*
+     * A flattened form of a RuleList used by the primitive select methods.
+     * Each rule's constraint is lowered into disjunctive normal form: a rule
+     * owns a run of and-groups, and each and-group owns a run of range tests
+     * stored in parallel arrays. Evaluation walks the arrays with the operands
+     * held in locals, so no FixedDecimal is created and no Constraint is
+     * dispatched. Immutable.
+     */
+    private static final class CompiledRules {
+        // keyword of each rule, in evaluation order
+        private final String[] keywords;
+        // ruleLimits[r] is the end of rule r's and-groups
+        private final int[] ruleLimits;
+        // groupLimits[g] is the end of and-group g's tests
+        private final int[] groupLimits;
+        // range tests
+        private final Operand[] operands;
+        private final int[] mods;
+        private final boolean[] inRanges;
+        private final boolean[] integersOnlys;
+        private final double[] lowerBounds;
+        private final double[] upperBounds;
+        private final long[][] rangeLists;
+
+        private CompiledRules(List<String> keywords, List<Integer> ruleLimits, List<Integer> groupLimits,
+                List<RangeConstraint> tests) {
+            this.keywords = keywords.toArray(new String[keywords.size()]);
+            this.ruleLimits = toIntArray(ruleLimits);
+            this.groupLimits = toIntArray(groupLimits);
+            int count = tests.size();
+            operands = new Operand[count];
+            mods = new int[count];
+            inRanges = new boolean[count];
+            integersOnlys = new boolean[count];
+            lowerBounds = new double[count];
+            upperBounds = new double[count];
+            rangeLists = new long[count][];
+            for (int i = 0; i < count; i++) {
+                RangeConstraint test = tests.get(i);
+                operands[i] = test.operand;
+                mods[i] = test.mod;
+                inRanges[i] = test.inRange;
+                integersOnlys[i] = test.integersOnly;
+                lowerBounds[i] = test.lowerBound;
+                upperBounds[i] = test.upperBound;
+                rangeLists[i] = test.range_list;
+            }
+        }
+
+        /*
+         * Compiles the rule list, or returns null if it contains a constraint
+         * that cannot be lowered.
+         */
+        static CompiledRules compile(RuleList ruleList) {
+            List<String> keywords = new ArrayList<String>();
+            List<Integer> ruleLimits = new ArrayList<Integer>();
+            List<Integer> groupLimits = new ArrayList<Integer>();
+            List<RangeConstraint> tests = new ArrayList<RangeConstraint>();
+            for (Rule rule : ruleList.rules) {
+                List<List<RangeConstraint>> groups = toGroups(rule.constraint);
+                if (groups == null) {
+                    return null;
+                }
+                for (List<RangeConstraint> group : groups) {
+                    tests.addAll(group);
+                    groupLimits.add(tests.size());
+                }
+                keywords.add(rule.getKeyword());
+                ruleLimits.add(groupLimits.size());
+            }
+            return new CompiledRules(keywords, ruleLimits, groupLimits, tests);
+        }
+
+        /*
+         * Converts a constraint into a list of and-groups whose disjunction
+         * is equivalent to the constraint. Returns null for an unknown
+         * constraint type.
+         */
+        private static List<List<RangeConstraint>> toGroups(Constraint constraint) {
+            List<List<RangeConstraint>> result = new ArrayList<List<RangeConstraint>>();
+            if (constraint == NO_CONSTRAINT) {
+                result.add(new ArrayList<RangeConstraint>());
+            } else if (constraint instanceof RangeConstraint) {
+                List<RangeConstraint> group = new ArrayList<RangeConstraint>();
+                group.add((RangeConstraint) constraint);
+                result.add(group);
+            } else if (constraint instanceof OrConstraint) {
+                OrConstraint or = (OrConstraint) constraint;
+                List<List<RangeConstraint>> a = toGroups(or.a);
+                List<List<RangeConstraint>> b = toGroups(or.b);
+                if (a == null || b == null) {
+                    return null;
+                }
+                result.addAll(a);
+                result.addAll(b);
+            } else if (constraint instanceof AndConstraint) {
+                AndConstraint and = (AndConstraint) constraint;
+                List<List<RangeConstraint>> a = toGroups(and.a);
+                List<List<RangeConstraint>> b = toGroups(and.b);
+                if (a == null || b == null) {
+                    return null;
+                }
+                for (List<RangeConstraint> ga : a) {
+                    for (List<RangeConstraint> gb : b) {
+                        List<RangeConstraint> group = new ArrayList<RangeConstraint>(ga);
+                        group.addAll(gb);
+                        result.add(group);
+                    }
+                }
+            } else {
+                return null;
+            }
+            return result;
+        }
+
+        private static int[] toIntArray(List<Integer> list) {
+            int[] result = new int[list.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = list.get(i);
+            }
+            return result;
+        }
+
+        /*
+         * Selects the keyword for the operands of a FixedDecimal, without
+         * creating one. The arguments correspond to the FixedDecimal fields.
+         */
+        String select(double source, long integerValue, int v, int w, long f, long t) {
+            int group = 0;
+            int test = 0;
+            for (int r = 0; r < keywords.length; r++) {
+                for (int groupLimit = ruleLimits[r]; group < groupLimit; group++) {
+                    int testLimit = groupLimits[group];
+                    boolean matched = true;
+                    for (; test < testLimit; test++) {
+                        if (!isFulfilled(test, source, integerValue, v, w, f, t)) {
+                            matched = false;
+                            test = testLimit;
+                            break;
+                        }
+                    }
+                    if (matched) {
+                        return keywords[r];
+                    }
+                }
+            }
+            return KEYWORD_OTHER;
+        }
+
+        /*
+         * Same as RangeConstraint.isFulfilled for the test at the index.
+         */
+        private boolean isFulfilled(int test, double source, long integerValue, int v, int w, long f, long t) {
+            double n;
+            switch (operands[test]) {
+            case i: n = integerValue; break;
+            case f: n = f; break;
+            case t: n = t; break;
+            case v: n = v; break;
+            case w: n = w; break;
+            default: n = source; break;
+            }
+            boolean inRange = inRanges[test];
+            if ((integersOnlys[test] && (n - (long)n) != 0.0
+                    || operands[test] == Operand.j && v != 0)) {
+                return !inRange;
+            }
+            int mod = mods[test];
+            if (mod != 0) {
+                long ln = (long) n;
+                // long remainder is much cheaper than double and exact for these values
+                n = (ln == n && ln <= MAX_EXACT_LONG && ln >= -MAX_EXACT_LONG) ? ln % mod : n % mod;
+            }
+            boolean result = n >= lowerBounds[test] && n <= upperBounds[test];
+            long[] rangeList = rangeLists[test];
+            if (result && rangeList != null) {
+                result = false;
+                for (int i = 0; !result && i < rangeList.length; i += 2) {
+                    result = n >= rangeList[i] && n <= rangeList[i+1];
+                }
+            }
+            return inRange == result;
+        }
+    }
+
     /**
      * @internal
      * @deprecated This API is ICU internal only.
@@ -1973,6 +2159,7 @@ public class PluralRules implements Serializable {
     private PluralRules(RuleList rules) {
         this.rules = rules;
         this.keywords = Collections.unmodifiableSet(rules.getKeywords());
+        this.compiledRules = CompiledRules.compile(rules);
     }
 
     /**
@@ -1993,9 +2180,85 @@ public class PluralRules implements Serializable {
      * @stable ICU 4.0
      */
     public String select(double number) {
+        if (number == Math.floor(number) && Math.abs(number) <= MAX_EXACT_LONG) {
+            // An integral double has no visible fraction digits
+            return select((long) number, 0);
+        }
         return rules.select(new FixedDecimal(number));
     }
 
+    /**
+     * Given an integer, returns the keyword of the first rule that applies to
+     * the number. This method does not allocate any objects.
+     *
+     * @param number The number for which the rule has to be determined.
+     * @return The keyword of the selected rule.
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public String select(long number) {
+        return select(number, 0);
+    }
+
+    /**
+     * Given a decimal number represented by an unscaled value and a scale,
+     * returns the keyword of the first rule that applies to the number. The
+     * number is <code>mantissa / 10<sup>scale</sup></code>, and the scale
+     * is the count of visible fraction digits, including trailing zeros. For
+     * example, 1.50 is represented by mantissa 150 and scale 2. This method
+     * does not allocate any objects.
+     *
+     * @param mantissa The unscaled value of the number.
+     * @param scale The number of visible fraction digits, 0 to 18.
+     * @return The keyword of the selected rule.
+     * @throws IllegalArgumentException if scale is out of range.
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public String select(long mantissa, int scale) {
+        if (scale < 0 || scale >= POW10.length) {
+            throw new IllegalArgumentException("Scale out of range: " + scale);
+        }
+        boolean isNegative = mantissa < 0;
+        long abs = isNegative ? -mantissa : mantissa;
+        if (abs < 0 || compiledRules == null) {
+            // Long.MIN_VALUE, or rules which could not be compiled
+            long pow = POW10[scale];
+            return rules.select(new FixedDecimal((double) mantissa / pow, scale,
+                    Math.abs(mantissa % pow)));
+        }
+        long pow = POW10[scale];
+        long integerValue = abs / pow;
+        long f = abs % pow;
+        double source = (double) abs / pow;
+        if (isNegative) {
+            // FixedDecimal keeps the sign on the integer value
+            integerValue = -integerValue;
+        } else if (integerValue > FixedDecimal.MAX) {
+            integerValue = FixedDecimal.MAX;
+        }
+        long t = f;
+        int w = 0;
+        if (f != 0) {
+            w = scale;
+            while ((t % 10) == 0) {
+                t /= 10;
+                --w;
+            }
+        }
+        return compiledRules.select(source, integerValue, scale, w, f, t);
+    }
+
+    private static final long[] POW10 = {
+        1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L,
+        1000000000L, 10000000000L, 100000000000L, 1000000000000L, 10000000000000L,
+        100000000000000L, 1000000000000000L, 10000000000000000L, 100000000000000000L,
+        1000000000000000000L
+    };
+
+    // All integers up to this magnitude are exactly representable as doubles
+    private static final long MAX_EXACT_LONG = 1L << 53;
+
     /**
      * Given a number, returns the keyword of the first rule that applies to
      * the number.
@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 2011-2014, International Business Machines Corporation and    *
+ * Copyright (C) 2011-2015, International Business Machines Corporation and    *
  * others. All Rights Reserved.                                                *
  *******************************************************************************
  */
@@ -3004,7 +3004,7 @@ public class TimeZoneFormat extends UFormat implements Freezable<TimeZoneFormat>
                     for (String id : ids) {
                         trie.put(id, id);
                     }
-                    ZONE_ID_TRIE = trie;
+                    ZONE_ID_TRIE = trie.freeze();
                 }
             }
         }
@@ -3047,7 +3047,7 @@ public class TimeZoneFormat extends UFormat implements Freezable<TimeZoneFormat>
                     }
                     // Canonical list does not contain Etc/Unknown
                     trie.put(UNKNOWN_SHORT_ZONE_ID, UNKNOWN_ZONE_ID);
-                    SHORT_ZONE_ID_TRIE = trie;
+                    SHORT_ZONE_ID_TRIE = trie.freeze();
                 }
             }
         }
@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 2011-2014, International Business Machines Corporation and    *
+ * Copyright (C) 2011-2015, International Business Machines Corporation and    *
  * others. All Rights Reserved.                                                *
  *******************************************************************************
  */
@@ -346,6 +346,18 @@ public abstract class TimeZoneNames implements Serializable {
         throw new UnsupportedOperationException("The method is not implemented in TimeZoneNames base class.");
     }
 
+    /**
+     * Loads all time zone and meta zone display names of this instance, so that
+     * later name lookups and parsing do not load any data. The default
+     * implementation does nothing.
+     *
+     * @internal
+     * @deprecated This API is ICU internal only.
+     */
+    @Deprecated
+    public void loadAllDisplayNames() {
+    }
+
     /**
      * A <code>MatchInfo</code> represents a time zone name match used by
      * {@link TimeZoneNames#find(CharSequence, int, EnumSet)}.
@@ -1,6 +1,6 @@
 /*
 **********************************************************************
-*   Copyright (c) 2002, International Business Machines Corporation
+*   Copyright (c) 2002-2015, International Business Machines Corporation
 *   and others.  All Rights Reserved.
 **********************************************************************
 *   Date        Name        Description
@@ -41,6 +41,17 @@ interface UnicodeReplacer {
                                 int limit,
                                 int[] cursor);
 
+    /**
+     * Append the output text of this object to 'dest', as replace()
+     * would insert it, without modifying 'text'.  This is used
+     * instead of replace() for text without out-of-band data, so that
+     * the output of nested replacers can be built up outside the text.
+     *
+     * @param text the text that was matched
+     * @param dest the buffer to which the output text is appended
+     */
+    public abstract void appendReplacement(Replaceable text, StringBuilder dest);
+
     /**
      * Returns a string representation of this replacer.  If the
      * result of calling this function is passed to the appropriate
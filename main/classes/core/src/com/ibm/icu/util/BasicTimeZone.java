@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 2007-2014, International Business Machines Corporation and    *
+ * Copyright (C) 2007-2015, International Business Machines Corporation and    *
  * others. All Rights Reserved.                                                *
  *******************************************************************************
  */
@@ -533,6 +533,83 @@ public abstract class BasicTimeZone extends TimeZone {
         return result;
     }
 
+    /**
+     * {@icu} Gets the total offsets (raw offset plus daylight saving amount)
+     * in milliseconds for an array of UTC times. The offset for
+     * <code>dates[datesStart + i]</code> is stored in
+     * <code>offsets[offsetsStart + i]</code>, for <code>i</code> in
+     * <code>[0, length)</code>.
+     * <p>
+     * The result is the same as calling {@link #getOffset(long)} for each
+     * date. Once an offset is resolved, it is reused for all following dates
+     * up to the adjacent time zone transitions, so sorted or clustered
+     * input is converted without any per-date rule evaluation.
+     *
+     * @param dates         The UTC times in milliseconds since the epoch.
+     * @param datesStart    The start index in <code>dates</code>.
+     * @param offsets       Receives the total offsets in milliseconds.
+     * @param offsetsStart  The start index in <code>offsets</code>.
+     * @param length        The number of dates to process.
+     * @throws IndexOutOfBoundsException if a range is out of the array bounds.
+     *
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public void getOffsets(long[] dates, int datesStart, int[] offsets, int offsetsStart, int length) {
+        checkRange(dates.length, datesStart, length);
+        checkRange(offsets.length, offsetsStart, length);
+        int[] fields = new int[2];
+        long intervalStart = Long.MAX_VALUE;
+        long intervalLimit = Long.MIN_VALUE;
+        int offset = 0;
+        for (int i = 0; i < length; i++) {
+            long date = dates[datesStart + i];
+            if (date < intervalStart || date >= intervalLimit) {
+                getOffset(date, false, fields);
+                offset = fields[0] + fields[1];
+                TimeZoneTransition tzt = getPreviousTransition(date, true);
+                intervalStart = (tzt == null) ? Long.MIN_VALUE : tzt.getTime();
+                tzt = getNextTransition(date, false);
+                intervalLimit = (tzt == null) ? Long.MAX_VALUE : tzt.getTime();
+            }
+            offsets[offsetsStart + i] = offset;
+        }
+    }
+
+    /**
+     * {@icu} Converts an array of UTC times to local wall times in place, by
+     * adding the total offset at each time as returned by
+     * {@link #getOffsets(long[], int, int[], int, int)}.
+     *
+     * @param dates     The UTC times in milliseconds since the epoch,
+     *                  replaced by the local wall times.
+     * @param start     The start index in <code>dates</code>.
+     * @param length    The number of dates to convert.
+     * @throws IndexOutOfBoundsException if the range is out of the array bounds.
+     *
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public void toLocalMillis(long[] dates, int start, int length) {
+        checkRange(dates.length, start, length);
+        int[] offsets = new int[Math.min(length, OFFSETS_CHUNK_SIZE)];
+        for (int done = 0; done < length; done += offsets.length) {
+            int count = Math.min(length - done, offsets.length);
+            getOffsets(dates, start + done, offsets, 0, count);
+            for (int i = 0; i < count; i++) {
+                dates[start + done + i] += offsets[i];
+            }
+        }
+    }
+
+    private static final int OFFSETS_CHUNK_SIZE = 1024;
+
+    private static void checkRange(int arrayLength, int start, int length) {
+        if (start < 0 || length < 0 || start > arrayLength - length) {
+            throw new IndexOutOfBoundsException("start=" + start + ", length=" + length);
+        }
+    }
+
     /**
      * {@icu} The time type option for standard time used by
      * {@link #getOffsetFromLocal(long, int, int, int[])}
@@ -1,6 +1,6 @@
 /*
 *******************************************************************************
-*   Copyright (C) 2010-2014, International Business Machines
+*   Copyright (C) 2010-2015, International Business Machines
 *   Corporation and others.  All Rights Reserved.
 *******************************************************************************
 *   created on: 2010nov23
@@ -11,7 +11,7 @@ package com.ibm.icu.util;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.NoSuchElementException;
 
 /**
@@ -57,6 +57,42 @@ public final class BytesTrie implements Cloneable, Iterable<BytesTrie.Entry> {
         return super.clone();  // A shallow copy is just what we need.
     }
 
+    /**
+     * Returns a new reader for the same trie which looks up the first byte
+     * of a byte sequence in a 256-entry table, rather than searching the root branch node.
+     * This makes first() and the first next() after reset() constant-time.
+     *
+     * <p>The table is built by this method and is shared by clones of the new reader.
+     * For a trie that is read often, such as a dictionary or a static string map,
+     * keep one such reader and clone() it for each thread or lookup.
+     *
+     * <p>No table is built if the root node is not a branch;
+     * the new reader then works like a plain one.
+     * @return A new BytesTrie reader in its initial state.
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public BytesTrie withFirstByteTable() {
+        BytesTrie trie=new BytesTrie(bytes_, root_);
+        StringBuilder firstBytes=new StringBuilder();
+        int count=trie.getNextBytes(firstBytes);
+        if(count<2) {
+            // A linear-match node or no byte sequences: Nothing to search.
+            return trie;
+        }
+        int[] table=new int[0x100];
+        Arrays.fill(table, -1);
+        for(int i=0; i<count; ++i) {
+            char b=firstBytes.charAt(i);
+            trie.first(b);
+            // The root is a branch, so each byte ends at a node boundary.
+            table[b]=trie.pos_;
+        }
+        trie.reset();
+        trie.firstByteTable_=table;
+        return trie;
+    }
+
     /**
      * Resets this trie to its initial state.
      * @return this
@@ -275,6 +311,18 @@ public final class BytesTrie implements Cloneable, Iterable<BytesTrie.Entry> {
             return Result.NO_MATCH;
         }
         int length=remainingMatchLength_;  // Actual remaining match length minus 1.
+        if(pos==root_ && firstByteTable_!=null) {
+            Result result=firstFromTable(s[sIndex++]&0xff);
+            if(result==Result.NO_MATCH || sIndex==sLimit) {
+                return result;
+            }
+            if(result==Result.FINAL_VALUE) {
+                // No further matching bytes.
+                stop();
+                return Result.NO_MATCH;
+            }
+            pos=pos_;
+        }
         for(;;) {
             // Fetch the next input byte, if there is one.
             // Continue a linear-match node.
@@ -554,7 +602,7 @@ public final class BytesTrie implements Cloneable, Iterable<BytesTrie.Entry> {
             entry_.truncateString(length);
             pos_+=length;
             remainingMatchLength_-=length;
-            stack_.clear();
+            stackLength_=0;
             return this;
         }
 
@@ -562,7 +610,7 @@ public final class BytesTrie implements Cloneable, Iterable<BytesTrie.Entry> {
          * @return true if there are more elements.
          * @stable ICU 4.8
          */
-        public boolean hasNext() /*const*/ { return pos_>=0 || !stack_.isEmpty(); }
+        public boolean hasNext() /*const*/ { return pos_>=0 || stackLength_>0; }
 
         /**
          * Finds the next (byte sequence, value) pair if there is one.
@@ -578,12 +626,12 @@ public final class BytesTrie implements Cloneable, Iterable<BytesTrie.Entry> {
         public Entry next() {
             int pos=pos_;
             if(pos<0) {
-                if(stack_.isEmpty()) {
+                if(stackLength_==0) {
                     throw new NoSuchElementException();
                 }
                 // Pop the state off the stack and continue with the next outbound edge of
                 // the branch node.
-                long top=stack_.remove(stack_.size()-1);
+                long top=stack_[--stackLength_];
                 int length=(int)top;
                 pos=(int)(top>>32);
                 entry_.truncateString(length&0xffff);
@@ -648,6 +696,15 @@ public final class BytesTrie implements Cloneable, Iterable<BytesTrie.Entry> {
             throw new UnsupportedOperationException();
         }
 
+        private void push(long state) {
+            if(stackLength_==stack_.length) {
+                long[] newStack=new long[2*stackLength_];
+                System.arraycopy(stack_, 0, newStack, 0, stackLength_);
+                stack_=newStack;
+            }
+            stack_[stackLength_++]=state;
+        }
+
         private Entry truncateAndStop() {
             pos_=-1;
             entry_.value=-1;  // no real value for str
@@ -658,7 +715,7 @@ public final class BytesTrie implements Cloneable, Iterable<BytesTrie.Entry> {
             while(length>kMaxBranchLinearSubNodeLength) {
                 ++pos;  // ignore the comparison byte
                 // Push state for the greater-or-equal edge.
-                stack_.add(((long)skipDelta(bytes_, pos)<<32)|((length-(length>>1))<<16)|entry_.length);
+                push(((long)skipDelta(bytes_, pos)<<32)|((length-(length>>1))<<16)|entry_.length);
                 // Follow the less-than edge.
                 length>>=1;
                 pos=jumpByDelta(bytes_, pos);
@@ -670,7 +727,7 @@ public final class BytesTrie implements Cloneable, Iterable<BytesTrie.Entry> {
             boolean isFinal=(node&kValueIsFinal)!=0;
             int value=readValue(bytes_, pos, node>>1);
             pos=skipValue(pos, node);
-            stack_.add(((long)pos<<32)|((length-1)<<16)|entry_.length);
+            push(((long)pos<<32)|((length-1)<<16)|entry_.length);
             entry_.append(trieByte);
             if(isFinal) {
                 pos_=-1;
@@ -697,7 +754,9 @@ public final class BytesTrie implements Cloneable, Iterable<BytesTrie.Entry> {
         // and the remaining branch length in bits 24..16. (Bits 31..25 are unused.)
         // (We could store the remaining branch length minus 1 in bits 23..16 and not use bits 31..24,
         // but the code looks more confusing that way.)
-        private ArrayList<Long> stack_=new ArrayList<Long>();
+        // A plain array rather than a list of Longs, so that next() does not allocate.
+        private long[] stack_=new long[16];
+        private int stackLength_;
     }
 
     private void stop() {
@@ -845,8 +904,23 @@ public final class BytesTrie implements Cloneable, Iterable<BytesTrie.Entry> {
         }
     }
 
+    // Looks up the first byte (0..0xff) in the table from withFirstByteTable().
+    private Result firstFromTable(int inByte) {
+        int pos;
+        if(inByte<0 || inByte>0xff || (pos=firstByteTable_[inByte])<0) {
+            stop();
+            return Result.NO_MATCH;
+        }
+        pos_=pos;
+        int node=bytes_[pos]&0xff;
+        return node>=kMinValueLead ? valueResults_[node&kValueIsFinal] : Result.NO_VALUE;
+    }
+
     // Requires remainingLength_<0.
     private Result nextImpl(int pos, int inByte) {
+        if(pos==root_ && firstByteTable_!=null) {
+            return firstFromTable(inByte);
+        }
         for(;;) {
             int node=bytes_[pos++]&0xff;
             if(node<kMinLinearMatch) {
@@ -1061,6 +1135,10 @@ public final class BytesTrie implements Cloneable, Iterable<BytesTrie.Entry> {
     private byte[] bytes_;
     private int root_;
 
+    // Optional table from withFirstByteTable(), shared by clones:
+    // For each byte value, the position after matching it at the root, or -1.
+    private int[] firstByteTable_;
+
     // Iterator variables.
 
     // Index of next trie byte to read. Negative if no more matches.
@@ -1779,8 +1779,7 @@ public abstract class Calendar implements Serializable, Cloneable, Comparable<Ca
             tz = TimeZone.getDefault();
         }
 
-        Calendar cal = createInstance(locale);
-        cal.setTimeZone(tz);
+        Calendar cal = createInstance(tz, locale);
         cal.setTimeInMillis(System.currentTimeMillis());
         return cal;
     }
@@ -1840,9 +1839,8 @@ public abstract class Calendar implements Serializable, Cloneable, Comparable<Ca
         return CalType.UNKNOWN;
     }
 
-    private static Calendar createInstance(ULocale locale) {
+    private static Calendar createInstance(TimeZone zone, ULocale locale) {
         Calendar cal = null;
-        TimeZone zone = TimeZone.getDefault();
         CalType calType = getCalendarTypeForLocale(locale);
         if (calType == CalType.UNKNOWN) {
             // fallback to Gregorian
@@ -1,6 +1,6 @@
 /*
 *******************************************************************************
-*   Copyright (C) 2011-2014, International Business Machines
+*   Copyright (C) 2011-2015, International Business Machines
 *   Corporation and others.  All Rights Reserved.
 *******************************************************************************
 *   created on: 2011jan06
@@ -11,7 +11,7 @@
 package com.ibm.icu.util;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.NoSuchElementException;
 
 import com.ibm.icu.text.UTF16;
@@ -60,6 +60,59 @@ public final class CharsTrie implements Cloneable, Iterable<CharsTrie.Entry> {
         return super.clone();  // A shallow copy is just what we need.
     }
 
+    /**
+     * Returns a new reader for the same trie which looks up the first unit
+     * of a string in a table indexed by the unit value,
+     * rather than searching the root branch node.
+     * This makes first() and the first next() after reset() constant-time.
+     *
+     * <p>The table is built by this method and is shared by clones of the new reader.
+     * For a trie that is read often, such as a dictionary or a static string map,
+     * keep one such reader and clone() it for each thread or lookup.
+     *
+     * <p>No table is built if the root node is not a branch, or if its units
+     * are too sparse for a table of reasonable size;
+     * the new reader then works like a plain one.
+     * @return A new CharsTrie reader in its initial state.
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public CharsTrie withFirstUnitTable() {
+        CharsTrie trie=new CharsTrie(chars_, root_);
+        StringBuilder firstUnits=new StringBuilder();
+        int count=trie.getNextChars(firstUnits);
+        if(count<2) {
+            // A linear-match node or no strings: Nothing to search.
+            return trie;
+        }
+        int min=0xffff, max=0;
+        for(int i=0; i<count; ++i) {
+            char c=firstUnits.charAt(i);
+            if(c<min) {
+                min=c;
+            }
+            if(c>max) {
+                max=c;
+            }
+        }
+        int tableLength=max-min+1;
+        if(tableLength>0x100 && tableLength>count*kMaxFirstUnitTableSparseness) {
+            return trie;
+        }
+        int[] table=new int[tableLength];
+        Arrays.fill(table, -1);
+        for(int i=0; i<count; ++i) {
+            char c=firstUnits.charAt(i);
+            trie.first(c);
+            // The root is a branch, so each unit ends at a node boundary.
+            table[c-min]=trie.pos_;
+        }
+        trie.reset();
+        trie.firstUnitTable_=table;
+        trie.firstUnitMin_=min;
+        return trie;
+    }
+
     /**
      * Resets this trie to its initial state.
      * @return this
@@ -237,6 +290,18 @@ public final class CharsTrie implements Cloneable, Iterable<CharsTrie.Entry> {
             return Result.NO_MATCH;
         }
         int length=remainingMatchLength_;  // Actual remaining match length minus 1.
+        if(pos==root_ && firstUnitTable_!=null) {
+            Result result=firstFromTable(s.charAt(sIndex++));
+            if(result==Result.NO_MATCH || sIndex==sLimit) {
+                return result;
+            }
+            if(result==Result.FINAL_VALUE) {
+                // No further matching units.
+                stop();
+                return Result.NO_MATCH;
+            }
+            pos=pos_;
+        }
         for(;;) {
             // Fetch the next input unit, if there is one.
             // Continue a linear-match node.
@@ -470,7 +535,7 @@ public final class CharsTrie implements Cloneable, Iterable<CharsTrie.Entry> {
             str_.setLength(length);
             pos_+=length;
             remainingMatchLength_-=length;
-            stack_.clear();
+            stackLength_=0;
             return this;
         }
 
@@ -478,7 +543,7 @@ public final class CharsTrie implements Cloneable, Iterable<CharsTrie.Entry> {
          * @return true if there are more elements.
          * @stable ICU 4.8
          */
-        public boolean hasNext() /*const*/ { return pos_>=0 || !stack_.isEmpty(); }
+        public boolean hasNext() /*const*/ { return pos_>=0 || stackLength_>0; }
 
         /**
          * Finds the next (string, value) pair if there is one.
@@ -494,12 +559,12 @@ public final class CharsTrie implements Cloneable, Iterable<CharsTrie.Entry> {
         public Entry next() {
             int pos=pos_;
             if(pos<0) {
-                if(stack_.isEmpty()) {
+                if(stackLength_==0) {
                     throw new NoSuchElementException();
                 }
                 // Pop the state off the stack and continue with the next outbound edge of
                 // the branch node.
-                long top=stack_.remove(stack_.size()-1);
+                long top=stack_[--stackLength_];
                 int length=(int)top;
                 pos=(int)(top>>32);
                 str_.setLength(length&0xffff);
@@ -580,6 +645,15 @@ public final class CharsTrie implements Cloneable, Iterable<CharsTrie.Entry> {
             throw new UnsupportedOperationException();
         }
 
+        private void push(long state) {
+            if(stackLength_==stack_.length) {
+                long[] newStack=new long[2*stackLength_];
+                System.arraycopy(stack_, 0, newStack, 0, stackLength_);
+                stack_=newStack;
+            }
+            stack_[stackLength_++]=state;
+        }
+
         private Entry truncateAndStop() {
             pos_=-1;
             // We reset entry_.chars every time we return entry_
@@ -593,7 +667,7 @@ public final class CharsTrie implements Cloneable, Iterable<CharsTrie.Entry> {
             while(length>kMaxBranchLinearSubNodeLength) {
                 ++pos;  // ignore the comparison unit
                 // Push state for the greater-or-equal edge.
-                stack_.add(((long)skipDelta(chars_, pos)<<32)|((length-(length>>1))<<16)|str_.length());
+                push(((long)skipDelta(chars_, pos)<<32)|((length-(length>>1))<<16)|str_.length());
                 // Follow the less-than edge.
                 length>>=1;
                 pos=jumpByDelta(chars_, pos);
@@ -605,7 +679,7 @@ public final class CharsTrie implements Cloneable, Iterable<CharsTrie.Entry> {
             boolean isFinal=(node&kValueIsFinal)!=0;
             int value=readValue(chars_, pos, node&=0x7fff);
             pos=skipValue(pos, node);
-            stack_.add(((long)pos<<32)|((length-1)<<16)|str_.length());
+            push(((long)pos<<32)|((length-1)<<16)|str_.length());
             str_.append(trieUnit);
             if(isFinal) {
                 pos_=-1;
@@ -635,7 +709,9 @@ public final class CharsTrie implements Cloneable, Iterable<CharsTrie.Entry> {
         // and the remaining branch length in bits 31..16.
         // (We could store the remaining branch length minus 1 in bits 30..16 and not use bit 31,
         // but the code looks more confusing that way.)
-        private ArrayList<Long> stack_=new ArrayList<Long>();
+        // A plain array rather than a list of Longs, so that next() does not allocate.
+        private long[] stack_=new long[16];
+        private int stackLength_;
     }
 
     private void stop() {
@@ -783,8 +859,24 @@ public final class CharsTrie implements Cloneable, Iterable<CharsTrie.Entry> {
         }
     }
 
+    // Looks up the first unit in the table from withFirstUnitTable().
+    private Result firstFromTable(int inUnit) {
+        int index=inUnit-firstUnitMin_;
+        int pos;
+        if(index<0 || index>=firstUnitTable_.length || (pos=firstUnitTable_[index])<0) {
+            stop();
+            return Result.NO_MATCH;
+        }
+        pos_=pos;
+        int node=chars_.charAt(pos);
+        return node>=kMinValueLead ? valueResults_[node>>15] : Result.NO_VALUE;
+    }
+
     // Requires remainingLength_<0.
     private Result nextImpl(int pos, int inUnit) {
+        if(pos==root_ && firstUnitTable_!=null) {
+            return firstFromTable(inUnit);
+        }
         int node=chars_.charAt(pos++);
         for(;;) {
             if(node<kMinLinearMatch) {
@@ -1005,10 +1097,17 @@ public final class CharsTrie implements Cloneable, Iterable<CharsTrie.Entry> {
 
     /*package*/ static final int kMaxTwoUnitDelta=((kThreeUnitDeltaLead-kMinTwoUnitDeltaLead)<<16)-1;  // 0x03feffff
 
+    /*package*/ static final int kMaxFirstUnitTableSparseness=8;
+
     // Fixed value referencing the CharsTrie words.
     private CharSequence chars_;
     private int root_;
 
+    // Optional table from withFirstUnitTable(), shared by clones:
+    // For each unit from firstUnitMin_, the position after matching it at the root, or -1.
+    private int[] firstUnitTable_;
+    private int firstUnitMin_;
+
     // Iterator variables.
 
     // Pointer to next trie unit to read. NULL if no more matches.
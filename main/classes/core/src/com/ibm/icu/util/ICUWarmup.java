@@ -0,0 +1,429 @@
+/*
+ *******************************************************************************
+ * Copyright (C) 2015, International Business Machines Corporation and
+ * others. All Rights Reserved.
+ *******************************************************************************
+ */
+package com.ibm.icu.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+
+import com.ibm.icu.impl.ICUResourceBundle;
+import com.ibm.icu.text.BreakIterator;
+import com.ibm.icu.text.DateFormat;
+import com.ibm.icu.text.DecimalFormatSymbols;
+import com.ibm.icu.text.NumberFormat;
+import com.ibm.icu.text.PluralRules;
+import com.ibm.icu.text.PluralRules.PluralType;
+import com.ibm.icu.text.TimeZoneNames;
+
+/**
+ * <code>ICUWarmup</code> loads locale data ahead of its first use.
+ * <p>
+ * ICU loads and parses locale data lazily, on the first use of a service
+ * for a locale. In a server, this makes the first requests after startup
+ * much slower than the following ones. An application can call
+ * {@link #preload(Set, EnumSet)} at startup with the locales it serves, so
+ * that the data is loaded in parallel before the first request arrives.
+ * <p>
+ * The resource bundles and time zone names loaded by a preload are kept
+ * strongly reachable until {@link #unpin()} is called, so that ICU's caches
+ * do not release them under memory pressure. Preloading a service for a
+ * locale again replaces the objects kept for it, so repeated preloads do not
+ * accumulate them. Formatters, collators and break
+ * iterators are returned to callers as clones of cached instances, and those
+ * cached instances can still be released and then loaded again on a later use.
+ * <p>
+ * Example:
+ * <pre>
+ * Set&lt;ULocale&gt; locales = new HashSet&lt;ULocale&gt;();
+ * locales.add(ULocale.US);
+ * locales.add(ULocale.JAPAN);
+ * ICUWarmup.Report report = ICUWarmup.preload(locales, EnumSet.allOf(ICUWarmup.Service.class));
+ * </pre>
+ *
+ * @draft ICU 55
+ * @provisional This API might change or be removed in a future release.
+ */
+public final class ICUWarmup {
+
+    /**
+     * The kinds of locale data which can be preloaded.
+     *
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public enum Service {
+        /**
+         * The main locale resource bundles, including zone, currency,
+         * language and region bundles when they are available.
+         * @draft ICU 55
+         * @provisional This API might change or be removed in a future release.
+         */
+        RESOURCE_BUNDLE,
+        /**
+         * Number format patterns and symbols.
+         * @draft ICU 55
+         * @provisional This API might change or be removed in a future release.
+         */
+        NUMBER_FORMAT,
+        /**
+         * Date format patterns, symbols and calendar data.
+         * @draft ICU 55
+         * @provisional This API might change or be removed in a future release.
+         */
+        DATE_FORMAT,
+        /**
+         * Collation tailorings. Requires the collation classes to be
+         * available.
+         * @draft ICU 55
+         * @provisional This API might change or be removed in a future release.
+         */
+        COLLATION,
+        /**
+         * Character, word, line and sentence break rules.
+         * @draft ICU 55
+         * @provisional This API might change or be removed in a future release.
+         */
+        BREAK_ITERATOR,
+        /**
+         * All time zone and meta zone display names.
+         * @draft ICU 55
+         * @provisional This API might change or be removed in a future release.
+         */
+        TIME_ZONE_NAMES,
+        /**
+         * Cardinal and ordinal plural rules.
+         * @draft ICU 55
+         * @provisional This API might change or be removed in a future release.
+         */
+        PLURAL_RULES
+    }
+
+    /**
+     * The outcome of a preload: the time spent per service, and the
+     * locales for which a service could not be loaded.
+     *
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static final class Report {
+        private final EnumMap<Service, Long> loadNanos = new EnumMap<Service, Long>(Service.class);
+        private final EnumMap<Service, Map<ULocale, Throwable>> failures =
+                new EnumMap<Service, Map<ULocale, Throwable>>(Service.class);
+        private long elapsedNanos;
+
+        private Report() {
+        }
+
+        private void add(LoadTask task) {
+            Long nanos = loadNanos.get(task.service);
+            loadNanos.put(task.service, (nanos == null ? 0 : nanos.longValue()) + task.nanos);
+            if (task.failure != null) {
+                Map<ULocale, Throwable> serviceFailures = failures.get(task.service);
+                if (serviceFailures == null) {
+                    serviceFailures = new HashMap<ULocale, Throwable>();
+                    failures.put(task.service, serviceFailures);
+                }
+                serviceFailures.put(task.locale, task.failure);
+            }
+        }
+
+        /**
+         * Returns the time spent loading the service, summed over all
+         * locales. Since locales are loaded in parallel, the sum over all
+         * services can exceed {@link #getElapsedMillis()}.
+         *
+         * @param service the service
+         * @return the load time in milliseconds, or 0 if the service was not preloaded.
+         * @draft ICU 55
+         * @provisional This API might change or be removed in a future release.
+         */
+        public long getLoadTimeMillis(Service service) {
+            Long nanos = loadNanos.get(service);
+            return nanos == null ? 0 : nanos.longValue() / 1000000;
+        }
+
+        /**
+         * Returns the wall clock time of the whole preload.
+         *
+         * @return the elapsed time in milliseconds.
+         * @draft ICU 55
+         * @provisional This API might change or be removed in a future release.
+         */
+        public long getElapsedMillis() {
+            return elapsedNanos / 1000000;
+        }
+
+        /**
+         * Returns the locales for which the service failed to load, with
+         * the exception thrown by the load.
+         *
+         * @param service the service
+         * @return an unmodifiable map from locale to exception, empty if
+         * there were no failures.
+         * @draft ICU 55
+         * @provisional This API might change or be removed in a future release.
+         */
+        public Map<ULocale, Throwable> getFailures(Service service) {
+            Map<ULocale, Throwable> serviceFailures = failures.get(service);
+            if (serviceFailures == null) {
+                return Collections.emptyMap();
+            }
+            return Collections.unmodifiableMap(serviceFailures);
+        }
+
+        /**
+         * {@inheritDoc}
+         * @draft ICU 55
+         * @provisional This API might change or be removed in a future release.
+         */
+        @Override
+        public String toString() {
+            StringBuilder buf = new StringBuilder();
+            buf.append("elapsed=").append(getElapsedMillis()).append("ms");
+            for (Service service : loadNanos.keySet()) {
+                buf.append(", ").append(service).append('=').append(getLoadTimeMillis(service)).append("ms");
+                int failureCount = getFailures(service).size();
+                if (failureCount > 0) {
+                    buf.append(" (").append(failureCount).append(" failed)");
+                }
+            }
+            return buf.toString();
+        }
+    }
+
+    // Resource bundles and time zone names loaded by preloads, kept reachable until unpin(),
+    // by service and locale
+    private static final Map<Service, Map<ULocale, List<Object>>> PINNED =
+            new EnumMap<Service, Map<ULocale, List<Object>>>(Service.class);
+
+    private ICUWarmup() {
+    }
+
+    /**
+     * Loads the data of the services for the locales in parallel, on a
+     * temporary pool with one thread per available processor, and waits
+     * until all of it is loaded.
+     *
+     * @param locales the locales to load
+     * @param services the services to load
+     * @return the report of the preload
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static Report preload(Set<ULocale> locales, EnumSet<Service> services) {
+        int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(),
+                locales.size() * services.size()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "ICUWarmup");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        try {
+            return preload(locales, services, executor);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Loads the data of the services for the locales in parallel on the
+     * executor, and waits until all of it is loaded. The executor is not
+     * shut down.
+     * <p>
+     * If the calling thread is interrupted while waiting, the loads which have
+     * not completed yet are cancelled, the interrupt status of the thread is set
+     * again, and the report covers only the loads completed before that.
+     *
+     * @param locales the locales to load
+     * @param services the services to load
+     * @param executor the executor running the loads
+     * @return the report of the preload
+     * @throws RejectedExecutionException if the executor does not accept a load;
+     *         the loads submitted before are cancelled
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static Report preload(Set<ULocale> locales, EnumSet<Service> services, Executor executor) {
+        long start = System.nanoTime();
+        List<LoadTask> tasks = new ArrayList<LoadTask>();
+        List<FutureTask<List<Object>>> futures = new ArrayList<FutureTask<List<Object>>>();
+        for (ULocale locale : locales) {
+            for (Service service : services) {
+                LoadTask task = new LoadTask(service, locale);
+                FutureTask<List<Object>> future = new FutureTask<List<Object>>(task);
+                try {
+                    executor.execute(future);
+                } catch (RejectedExecutionException e) {
+                    // Do not leave the loads submitted so far running behind the caller's back
+                    for (FutureTask<List<Object>> submitted : futures) {
+                        submitted.cancel(true);
+                    }
+                    throw e;
+                }
+                tasks.add(task);
+                futures.add(future);
+            }
+        }
+
+        Report report = new Report();
+        List<List<Object>> loaded = new ArrayList<List<Object>>();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                loaded.add(futures.get(i).get());
+            } catch (InterruptedException e) {
+                // Do not leave loads running or queued behind the caller's back;
+                // report what has been loaded so far
+                for (int j = i; j < futures.size(); j++) {
+                    futures.get(j).cancel(true);
+                }
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                // LoadTask records its own failures; an Error is rethrown here
+                Throwable cause = e.getCause();
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new ICUException(cause);
+            }
+            report.add(tasks.get(i));
+        }
+        synchronized (PINNED) {
+            for (int i = 0; i < loaded.size(); i++) {
+                if (loaded.get(i).isEmpty()) {
+                    continue;
+                }
+                LoadTask task = tasks.get(i);
+                Map<ULocale, List<Object>> servicePinned = PINNED.get(task.service);
+                if (servicePinned == null) {
+                    servicePinned = new HashMap<ULocale, List<Object>>();
+                    PINNED.put(task.service, servicePinned);
+                }
+                servicePinned.put(task.locale, loaded.get(i));
+            }
+        }
+        report.elapsedNanos = System.nanoTime() - start;
+        return report;
+    }
+
+    /**
+     * Releases the resource bundles and time zone names kept reachable by
+     * previous preloads, so that they can be evicted from ICU's caches again.
+     *
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static void unpin() {
+        synchronized (PINNED) {
+            PINNED.clear();
+        }
+    }
+
+    /**
+     * Loads one service for one locale, and records the time spent and a
+     * failure, if any. Returns the objects to be pinned.
+     */
+    private static final class LoadTask implements Callable<List<Object>> {
+        final Service service;
+        final ULocale locale;
+        long nanos;
+        Throwable failure;
+
+        LoadTask(Service service, ULocale locale) {
+            this.service = service;
+            this.locale = locale;
+        }
+
+        public List<Object> call() {
+            List<Object> loaded = new ArrayList<Object>();
+            long start = System.nanoTime();
+            try {
+                load(loaded);
+            } catch (InvocationTargetException e) {
+                failure = e.getCause();
+            } catch (Exception e) {
+                failure = e;
+            }
+            nanos = System.nanoTime() - start;
+            return loaded;
+        }
+
+        private void load(List<Object> loaded) throws Exception {
+            switch (service) {
+            case RESOURCE_BUNDLE:
+                loaded.add(UResourceBundle.getBundleInstance(ICUResourceBundle.ICU_BASE_NAME, locale));
+                loaded.add(UResourceBundle.getBundleInstance(ICUResourceBundle.ICU_ZONE_BASE_NAME, locale));
+                // These trees are in optional data modules
+                String[] optionalBaseNames = {
+                    ICUResourceBundle.ICU_CURR_BASE_NAME,
+                    ICUResourceBundle.ICU_LANG_BASE_NAME,
+                    ICUResourceBundle.ICU_REGION_BASE_NAME,
+                };
+                for (String baseName : optionalBaseNames) {
+                    try {
+                        loaded.add(UResourceBundle.getBundleInstance(baseName, locale));
+                    } catch (MissingResourceException e) {
+                        // not installed
+                    }
+                }
+                break;
+            // The following services return clones of their cached instances.
+            // Holding the clones would not keep the cached data, so they are not pinned.
+            case NUMBER_FORMAT:
+                DecimalFormatSymbols.getInstance(locale);
+                NumberFormat.getInstance(locale);
+                NumberFormat.getCurrencyInstance(locale);
+                NumberFormat.getPercentInstance(locale);
+                break;
+            case DATE_FORMAT:
+                DateFormat.getDateTimeInstance(DateFormat.FULL, DateFormat.FULL, locale);
+                DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT, locale);
+                break;
+            case COLLATION:
+                // The collation classes are not part of the core module
+                Class<?> collatorClass = Class.forName("com.ibm.icu.text.Collator");
+                Method getInstance = collatorClass.getMethod("getInstance", ULocale.class);
+                getInstance.invoke(null, locale);
+                break;
+            case BREAK_ITERATOR:
+                BreakIterator.getCharacterInstance(locale);
+                BreakIterator.getWordInstance(locale);
+                BreakIterator.getLineInstance(locale);
+                BreakIterator.getSentenceInstance(locale);
+                break;
+            case TIME_ZONE_NAMES:
+                TimeZoneNames names = TimeZoneNames.getInstance(locale);
+                names.loadAllDisplayNames();
+                loaded.add(names);
+                break;
+            case PLURAL_RULES:
+                // PluralRulesLoader caches the rules strongly; there is nothing to pin
+                PluralRules.forLocale(locale, PluralType.CARDINAL);
+                PluralRules.forLocale(locale, PluralType.ORDINAL);
+                break;
+            }
+        }
+    }
+}
@@ -1,6 +1,6 @@
 /*
 ******************************************************************************
-* Copyright (C) 2003-2014, International Business Machines Corporation and
+* Copyright (C) 2003-2015, International Business Machines Corporation and
 * others. All Rights Reserved.
 ******************************************************************************
 */
@@ -24,13 +24,12 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
 
-import com.ibm.icu.impl.ICUCache;
+import com.ibm.icu.impl.BoundedConcurrentCache;
 import com.ibm.icu.impl.ICUResourceBundle;
 import com.ibm.icu.impl.ICUResourceTableAccess;
 import com.ibm.icu.impl.LocaleIDParser;
 import com.ibm.icu.impl.LocaleIDs;
 import com.ibm.icu.impl.LocaleUtility;
-import com.ibm.icu.impl.SimpleCache;
 import com.ibm.icu.impl.locale.AsciiUtil;
 import com.ibm.icu.impl.locale.BaseLocale;
 import com.ibm.icu.impl.locale.Extension;
@@ -113,7 +112,8 @@ public final class ULocale implements Serializable, Comparable<ULocale> {
     // using serialver from jdk1.4.2_05
     private static final long serialVersionUID = 3715177670352309217L;
 
-    private static ICUCache<String, String> nameCache = new SimpleCache<String, String>();
+    private static final BoundedConcurrentCache<String, String> nameCache =
+            new BoundedConcurrentCache<String, String>(1024);
 
     /**
      * Useful constant for language.
@@ -303,7 +303,15 @@ public final class ULocale implements Serializable, Comparable<ULocale> {
         FORMAT
     }
 
-    private static final SimpleCache<Locale, ULocale> CACHE = new SimpleCache<Locale, ULocale>();
+    private static final BoundedConcurrentCache<Locale, ULocale> CACHE =
+            new BoundedConcurrentCache<Locale, ULocale>(256);
+
+    /**
+     * Interned instances created from a language tag or a builder, keyed by
+     * the locale ID they were created from.
+     */
+    private static final BoundedConcurrentCache<String, ULocale> INSTANCE_CACHE =
+            new BoundedConcurrentCache<String, ULocale>(256);
 
     /**
      * Cache the locale.
@@ -442,8 +450,7 @@ public final class ULocale implements Serializable, Comparable<ULocale> {
         }
         ULocale result = CACHE.get(loc);
         if (result == null) {
-            result = JDKLocaleHelper.toULocale(loc);
-            CACHE.put(loc, result);
+            result = CACHE.putIfAbsent(loc, JDKLocaleHelper.toULocale(loc));
         }
         return result;
     }
@@ -1115,6 +1122,10 @@ public final class ULocale implements Serializable, Comparable<ULocale> {
      * @stable ICU 3.0
      */
     public static String getName(String localeID){
+        String simpleName = getSimpleName(localeID);
+        if (simpleName != null) {
+            return simpleName;
+        }
         String tmpLocaleID;
         // Convert BCP47 id if necessary
         if (localeID != null && !localeID.contains("@") && getShortestSubtagLength(localeID) == 1) {
@@ -1133,6 +1144,80 @@ public final class ULocale implements Serializable, Comparable<ULocale> {
         return name;
     }
 
+    /**
+     * Returns the full name of a locale ID which only consists of a two letter
+     * language, and optionally a script and a region, each already in canonical case,
+     * such as "en", "en_US", "zh-Hant-TW" or "es-419". Either '_' or '-' may be
+     * used as the separator, but not both. Returns null for any other ID,
+     * which has to go through the parser.
+     */
+    private static String getSimpleName(String localeID) {
+        if (localeID == null) {
+            return null;
+        }
+        int len = localeID.length();
+        int langLen = 0;
+        while (langLen < len && isLowerAlpha(localeID.charAt(langLen))) {
+            langLen++;
+        }
+        if (langLen != 2) {
+            // three letter codes may be mapped to two letter codes by the parser
+            return null;
+        }
+        if (langLen == len) {
+            return localeID;
+        }
+        char sep = localeID.charAt(langLen);
+        if (sep != '_' && sep != '-') {
+            return null;
+        }
+        int start = langLen + 1;
+        int end = localeID.indexOf(sep, start);
+        if (end < 0) {
+            end = len;
+        }
+        if (end - start == 4) {
+            // script
+            if (!isUpperAlpha(localeID.charAt(start)) || !isLowerAlpha(localeID.charAt(start + 1))
+                    || !isLowerAlpha(localeID.charAt(start + 2)) || !isLowerAlpha(localeID.charAt(start + 3))) {
+                return null;
+            }
+            if (end == len) {
+                return sep == '_' ? localeID : localeID.replace(sep, '_');
+            }
+            start = end + 1;
+            end = len;
+        } else if (end != len) {
+            return null;
+        }
+        // region
+        if (end - start == 2) {
+            if (!isUpperAlpha(localeID.charAt(start)) || !isUpperAlpha(localeID.charAt(start + 1))) {
+                return null;
+            }
+        } else if (end - start == 3) {
+            if (!isDigit(localeID.charAt(start)) || !isDigit(localeID.charAt(start + 1))
+                    || !isDigit(localeID.charAt(start + 2))) {
+                return null;
+            }
+        } else {
+            return null;
+        }
+        return sep == '_' ? localeID : localeID.replace(sep, '_');
+    }
+
+    private static boolean isLowerAlpha(char c) {
+        return c >= 'a' && c <= 'z';
+    }
+
+    private static boolean isUpperAlpha(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
     /**
      * Returns a string representation of this object.
      * @stable ICU 3.0
@@ -3296,6 +3381,13 @@ public final class ULocale implements Serializable, Comparable<ULocale> {
      * @stable ICU 4.2
      */
     public static ULocale forLanguageTag(String languageTag) {
+        if (languageTag.indexOf('_') < 0) {
+            // An already canonical tag such as "en-US" maps directly to a locale ID
+            String simpleName = getSimpleName(languageTag);
+            if (simpleName != null) {
+                return intern(simpleName);
+            }
+        }
         LanguageTag tag = LanguageTag.parse(languageTag, null);
         InternalLocaleBuilder bldr = new InternalLocaleBuilder();
         bldr.setLanguageTag(tag);
@@ -3863,7 +3955,18 @@ public final class ULocale implements Serializable, Comparable<ULocale> {
                 id = buf.toString();
             }
         }
-        return new ULocale(id);
+        return intern(id);
+    }
+
+    /**
+     * Returns a shared instance for the locale ID.
+     */
+    private static ULocale intern(String localeID) {
+        ULocale result = INSTANCE_CACHE.get(localeID);
+        if (result == null) {
+            result = INSTANCE_CACHE.putIfAbsent(localeID, new ULocale(localeID));
+        }
+        return result;
     }
 
     private BaseLocale base() {
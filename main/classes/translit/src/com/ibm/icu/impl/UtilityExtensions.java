@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 2002-2010, International Business Machines Corporation and    *
+ * Copyright (C) 2002-2015, International Business Machines Corporation and    *
  * others. All Rights Reserved.                                                *
  *******************************************************************************
  */
@@ -97,7 +97,7 @@ public class UtilityExtensions {
      */
     public static String formatInput(Replaceable input,
                                      Transliterator.Position pos) {
-        return formatInput((ReplaceableString) input, pos);
+        return formatInput(toReplaceableString(input), pos);
     }
 
     /**
@@ -106,7 +106,16 @@ public class UtilityExtensions {
     public static StringBuffer formatInput(StringBuffer appendTo,
                                            Replaceable input,
                                            Transliterator.Position pos) {
-        return formatInput(appendTo, (ReplaceableString) input, pos);
+        return formatInput(appendTo, toReplaceableString(input), pos);
+    }
+
+    private static ReplaceableString toReplaceableString(Replaceable input) {
+        if (input instanceof ReplaceableString) {
+            return (ReplaceableString) input;
+        }
+        char[] chars = new char[input.length()];
+        input.getChars(0, chars.length, chars, 0);
+        return new ReplaceableString(new String(chars));
     }
 
 }
@@ -1,6 +1,6 @@
 /*
 *****************************************************************
-* Copyright (c) 2002-2014, International Business Machines Corporation
+* Copyright (c) 2002-2015, International Business Machines Corporation
 * and others.  All Rights Reserved.
 *****************************************************************
 * Date        Name        Description
@@ -68,7 +68,7 @@ class AnyTransliterator extends Transliterator {
     /**
      * Special code for handling width characters
      */
-    private Transliterator widthFix = Transliterator.getInstance("[[:dt=Nar:][:dt=Wide:]] nfkd");
+    private Transliterator widthFix;
 
     /**
      * Implements {@link Transliterator#handleTransliterate}.
@@ -136,6 +136,7 @@ class AnyTransliterator extends Transliterator {
         super(id, null);
         targetScript = theTargetScript;
         cache = new ConcurrentHashMap<Integer, Transliterator>();
+        widthFix = Transliterator.getInstance("[[:dt=Nar:][:dt=Wide:]] nfkd");
 
         target = theTarget;
         if (theVariant.length() > 0) {
@@ -157,6 +158,7 @@ class AnyTransliterator extends Transliterator {
         super(id, filter);
         targetScript = targetScript2;
         cache = cache2;
+        widthFix = widthFix2;
         target = target2;
     }
 
@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 1996-2010, International Business Machines Corporation and    *
+ * Copyright (C) 1996-2015, International Business Machines Corporation and    *
  * others. All Rights Reserved.                                                *
  *******************************************************************************
  */
@@ -518,6 +518,26 @@ class CompoundTransliterator extends Transliterator {
         setMaximumContextLength(max);
     }
 
+    /**
+     * Returns a copy of this transliterator whose elements are copies of
+     * our elements, or null if some element cannot be copied.  Unlike
+     * safeClone(), the copy does not share any element which a caller
+     * could modify through getElements().
+     * @see Transliterator#copyPrototype
+     */
+    Transliterator copyElements() {
+        Transliterator[] copies = new Transliterator[trans.length];
+        for (int i=0; i<trans.length; ++i) {
+            copies[i] = copyPrototype(trans[i]);
+            if (copies[i] == null) {
+                return null;
+            }
+        }
+        CompoundTransliterator t = new CompoundTransliterator(getID(), getFilter(), copies, numAnonymousRBTs);
+        t.computeMaximumContextLength();
+        return t;
+    }
+
     /**
      * Temporary hack for registry problem. Needs to be replaced by better architecture.
      */
@@ -1,6 +1,6 @@
 /*
 **********************************************************************
-*   Copyright (c) 2002-2010, International Business Machines Corporation
+*   Copyright (c) 2002-2015, International Business Machines Corporation
 *   and others.  All Rights Reserved.
 **********************************************************************
 *   Date        Name        Description
@@ -59,6 +59,15 @@ class FunctionReplacer implements UnicodeReplacer {
         return limit - start;
     }
 
+    /**
+     * UnicodeReplacer API
+     */
+    public void appendReplacement(Replaceable text, StringBuilder dest) {
+        StringBuilder buf = new StringBuilder();
+        replacer.appendReplacement(text, buf);
+        dest.append(translit.transliterate(buf.toString()));
+    }
+
     /**
      * UnicodeReplacer API
      */
@@ -0,0 +1,181 @@
+/*
+ *******************************************************************************
+ * Copyright (C) 2015, International Business Machines Corporation and
+ * others. All Rights Reserved.
+ *******************************************************************************
+ */
+package com.ibm.icu.text;
+
+import com.ibm.icu.impl.UCharacterProperty;
+
+/**
+ * A <code>Replaceable</code> stored in a gap buffer.  The text is kept in a
+ * char array with a gap at the position of the last replacement, so that a
+ * sequence of replacements moving forward through the text, as made by
+ * transliterators, costs time proportional to the length of the text
+ * instead of shifting the rest of the text for each replacement as
+ * <code>ReplaceableString</code> does.
+ *
+ * <p>This class does not support metadata and is not synchronized.
+ */
+final class ReplaceableGapBuffer implements Replaceable {
+    private char[] buf;
+
+    /**
+     * The gap is buf[gapStart..gapLimit-1].  Text offsets before gapStart
+     * map to the same array index; offsets at or after gapStart map to
+     * offset + gapLimit - gapStart.
+     */
+    private int gapStart;
+    private int gapLimit;
+
+    /**
+     * Construct a new object with the given initial contents.
+     * @param str initial contents
+     */
+    public ReplaceableGapBuffer(String str) {
+        int length = str.length();
+        buf = new char[length + Math.max(16, length >> 4)];
+        str.getChars(0, length, buf, 0);
+        gapStart = length;
+        gapLimit = buf.length;
+    }
+
+    /**
+     * Construct a new empty object.
+     */
+    public ReplaceableGapBuffer() {
+        this("");
+    }
+
+    /**
+     * Return the contents of this object as a <code>String</code>.
+     */
+    public String toString() {
+        StringBuilder result = new StringBuilder(length());
+        result.append(buf, 0, gapStart);
+        result.append(buf, gapLimit, buf.length - gapLimit);
+        return result.toString();
+    }
+
+    /**
+     * Return a substring of the given string.
+     */
+    public String substring(int start, int limit) {
+        char[] chars = new char[limit - start];
+        getChars(start, limit, chars, 0);
+        return new String(chars);
+    }
+
+    public int length() {
+        return buf.length - (gapLimit - gapStart);
+    }
+
+    public char charAt(int offset) {
+        if (offset < 0 || offset >= length()) {
+            throw new StringIndexOutOfBoundsException(offset);
+        }
+        return buf[offset < gapStart ? offset : offset + (gapLimit - gapStart)];
+    }
+
+    public int char32At(int offset) {
+        char single = charAt(offset);
+        if (!UTF16.isSurrogate(single)) {
+            return single;
+        }
+        // Look both directions, as UTF16.charAt() does.
+        if (UTF16.isLeadSurrogate(single)) {
+            if (offset + 1 < length()) {
+                char trail = charAt(offset + 1);
+                if (UTF16.isTrailSurrogate(trail)) {
+                    return UCharacterProperty.getRawSupplementary(single, trail);
+                }
+            }
+        } else if (offset > 0) {
+            char lead = charAt(offset - 1);
+            if (UTF16.isLeadSurrogate(lead)) {
+                return UCharacterProperty.getRawSupplementary(lead, single);
+            }
+        }
+        return single;
+    }
+
+    public void getChars(int srcStart, int srcLimit, char dst[], int dstStart) {
+        if (srcStart < 0 || srcStart > srcLimit || srcLimit > length()) {
+            throw new StringIndexOutOfBoundsException(srcStart < 0 ? srcStart : srcLimit);
+        }
+        if (srcStart < gapStart) {
+            int n = Math.min(srcLimit, gapStart) - srcStart;
+            System.arraycopy(buf, srcStart, dst, dstStart, n);
+            srcStart += n;
+            dstStart += n;
+        }
+        if (srcStart < srcLimit) {
+            int gapLength = gapLimit - gapStart;
+            System.arraycopy(buf, srcStart + gapLength, dst, dstStart, srcLimit - srcStart);
+        }
+    }
+
+    public void replace(int start, int limit, String text) {
+        int length = text.length();
+        prepareReplace(start, limit, length);
+        text.getChars(0, length, buf, gapStart);
+        gapStart += length;
+    }
+
+    public void replace(int start, int limit, char[] chars,
+                        int charsStart, int charsLen) {
+        prepareReplace(start, limit, charsLen);
+        System.arraycopy(chars, charsStart, buf, gapStart, charsLen);
+        gapStart += charsLen;
+    }
+
+    public void copy(int start, int limit, int dest) {
+        if (start == limit && start >= 0 && start <= length()) {
+            return;
+        }
+        char[] text = new char[limit - start];
+        getChars(start, limit, text, 0);
+        replace(dest, dest, text, 0, limit - start);
+    }
+
+    public boolean hasMetaData() {
+        return false;
+    }
+
+    /**
+     * Delete text[start..limit-1] by moving the gap to start and widening
+     * it, and make the gap at least insertLength long.
+     */
+    private void prepareReplace(int start, int limit, int insertLength) {
+        if (start < 0 || start > limit || limit > length()) {
+            throw new StringIndexOutOfBoundsException(start < 0 ? start : limit);
+        }
+        moveGap(start);
+        gapLimit += limit - start;
+        if (gapLimit - gapStart < insertLength) {
+            int tailLength = buf.length - gapLimit;
+            int newLength = Math.max(buf.length + (buf.length >> 1),
+                                     gapStart + insertLength + tailLength + 16);
+            char[] newBuf = new char[newLength];
+            System.arraycopy(buf, 0, newBuf, 0, gapStart);
+            System.arraycopy(buf, gapLimit, newBuf, newLength - tailLength, tailLength);
+            buf = newBuf;
+            gapLimit = newLength - tailLength;
+        }
+    }
+
+    /**
+     * Move the gap so that it starts at the given text offset.
+     */
+    private void moveGap(int offset) {
+        int gapLength = gapLimit - gapStart;
+        if (offset < gapStart) {
+            System.arraycopy(buf, offset, buf, offset + gapLength, gapStart - offset);
+        } else if (offset > gapStart) {
+            System.arraycopy(buf, gapLimit, buf, gapStart, offset - gapStart);
+        }
+        gapStart = offset;
+        gapLimit = offset + gapLength;
+    }
+}
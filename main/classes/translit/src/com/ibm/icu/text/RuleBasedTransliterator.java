@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 1996-2014, International Business Machines Corporation and    *
+ * Copyright (C) 1996-2015, International Business Machines Corporation and    *
  * others. All Rights Reserved.                                                *
  *******************************************************************************
  */
@@ -352,18 +352,28 @@ public class RuleBasedTransliterator extends Transliterator {
          * number of characters n, unless n is so large that 16n exceeds a
          * uint32_t.
          */
-        synchronized(data)  {
-            int loopCount = 0;
-            int loopLimit = (index.limit - index.start) << 4;
-            if (loopLimit < 0) {
-                loopLimit = 0x7FFFFFFF;
+        if (data.ruleSet.hasSegments()) {
+            // Segments keep their match positions in the shared data
+            synchronized(data)  {
+                transliterateRules(text, index, incremental);
             }
+        } else {
+            transliterateRules(text, index, incremental);
+        }
+    }
 
-            while (index.start < index.limit &&
-                    loopCount <= loopLimit &&
-                    data.ruleSet.transliterate(text, index, incremental)) {
-                ++loopCount;
-            }
+    private void transliterateRules(Replaceable text,
+                                    Position index, boolean incremental) {
+        int loopCount = 0;
+        int loopLimit = (index.limit - index.start) << 4;
+        if (loopLimit < 0) {
+            loopLimit = 0x7FFFFFFF;
+        }
+
+        while (index.start < index.limit &&
+                loopCount <= loopLimit &&
+                data.ruleSet.transliterate(text, index, incremental)) {
+            ++loopCount;
         }
     }
 
@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 2001-2004, International Business Machines Corporation and    *
+ * Copyright (C) 2001-2015, International Business Machines Corporation and    *
  * others. All Rights Reserved.                                                *
  *******************************************************************************
  */
@@ -209,6 +209,48 @@ class StringMatcher implements UnicodeMatcher, UnicodeReplacer {
         return (m == null) ? ((c & 0xFF) == v) : m.matchesIndexValue(v);
     }
 
+    /**
+     * Union the set of code points which can start a match of this
+     * object into the given set.  Strings in the set of a matcher are
+     * represented by their first code point.
+     * @param toUnionTo the set into which to union the first code points
+     * @return false if this object can match text starting with any
+     * code point, in which case toUnionTo is incomplete
+     */
+    boolean addFirstCharSetTo(UnicodeSet toUnionTo) {
+        if (pattern.length() == 0) {
+            return false;
+        }
+        int c = UTF16.charAt(pattern, 0);
+        UnicodeMatcher m = data.lookupMatcher(c);
+        if (m == null) {
+            toUnionTo.add(c);
+            return true;
+        }
+        if (m instanceof StringMatcher) {
+            return ((StringMatcher) m).addFirstCharSetTo(toUnionTo);
+        }
+        // A matcher which may match the empty string, such as a
+        // quantifier with a zero minimum, matches every index value.
+        int v = 0;
+        while (v < 256 && m.matchesIndexValue(v)) {
+            ++v;
+        }
+        if (v == 256) {
+            return false;
+        }
+        UnicodeSet matchSet = new UnicodeSet();
+        m.addMatchSetTo(matchSet);
+        for (String s : matchSet.strings()) {
+            if (s.length() == 0) {
+                return false;
+            }
+            toUnionTo.add(UTF16.charAt(s, 0));
+        }
+        toUnionTo.addAll(matchSet).removeAllStrings();
+        return true;
+    }
+
     /**
      * Implementation of UnicodeMatcher API.  Union the set of all
      * characters that may be matched by this object into the given
@@ -254,6 +296,19 @@ class StringMatcher implements UnicodeMatcher, UnicodeReplacer {
         return outLen;
     }
 
+    /**
+     * UnicodeReplacer API
+     */
+    public void appendReplacement(Replaceable text, StringBuilder dest) {
+        // If there was no match, that means that a quantifier
+        // matched zero-length.  E.g., x (a)* y matched "xy".
+        if (matchStart >= 0 && matchStart != matchLimit) {
+            char[] chars = new char[matchLimit - matchStart];
+            text.getChars(matchStart, matchLimit, chars, 0);
+            dest.append(chars);
+        }
+    }
+
     /**
      * UnicodeReplacer API
      */
@@ -1,6 +1,6 @@
 /*
 **********************************************************************
-*   Copyright (c) 2002-2007, International Business Machines Corporation
+*   Copyright (c) 2002-2015, International Business Machines Corporation
 *   and others.  All Rights Reserved.
 **********************************************************************
 *   Date        Name        Description
@@ -128,6 +128,18 @@ class StringReplacer implements UnicodeReplacer {
             newStart = cursorPos;
         }
 
+        // Complex processing code for text without out-of-band data :
+        // build the output outside the text and replace the key once.
+        // Temporary text at the end of the string, as below, would move
+        // the gap of a ReplaceableGapBuffer across the rest of the text
+        // several times per replacement.
+        else if (!text.hasMetaData()) {
+            StringBuilder buf = new StringBuilder();
+            newStart = appendOutput(text, buf);
+            text.replace(start, limit, buf.toString());
+            outLen = buf.length();
+        }
+
         // Complex (nested replacers) Processing Code :
         else {
             /* When there are segments to be copied, use the Replaceable.copy()
@@ -259,6 +271,52 @@ class StringReplacer implements UnicodeReplacer {
         return outLen;
     }
 
+    /**
+     * UnicodeReplacer API
+     */
+    public void appendReplacement(Replaceable text, StringBuilder dest) {
+        if (!isComplex) {
+            dest.append(output);
+        } else {
+            appendOutput(text, dest);
+        }
+    }
+
+    /**
+     * Append the output text to dest, with the output of nested
+     * replacers in place of their stand-in characters, and without
+     * modifying text.  Return the cursor position relative to the
+     * start of the appended text, if it is within the output text.
+     * Set isComplex to false if there are no nested replacers.
+     */
+    private int appendOutput(Replaceable text, StringBuilder dest) {
+        int destStart = dest.length();
+        int newStart = 0;
+        boolean complex = false;
+        int oOutput; // offset into 'output'
+        for (oOutput=0; oOutput<output.length(); ) {
+            if (oOutput == cursorPos) {
+                // Record the position of the cursor
+                newStart = dest.length() - destStart;
+            }
+            int c = UTF16.charAt(output, oOutput);
+            UnicodeReplacer r = data.lookupReplacer(c);
+            if (r == null) {
+                dest.appendCodePoint(c);
+            } else {
+                complex = true;
+                r.appendReplacement(text, dest);
+            }
+            oOutput += UTF16.getCharCount(c);
+        }
+        if (oOutput == cursorPos) {
+            // Record the position of the cursor
+            newStart = dest.length() - destStart;
+        }
+        isComplex = complex;
+        return newStart;
+    }
+
     /**
      * UnicodeReplacer API
      */
@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 1996-2010, International Business Machines Corporation and    *
+ * Copyright (C) 1996-2015, International Business Machines Corporation and    *
  * others. All Rights Reserved.                                                *
  *******************************************************************************
  */
@@ -261,6 +261,23 @@ class TransliterationRule {
         return (m != null) ? m.matchesIndexValue(v) : true;
     }
 
+    /**
+     * Internal method.  Returns the set of code points with which the
+     * text at the start position must begin for this rule to match or
+     * partially match.  These are the first code points of the key, or
+     * of the post context if there is no key.  Returns null if the rule
+     * can match text beginning with any code point.
+     */
+    final UnicodeSet getFirstCharSet() {
+        // Delegate to the key, or if there is none, to the postContext.
+        StringMatcher m = (key != null) ? key : postContext;
+        if (m == null) {
+            return null;
+        }
+        UnicodeSet set = new UnicodeSet();
+        return m.addFirstCharSetTo(set) ? set : null;
+    }
+
     /**
      * Return true if this rule masks another rule.  If r1 masks r2 then
      * r1 matches any input string that r2 matches.  If r1 masks r2 and r2 masks
@@ -1,14 +1,20 @@
 /*
  *******************************************************************************
- * Copyright (C) 1996-2010, International Business Machines Corporation and    *
+ * Copyright (C) 1996-2015, International Business Machines Corporation and    *
  * others. All Rights Reserved.                                                *
  *******************************************************************************
  */
 package com.ibm.icu.text;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import com.ibm.icu.impl.Trie2;
+import com.ibm.icu.impl.Trie2Writable;
 import com.ibm.icu.impl.UtilityExtensions;
 
 /**
@@ -37,19 +43,27 @@ class TransliterationRuleSet {
     private int maxContextLength;
 
     /**
-     * Sorted and indexed table of rules.  This is created by freeze() from
-     * the rules in ruleVector.  rules.length >= ruleVector.size(), and the
-     * references in rules[] are aliases of the references in ruleVector.
-     * A single rule in ruleVector is listed one or more times in rules[].
+     * Candidate rule lists.  For text having a first code point c, try the
+     * rules in candidates[dispatch.get(c)], in order.  Each list contains,
+     * in their original order, the rules in ruleVector which can match text
+     * starting with c.  candidates[0] lists the rules which can match text
+     * starting with any code point.  The lists are created by freeze(), and
+     * a single rule in ruleVector may be listed in many of them.
      */
-    private TransliterationRule[] rules;
+    private TransliterationRule[][] candidates;
 
     /**
-     * Index table.  For text having a first character c, compute x = c&0xFF.
-     * Now use rules[index[x]..index[x+1]-1].  This index table is created by
-     * freeze().
+     * Maps each code point to its index in candidates.  This trie is
+     * created by freeze().
      */
-    private int[] index;
+    private Trie2 dispatch;
+
+    /**
+     * True if any rule has segments.  Segments hold the position of
+     * their last match, so such a rule set must not be used by several
+     * threads at the same time.
+     */
+    private boolean hasSegments;
 
     /**
      * Construct a new empty rule set.
@@ -67,6 +81,15 @@ class TransliterationRuleSet {
         return maxContextLength;
     }
 
+    /**
+     * Return true if any rule in this set has segments.  Such rules keep
+     * match state between matching and replacing, so callers must
+     * serialize calls to transliterate().
+     */
+    public boolean hasSegments() {
+        return hasSegments;
+    }
+
     /**
      * Add a rule to this set.  Rules are added in order, and order is
      * significant.
@@ -74,12 +97,15 @@ class TransliterationRuleSet {
      */
     public void addRule(TransliterationRule rule) {
         ruleVector.add(rule);
+        if (rule.segments != null) {
+            hasSegments = true;
+        }
         int len;
         if ((len = rule.getAnteContextLength()) > maxContextLength) {
             maxContextLength = len;
         }
 
-        rules = null;
+        candidates = null;
     }
 
     /**
@@ -105,7 +131,7 @@ class TransliterationRuleSet {
          * a set containing the index value as their first character.
          */
         int n = ruleVector.size();
-        index = new int[257]; // [sic]
+        int[] index = new int[257]; // [sic]
         List<TransliterationRule> v = new ArrayList<TransliterationRule>(2*n); // heuristic; adjust as needed
 
         /* Precompute the index values.  This saves a LOT of time.
@@ -138,7 +164,7 @@ class TransliterationRuleSet {
 
         /* Freeze things into an array.
          */
-        rules = new TransliterationRule[v.size()];
+        TransliterationRule[] rules = new TransliterationRule[v.size()];
         v.toArray(rules);
 
         StringBuilder errors = null;
@@ -170,6 +196,99 @@ class TransliterationRuleSet {
         if (errors != null) {
             throw new IllegalArgumentException(errors.toString());
         }
+
+        buildDispatch();
+    }
+
+    /**
+     * Build the candidate lists and the dispatch trie.  The 256 bins
+     * above are shared by all code points with the same low byte, so
+     * with many rules for ideographs or other large scripts each bin
+     * holds a large number of rules of which only few can match.
+     * Instead, we index the rules by the full first code point.
+     *
+     * Each rule contributes the ranges of its first-character set.
+     * Sweeping over the sorted range boundaries yields the set of
+     * active rules for each span of code points.  Equal rule sets are
+     * shared, so the number of distinct lists stays small.
+     */
+    private void buildDispatch() {
+        int n = ruleVector.size();
+        BitSet anyRules = new BitSet(n);
+        List<long[]> events = new ArrayList<long[]>();
+        int eventCount = 0;
+        for (int j=0; j<n; ++j) {
+            UnicodeSet first = ruleVector.get(j).getFirstCharSet();
+            if (first == null) {
+                anyRules.set(j);
+                continue;
+            }
+            int rangeCount = first.getRangeCount();
+            long[] e = new long[2*rangeCount];
+            for (int i=0; i<rangeCount; ++i) {
+                // Encode (code point, rule, start/end) so that sorting
+                // orders the events by code point.
+                e[2*i] = ((long)first.getRangeStart(i) << 32) | ((long)j << 1) | 1;
+                e[2*i+1] = ((long)(first.getRangeEnd(i) + 1) << 32) | ((long)j << 1);
+            }
+            events.add(e);
+            eventCount += e.length;
+        }
+        long[] sorted = new long[eventCount];
+        int k = 0;
+        for (long[] e : events) {
+            System.arraycopy(e, 0, sorted, k, e.length);
+            k += e.length;
+        }
+        Arrays.sort(sorted);
+
+        List<TransliterationRule[]> lists = new ArrayList<TransliterationRule[]>();
+        Map<BitSet, Integer> listIndex = new HashMap<BitSet, Integer>();
+        lists.add(toRuleArray(anyRules));
+        listIndex.put(anyRules, 0);
+
+        Trie2Writable trie = new Trie2Writable(0, 0);
+        BitSet active = (BitSet)anyRules.clone();
+        for (int i=0; i<eventCount;) {
+            int start = (int)(sorted[i] >>> 32);
+            do {
+                int j = (int)sorted[i] >>> 1;
+                if ((sorted[i] & 1) != 0) {
+                    active.set(j);
+                } else {
+                    active.clear(j);
+                }
+            } while (++i<eventCount && (int)(sorted[i] >>> 32) == start);
+            if (i == eventCount) {
+                // The last event ends the last range; the remaining code
+                // points keep the initial value.
+                break;
+            }
+            Integer id = listIndex.get(active);
+            if (id == null) {
+                id = lists.size();
+                BitSet key = (BitSet)active.clone();
+                lists.add(toRuleArray(key));
+                listIndex.put(key, id);
+            }
+            if (id != 0) {
+                int end = (int)(sorted[i] >>> 32) - 1;
+                trie.setRange(start, end, id, true);
+            }
+        }
+
+        candidates = new TransliterationRule[lists.size()][];
+        lists.toArray(candidates);
+        dispatch = (candidates.length <= 0xFFFF) ? trie.toTrie2_16() : trie.toTrie2_32();
+    }
+
+    private TransliterationRule[] toRuleArray(BitSet set) {
+        TransliterationRule[] result = new TransliterationRule[set.cardinality()];
+        int k = 0;
+        for (int j=set.nextSetBit(0); j>=0; j=set.nextSetBit(j+1)) {
+            result[k++] = ruleVector.get(j);
+        }
+        return result;
     }
 
     /**
@@ -188,8 +307,8 @@ class TransliterationRuleSet {
     public boolean transliterate(Replaceable text,
                                  Transliterator.Position pos,
                                  boolean incremental) {
-        int indexByte = text.char32At(pos.start) & 0xFF;
-        for (int i=index[indexByte]; i<index[indexByte+1]; ++i) {
+        TransliterationRule[] rules = candidates[dispatch.get(text.char32At(pos.start))];
+        for (int i=0; i<rules.length; ++i) {
             int m = rules[i].matchAndReplace(text, pos, incremental);
             switch (m) {
             case UnicodeMatcher.U_MATCH:
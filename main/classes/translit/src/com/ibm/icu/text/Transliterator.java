@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 1996-2014, International Business Machines Corporation and    *
+ * Copyright (C) 1996-2015, International Business Machines Corporation and    *
  * others. All Rights Reserved.                                                *
  *******************************************************************************
  */
@@ -16,6 +16,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.MissingResourceException;
 
+import com.ibm.icu.impl.BoundedConcurrentCache;
 import com.ibm.icu.impl.ICUResourceBundle;
 import com.ibm.icu.impl.Utility;
 import com.ibm.icu.impl.UtilityExtensions;
@@ -184,6 +185,12 @@ import com.ibm.icu.util.UResourceBundle;
  * are stateless, multiple calls to <code>getInstance()</code> with the same ID will return the same object.
  * 
  * <p>
+ * The parsed IDs and the immutable parts of rule-based transliterators are cached internally, so that repeated
+ * calls to <code>getInstance()</code> are cheap. A transliterator returned by <code>getInstance()</code> may be
+ * shared among threads, each calling <code>transliterate()</code> on its own <code>Replaceable</code>, as long as
+ * no thread changes it, for example with <code>setFilter()</code>.
+ * 
+ * <p>
  * In addition to the system transliterators registered at startup, user transliterators may be registered by calling
  * <code>registerInstance()</code> at run time. To register a transliterator subclass without instantiating it (until it
  * is needed), users may call <code>registerClass()</code>.
@@ -432,11 +439,50 @@ public abstract class Transliterator implements StringTransform  {
 
     private int maximumContextLength = 0;
 
+    /**
+     * Length of the chunks of text fed to the transliterator by
+     * transliterateStreaming().
+     */
+    private static final int STREAM_CHUNK_LENGTH = 1024;
+
+    /**
+     * Minimum length of the preceding context kept by
+     * transliterateStreaming().
+     */
+    private static final int STREAM_CONTEXT_LENGTH = 256;
+
     /**
      * System transliterator registry.
      */
     private static TransliteratorRegistry registry;
 
+    /**
+     * Cache of parsed compound IDs, keyed by direction and ID.
+     */
+    private static final BoundedConcurrentCache<String, ParsedID> PARSED_ID_CACHE =
+        new BoundedConcurrentCache<String, ParsedID>(256);
+
+    /**
+     * Cache of basic transliterators, keyed by basic ID.  The values are
+     * prototypes, which are never handed out; getBasicInstance() returns
+     * copies of them which share their immutable parts.
+     */
+    private static final BoundedConcurrentCache<String, Transliterator> PROTOTYPE_CACHE =
+        new BoundedConcurrentCache<String, Transliterator>(256);
+
+    /**
+     * Lock for adding entries to the caches and for clearing them.
+     */
+    private static final Object CACHE_LOCK = new Object();
+
+    /**
+     * Incremented by clearInstanceCaches().  An entry computed from the
+     * registry is only added to a cache if the generation has not changed
+     * since the lookup, otherwise it may reflect the registry as it was
+     * before a concurrent registration.
+     */
+    private static volatile int cacheGeneration;
+
     private static Map<CaseInsensitiveString, String> displayNameCache;
 
     /**
@@ -549,11 +595,151 @@ public abstract class Transliterator implements StringTransform  {
      * @stable ICU 2.0
      */
     public final String transliterate(String text) {
-        ReplaceableString result = new ReplaceableString(text);
+        ReplaceableGapBuffer result = new ReplaceableGapBuffer(text);
         transliterate(result);
         return result.toString();
     }
 
+    /**
+     * Transliterates a string in a single streaming pass.  The text is read
+     * in chunks.  For a compound transliterator, each element works on the
+     * output of the previous element as soon as that output can no longer
+     * change, so that each chunk passes through all the elements before the
+     * next chunk is read, and no element works on the whole text.  Output
+     * that all elements are done with is moved out of the working buffer.
+     * This keeps the working buffer short for long texts.
+     *
+     * <p>The result is the same as that of {@link #transliterate(String)},
+     * as long as each element only commits text in incremental mode (see
+     * {@link #handleTransliterate}) that would not change with more input,
+     * and needs no more preceding context than its
+     * {@link #getMaximumContextLength()} in code points.  Elements may have
+     * filters of their own.  A compound transliterator with a filter on the
+     * whole compound, a transliterator with an element from any script to a
+     * target script (such as Any-Latin), which picks a transliterator for
+     * each script run of its text, or a short text, is transliterated with
+     * {@link #transliterate(String)}.
+     *
+     * @param text the string to be transliterated
+     * @return the transliterated text
+     * @draft ICU 55
+     * @provisional This API might change or be removed in a future release.
+     */
+    public final String transliterateStreaming(String text) {
+        int length = text.length();
+        List<Transliterator> list = new ArrayList<Transliterator>();
+        if (length <= STREAM_CHUNK_LENGTH || !addStreamingElements(list)) {
+            return transliterate(text);
+        }
+        int n = list.size();
+        Transliterator[] elements = list.toArray(new Transliterator[n]);
+
+        // done[j] is the end of the text which element j has committed.
+        // Element j+1 works on the text between done[j+1] and done[j], less
+        // the context which elements 0..j still need before their done[]
+        // positions, so that no element sees preceding context changed by
+        // a later element.  Context lengths are in code points; we hold back
+        // two code units per code point.
+        int[] done = new int[n];
+        int[] context = new int[n];
+        int maxContext = STREAM_CONTEXT_LENGTH;
+        for (int j = 0; j < n; ++j) {
+            context[j] = 2 * elements[j].getMaximumContextLength();
+            maxContext = Math.max(maxContext, context[j]);
+        }
+
+        StringBuilder result = new StringBuilder(length);
+        ReplaceableGapBuffer buffer = new ReplaceableGapBuffer();
+        Position pos = new Position();
+        for (int i = 0; i < length;) {
+            int end = Math.min(i + STREAM_CHUNK_LENGTH, length);
+            if (end < length && UTF16.isLeadSurrogate(text.charAt(end - 1))) {
+                // Do not split a surrogate pair
+                ++end;
+            }
+            buffer.replace(buffer.length(), buffer.length(), text.substring(i, end));
+            i = end;
+
+            for (int j = 0; j < n; ++j) {
+                int limit = buffer.length();
+                for (int k = 0; k < j; ++k) {
+                    limit = Math.min(limit, done[k] - context[k]);
+                }
+                if (limit > 0 && limit < buffer.length() &&
+                    UTF16.isTrailSurrogate(buffer.charAt(limit))) {
+                    --limit;
+                }
+                if (limit <= done[j]) {
+                    continue;
+                }
+                pos.contextStart = 0;
+                pos.start = done[j];
+                pos.limit = pos.contextLimit = limit;
+                elements[j].filteredTransliterate(buffer, pos, true);
+                int delta = pos.limit - limit;
+                for (int k = 0; k < j; ++k) {
+                    done[k] += delta;
+                }
+                done[j] = pos.start;
+            }
+
+            // Flush the text which all elements are done with, except for
+            // their preceding context.  Only flush larger pieces, so that
+            // the remaining text is shifted rarely.
+            int flush = done[n - 1] - maxContext;
+            if (flush >= STREAM_CHUNK_LENGTH) {
+                if (UTF16.isTrailSurrogate(buffer.charAt(flush))) {
+                    --flush;
+                }
+                result.append(buffer.substring(0, flush));
+                buffer.replace(0, flush, "");
+                for (int j = 0; j < n; ++j) {
+                    done[j] -= flush;
+                }
+            }
+        }
+
+        // No more input: let each element finish in turn.
+        for (int j = 0; j < n; ++j) {
+            pos.contextStart = 0;
+            pos.start = done[j];
+            pos.limit = pos.contextLimit = buffer.length();
+            elements[j].filteredTransliterate(buffer, pos, false);
+        }
+        return result.append(buffer.toString()).toString();
+    }
+
+    /**
+     * Add the elements of this transliterator to the list, flattening
+     * nested compound transliterators.  Return false if this transliterator,
+     * or a nested compound transliterator, is a compound with a filter.
+     * Such a filter applies to the input of the whole compound, which is
+     * not available to its elements in the pipeline.  The filter of a
+     * single element applies to that element's input, and
+     * filteredTransliterate() handles it incrementally.
+     * Also return false for an AnyTransliterator element.  It runs a
+     * compound transliterator per script run, and which text belongs to the
+     * last run depends on how much of the text has been read.
+     */
+    private boolean addStreamingElements(List<Transliterator> list) {
+        if (this instanceof AnyTransliterator) {
+            return false;
+        } else if (this instanceof CompoundTransliterator) {
+            if (filter != null) {
+                return false;
+            }
+            CompoundTransliterator cpd = (CompoundTransliterator) this;
+            for (int i=0; i<cpd.getCount(); ++i) {
+                if (!cpd.getTransliterator(i).addStreamingElements(list)) {
+                    return false;
+                }
+            }
+        } else {
+            list.add(this);
+        }
+        return true;
+    }
+
     /**
      * Transliterates the portion of the text buffer that can be
      * transliterated unambiguosly after new text has been inserted,
@@ -1343,12 +1529,9 @@ public abstract class Transliterator implements StringTransform  {
      */
     public static Transliterator getInstance(String ID,
                                              int dir) {
-        StringBuffer canonID = new StringBuffer();
-        List<SingleID> list = new ArrayList<SingleID>();
-        UnicodeSet[] globalFilter = new UnicodeSet[1];
-        if (!TransliteratorIDParser.parseCompoundID(ID, dir, canonID, list, globalFilter)) {
-            throw new IllegalArgumentException("Invalid ID " + ID);
-        }
+        ParsedID parsed = parseID(ID, dir);
+        List<SingleID> list = parsed.list;
+        String canonID = parsed.canonID;
 
         List<Transliterator> translits = TransliteratorIDParser.instantiateList(list);
 
@@ -1366,13 +1549,86 @@ public abstract class Transliterator implements StringTransform  {
             t = translits.get(0);
         }
 
-        t.setID(canonID.toString());
-        if (globalFilter[0] != null) {
-            t.setFilter(globalFilter[0]);
+        t.setID(canonID);
+        if (parsed.globalFilter != null) {
+            t.setFilter(parsed.globalFilter);
         }
         return t;
     }
 
+    /**
+     * The result of parsing a compound ID.  Instances are cached and
+     * must not be modified.
+     */
+    private static final class ParsedID {
+        final String canonID;
+        final List<SingleID> list;
+        final UnicodeSet globalFilter;
+
+        ParsedID(String canonID, List<SingleID> list, UnicodeSet globalFilter) {
+            this.canonID = canonID;
+            this.list = list;
+            this.globalFilter = globalFilter;
+        }
+    }
+
+    /**
+     * Parse a compound ID, or return the cached result of an earlier parse.
+     * @exception IllegalArgumentException if the given ID is invalid.
+     */
+    private static ParsedID parseID(String ID, int dir) {
+        String key = (dir == FORWARD ? "F" : "R") + ID;
+        ParsedID parsed = PARSED_ID_CACHE.get(key);
+        if (parsed == null) {
+            int generation = cacheGeneration;
+            StringBuffer canonID = new StringBuffer();
+            List<SingleID> list = new ArrayList<SingleID>();
+            UnicodeSet[] globalFilter = new UnicodeSet[1];
+            if (!TransliteratorIDParser.parseCompoundID(ID, dir, canonID, list, globalFilter)) {
+                throw new IllegalArgumentException("Invalid ID " + ID);
+            }
+            if (globalFilter[0] != null) {
+                globalFilter[0].freeze();
+            }
+            parsed = new ParsedID(canonID.toString(), list, globalFilter[0]);
+            synchronized (CACHE_LOCK) {
+                if (generation == cacheGeneration) {
+                    PARSED_ID_CACHE.put(key, parsed);
+                }
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Return a copy of a cached prototype which shares the immutable parts
+     * of the prototype, or null if the transliterator cannot be copied this
+     * way.  Only rule-based, Any, and compound transliterators built from
+     * these are copied; other transliterators are cheap to instantiate.
+     */
+    static Transliterator copyPrototype(Transliterator t) {
+        if (t instanceof RuleBasedTransliterator) {
+            return ((RuleBasedTransliterator) t).safeClone();
+        } else if (t instanceof AnyTransliterator) {
+            return ((AnyTransliterator) t).safeClone();
+        } else if (t instanceof CompoundTransliterator) {
+            return ((CompoundTransliterator) t).copyElements();
+        }
+        return null;
+    }
+
+    /**
+     * Clear the caches of parsed IDs and prototypes.  Called whenever the
+     * registry changes, after the change.
+     */
+    private static void clearInstanceCaches() {
+        synchronized (CACHE_LOCK) {
+            ++cacheGeneration;
+            PARSED_ID_CACHE.clear();
+            PROTOTYPE_CACHE.clear();
+        }
+    }
+
     /**
      * Create a transliterator from a basic ID.  This is an ID
      * containing only the forward direction source, target, and
@@ -1384,12 +1640,28 @@ public abstract class Transliterator implements StringTransform  {
      * invalid.
      */
     static Transliterator getBasicInstance(String id, String canonID) {
-        StringBuffer s = new StringBuffer();
-        Transliterator t = registry.get(id, s);
-        if (s.length() != 0) {
-            // assert(t==0);
-            // Instantiate an alias
-            t = getInstance(s.toString(), FORWARD);
+        Transliterator t = null;
+        Transliterator prototype = PROTOTYPE_CACHE.get(id);
+        if (prototype != null) {
+            t = copyPrototype(prototype);
+        } else {
+            int generation = cacheGeneration;
+            StringBuffer s = new StringBuffer();
+            t = registry.get(id, s);
+            if (s.length() != 0) {
+                // assert(t==0);
+                // Instantiate an alias
+                t = getInstance(s.toString(), FORWARD);
+            }
+            if (t != null) {
+                // Keep a private copy, since the caller may modify t
+                Transliterator copy = copyPrototype(t);
+                synchronized (CACHE_LOCK) {
+                    if (generation == cacheGeneration) {
+                        PROTOTYPE_CACHE.put(id, copy);
+                    }
+                }
+            }
         }
         if (t != null && canonID != null) {
             t.setID(canonID);
@@ -1708,6 +1980,7 @@ public abstract class Transliterator implements StringTransform  {
      */
     public static void registerClass(String ID, Class<? extends Transliterator> transClass, String displayName) {
         registry.put(ID, transClass, true);
+        clearInstanceCaches();
         if (displayName != null) {
             displayNameCache.put(new CaseInsensitiveString(ID), displayName);
         }
@@ -1727,6 +2000,7 @@ public abstract class Transliterator implements StringTransform  {
      */
     public static void registerFactory(String ID, Factory factory) {
         registry.put(ID, factory, true);
+        clearInstanceCaches();
     }
 
     /**
@@ -1741,6 +2015,7 @@ public abstract class Transliterator implements StringTransform  {
      */
     public static void registerInstance(Transliterator trans) {
         registry.put(trans.getID(), trans, true);
+        clearInstanceCaches();
     }
 
     /**
@@ -1755,6 +2030,7 @@ public abstract class Transliterator implements StringTransform  {
      */
     static void registerInstance(Transliterator trans, boolean visible) {
         registry.put(trans.getID(), trans, visible);
+        clearInstanceCaches();
     }
 
     /**
@@ -1772,6 +2048,7 @@ public abstract class Transliterator implements StringTransform  {
      */
     public static void registerAlias(String aliasID, String realID) {
         registry.put(aliasID, realID, true);
+        clearInstanceCaches();
     }
 
     /**
@@ -1810,6 +2087,7 @@ public abstract class Transliterator implements StringTransform  {
                                        String inverseTarget,
                                        boolean bidirectional) {
         TransliteratorIDParser.registerSpecialInverse(target, inverseTarget, bidirectional);
+        clearInstanceCaches();
     }
 
     /**
@@ -1823,6 +2101,7 @@ public abstract class Transliterator implements StringTransform  {
     public static void unregister(String ID) {
         displayNameCache.remove(new CaseInsensitiveString(ID));
         registry.remove(ID);
+        clearInstanceCaches();
     }
 
     /**
@@ -1,6 +1,6 @@
 /*
 **********************************************************************
-*   Copyright (c) 2001-2011, International Business Machines
+*   Copyright (c) 2001-2015, International Business Machines
 *   Corporation and others.  All Rights Reserved.
 **********************************************************************
 *   Date        Name        Description
@@ -13,12 +13,12 @@ package com.ibm.icu.text;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.MissingResourceException;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.ibm.icu.impl.ICUResourceBundle;
 import com.ibm.icu.impl.LocaleUtility;
@@ -289,8 +289,8 @@ class TransliteratorRegistry {
     //----------------------------------------------------------------------
 
     public TransliteratorRegistry() {
-        registry = Collections.synchronizedMap(new HashMap<CaseInsensitiveString, Object[]>());
-        specDAG = Collections.synchronizedMap(new HashMap<CaseInsensitiveString, Map<CaseInsensitiveString, List<CaseInsensitiveString>>>());
+        registry = new ConcurrentHashMap<CaseInsensitiveString, Object[]>();
+        specDAG = new ConcurrentHashMap<CaseInsensitiveString, Map<CaseInsensitiveString, List<CaseInsensitiveString>>>();
         availableIDs = new ArrayList<CaseInsensitiveString>();
     }
 
@@ -542,7 +542,7 @@ class TransliteratorRegistry {
         CaseInsensitiveString civar = new CaseInsensitiveString(variant);
         Map<CaseInsensitiveString, List<CaseInsensitiveString>> targets = specDAG.get(cisrc);
         if (targets == null) {
-            targets = Collections.synchronizedMap(new HashMap<CaseInsensitiveString, List<CaseInsensitiveString>>());
+            targets = new ConcurrentHashMap<CaseInsensitiveString, List<CaseInsensitiveString>>();
             specDAG.put(cisrc, targets);
         }
         List<CaseInsensitiveString> variants = targets.get(citrg);
@@ -1,9 +1,10 @@
 /*
- * Copyright (C) 1996-2010, International Business Machines Corporation and
+ * Copyright (C) 1996-2015, International Business Machines Corporation and
  * others. All Rights Reserved.
  */
 package com.ibm.icu.text;
-import com.ibm.icu.lang.UCharacter;
+import com.ibm.icu.impl.UCharacterName;
+import com.ibm.icu.impl.UCharacterNameChoice;
 
 /**
  * A transliterator that performs character to name mapping.
@@ -47,14 +48,13 @@ class UnicodeNameTransliterator extends Transliterator {
         StringBuilder str = new StringBuilder();
         str.append(OPEN_DELIM);
         int len;
-        String name;
         
         while (cursor < limit) {
             int c = text.char32At(cursor);
-            if ((name=UCharacter.getExtendedName(c)) != null) {
-                
-                str.setLength(OPEN_DELIM_LEN);
-                str.append(name).append(CLOSE_DELIM);
+            str.setLength(OPEN_DELIM_LEN);
+            if (UCharacterName.INSTANCE.appendName(c,
+                    UCharacterNameChoice.EXTENDED_CHAR_NAME, str)) {
+                str.append(CLOSE_DELIM);
 
                 int clen = UTF16.getCharCount(c);
                 text.replace(cursor, cursor+clen, str.toString());
@@ -7,9 +7,14 @@
 
 package com.ibm.icu.dev.test.charset;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
@@ -25,6 +30,7 @@ import java.util.Set;
 import java.util.SortedMap;
 
 import com.ibm.icu.charset.CharsetCallback;
+import com.ibm.icu.charset.CharsetChannelCodec;
 import com.ibm.icu.charset.CharsetDecoderICU;
 import com.ibm.icu.charset.CharsetEncoderICU;
 import com.ibm.icu.charset.CharsetICU;
@@ -5450,7 +5456,64 @@ public class TestCharset extends TestFmwk {
             errln("Exception while converting BOCU-1 thrown: " + e);
         }
     }
-    
+
+    /*
+     * Round-trip text through CharsetChannelCodec with small buffers, which
+     * split multi-byte sequences and surrogate pairs, and check that it
+     * matches converting the whole text at once.
+     */
+    public void TestChannelCodec() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; sb.length() < 5000; ++i) {
+            sb.append("abc ").append(i).append(" \u00E9\u00DF\u0430\u0431 \u3042\u3044\u4E00\u4E01 ");
+            // supplementary characters in the same extended SCSU window
+            sb.append("\uD82B\uDF5D\uD836\uDC38\uD836\uDFDD\uD801\uDC00x\uD801\uDC01 ");
+        }
+        String text = sb.toString();
+        CharsetProviderICU provider = new CharsetProviderICU();
+        String[] names = { "SCSU", "BOCU-1" };
+        for (int i = 0; i < names.length; ++i) {
+            Charset charset = provider.charsetForName(names[i]);
+            for (int capacity = 16; capacity <= 64; capacity += 48) {
+                CharsetChannelCodec codec = new CharsetChannelCodec(charset, capacity, capacity == 16);
+                try {
+                    ByteArrayOutputStream whole = new ByteArrayOutputStream();
+                    codec.encode(text, Channels.newChannel(whole));
+
+                    // encode in pieces which split surrogate pairs,
+                    // and decode another text in the middle
+                    ByteArrayOutputStream pieces = new ByteArrayOutputStream();
+                    WritableByteChannel channel = Channels.newChannel(pieces);
+                    for (int start = 0; start < text.length();) {
+                        int limit = Math.min(start + 7, text.length());
+                        codec.encode(CharBuffer.wrap(text, start, limit), limit == text.length(), channel);
+                        start = limit;
+                        if (start == 7 * 300) {
+                            StringBuilder interleaved = new StringBuilder();
+                            codec.decode(Channels.newChannel(new ByteArrayInputStream(whole.toByteArray())),
+                                         interleaved);
+                            if (!interleaved.toString().equals(text)) {
+                                errln(names[i] + " CharsetChannelCodec.decode() during encoding does not round-trip");
+                            }
+                        }
+                    }
+
+                    ByteBuffer expected = charset.newEncoder().encode(CharBuffer.wrap(text));
+                    if (!ByteBuffer.wrap(whole.toByteArray()).equals(expected)) {
+                        errln(names[i] + " CharsetChannelCodec.encode() differs from CharsetEncoder.encode()");
+                    }
+                    StringBuilder result = new StringBuilder();
+                    codec.decode(Channels.newChannel(new ByteArrayInputStream(pieces.toByteArray())), result);
+                    if (!result.toString().equals(text)) {
+                        errln(names[i] + " CharsetChannelCodec does not round-trip, capacity " + capacity);
+                    }
+                } catch (IOException e) {
+                    errln(names[i] + " CharsetChannelCodec threw " + e);
+                }
+            }
+        }
+    }
+
     /* Test that ICU4C and ICU4J get the same ICU canonical name when given the same alias. */
     public void TestICUCanonicalNameConsistency() {
         String[] alias = {
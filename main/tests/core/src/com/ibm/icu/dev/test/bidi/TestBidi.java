@@ -1,6 +1,6 @@
 /*
 *******************************************************************************
-*   Copyright (C) 2007-2013, International Business Machines
+*   Copyright (C) 2007-2015, International Business Machines
 *   Corporation and others.  All Rights Reserved.
 *******************************************************************************
 */
@@ -570,6 +570,65 @@ public class TestBidi extends BidiTest {
         assertEquals("\nWrong direction through fast detection #15", Bidi.RTL, Bidi.getBaseDirection(lastHebrewOthersEnglishDigit));
     }
 
+    public void testReusedBidi() {
+        // One Bidi object for many short strings, in varying lengths, must give
+        // the same results as a fresh object for each string.
+        String[] texts = {
+            "abc def",
+            "\u05d0\u05d1\u05d2 123 abc",
+            "a",
+            "Hello, world! 42 \u0301\u00ad\t(x)",
+            "abc \u05d0\u05d1 (\u05d2)\ndef \u0663\u0664",
+            "",
+            "\u202bab\u202c cd",
+            "plain ASCII text that is a bit longer than the others, 1+2=3",
+            "xy"
+        };
+        byte[] paraLevels = { 0, 1, Bidi.LEVEL_DEFAULT_LTR, Bidi.LEVEL_DEFAULT_RTL };
+        int[] options = { 0, Bidi.DO_MIRRORING, Bidi.OUTPUT_REVERSE, Bidi.REMOVE_BIDI_CONTROLS };
+        Bidi reused = new Bidi();
+        char[] dest = new char[100];
+        for (int i = 0; i < paraLevels.length; ++i) {
+            for (int j = 0; j < texts.length; ++j) {
+                String text = texts[j];
+                String msg = "text #" + j + " paraLevel " + paraLevels[i];
+                Bidi fresh = new Bidi();
+                fresh.setPara(text, paraLevels[i], null);
+                reused.setPara(text, paraLevels[i], null);
+                assertEquals(msg + " direction", fresh.getDirection(), reused.getDirection());
+                assertEquals(msg + " paraLevel", fresh.getParaLevel(), reused.getParaLevel());
+                assertEquals(msg + " runs", fresh.countRuns(), reused.countRuns());
+                assertEquals(msg + " levels", Arrays.toString(fresh.getLevels()),
+                             Arrays.toString(reused.getLevels()));
+                for (int k = 0; k < options.length; ++k) {
+                    String expected = fresh.writeReordered(options[k]);
+                    assertEquals(msg + " writeReordered", expected,
+                                 reused.writeReordered(options[k]));
+                    StringBuilder sb = new StringBuilder("<");
+                    assertEquals(msg + " writeReordered(StringBuilder)", "<" + expected,
+                                 reused.writeReordered(options[k], sb).toString());
+                    int length = reused.writeReordered(options[k], dest, 3);
+                    assertEquals(msg + " writeReordered(char[])", expected,
+                                 new String(dest, 3, length));
+                }
+            }
+        }
+
+        // Pure LTR text is unidirectional at paragraph level 0.
+        reused.setPara("Left-to-right, 100%", Bidi.LEVEL_DEFAULT_LTR, null);
+        assertEquals("LTR direction", Bidi.LTR, reused.getDirection());
+        assertEquals("LTR paraLevel", 0, reused.getParaLevel());
+        assertEquals("LTR runs", 1, reused.countRuns());
+
+        // The char[] destination must be large enough.
+        reused.setPara("abc \u05d0\u05d1", Bidi.LTR, null);
+        try {
+            reused.writeReordered(0, new char[6], 1);
+            errln("writeReordered(char[]) did not detect a too-small destination");
+        } catch (IndexOutOfBoundsException e) {
+            assertEquals("required length", "6", e.getMessage());
+        }
+    }
 
     public static void main(String[] args) {
         try {
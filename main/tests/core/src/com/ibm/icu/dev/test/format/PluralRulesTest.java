@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 2007-2014, International Business Machines Corporation and
+ * Copyright (C) 2007-2015, International Business Machines Corporation and
  * others. All Rights Reserved.
  *******************************************************************************
  */
@@ -757,6 +757,48 @@ public class PluralRulesTest extends TestFmwk {
         }
     }
 
+    public void TestSelectLong() throws ParseException {
+        String[] descriptions = {
+                "one: i = 1 and v = 0",
+                "zero: n = 0; one: i = 0,1 and n != 0",
+                "one: v = 0 and i % 10 = 1 and i % 100 != 11 or f % 10 = 1 and f % 100 != 11",
+                "one: v = 0 and i % 10 = 1 and i % 100 != 11; few: v = 0 and i % 10 = 2..4 and i % 100 != 12..14; "
+                        + "many: v = 0 and i % 10 = 0 or v = 0 and i % 10 = 5..9 or v = 0 and i % 100 = 11..14",
+                "zero: n = 0; one: n = 1; two: n = 2; few: n % 100 = 3..10; many: n % 100 = 11..99",
+                "one: n within 0..2 and n != 2",
+                "one: n = 0..1 or n = 11..99; two: w = 2, 3; few: f = 5,7..9 and t != 5",
+                "one: j = 1",
+        };
+        long[] mantissas = { 0, 1, 2, 3, 5, 10, 11, 12, 21, 22, 25, 100, 101, 111, 1000, 1005, 1010, 12345,
+                -1, -2, -11, -21, -1005, Long.MAX_VALUE, Long.MIN_VALUE };
+        for (String description : descriptions) {
+            PluralRules rules = PluralRules.parseDescription(description);
+            for (long mantissa : mantissas) {
+                for (int scale = 0; scale <= 4; scale++) {
+                    long pow = (long) Math.pow(10, scale);
+                    FixedDecimal fd = new FixedDecimal((double) mantissa / pow, scale, Math.abs(mantissa % pow));
+                    assertEquals(description + ": " + mantissa + " scale " + scale,
+                            rules.select(fd), rules.select(mantissa, scale));
+                }
+                assertEquals(description + ": " + mantissa, rules.select(new FixedDecimal((double) mantissa)),
+                        rules.select((double) mantissa));
+                if (Math.abs(mantissa) < 1000000) {
+                    assertEquals(description + ": " + mantissa, rules.select((double) mantissa),
+                            rules.select(mantissa));
+                }
+            }
+        }
+        PluralRules rules = PluralRules.parseDescription("one: i = 1 and v = 0");
+        assertEquals("1", "one", rules.select(1L));
+        assertEquals("1.0", "other", rules.select(10, 1));
+        try {
+            rules.select(1, -1);
+            errln("select(long, int) should throw for a negative scale");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
     public void TestLimitedAndSamplesConsistency() {
         for (ULocale locale : PluralRules.getAvailableULocales()) {
             ULocale loc2 = PluralRules.getFunctionalEquivalent(locale, null);
@@ -1,6 +1,6 @@
 /*
 **********************************************************************
-* Copyright (c) 2004-2014, International Business Machines
+* Copyright (c) 2004-2015, International Business Machines
 * Corporation and others.  All Rights Reserved.
 **********************************************************************
 * Author: Alan Liu
@@ -24,6 +24,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
+import com.ibm.icu.text.CompiledMessageFormat;
 import com.ibm.icu.text.DateFormat;
 import com.ibm.icu.text.DecimalFormat;
 import com.ibm.icu.text.DecimalFormatSymbols;
@@ -1934,4 +1935,122 @@ public class TestMessageFormat extends com.ibm.icu.dev.test.TestFmwk {
         assertEquals("offset-decimals format(1)", "2.5 meters",
                 m2.format(args, result, ignore).toString());
     }
+
+    public void TestCompiledMessageFormat() {
+        // Compare with MessageFormat for the same patterns and arguments.
+        String[] patterns = {
+            "{0} has {1,plural,one{# file}other{# files}} in {2}",
+            "{0,plural,offset:1 =0{nobody}=1{{1} only}one{{1} and one other}other{{1} and # others}}",
+            "{0,selectordinal,one{#st}two{#nd}few{#rd}other{#th}} at {1,date,short}",
+            "{0,select,female{She}male{He}other{They}} said ''{1,number,#.##}''",
+            "{0,choice,0#no files|1#one file|1<{0,number,integer} files} {3}",
+            "{0,plural,offset:1 one{another meter}other{{0,number,00.#} meters}}",
+        };
+        Object[][] argsList = {
+            {"Alice", 1, "Documents"},
+            {0, "Bob"},
+            {1, "Bob"},
+            {2, "Bob"},
+            {5, "Bob"},
+            {2.5, 1.2345},
+            {"female", new Date(0)},
+            {23, new Date(0)},
+            {null, "x"},
+            {},
+        };
+        for (String pattern : patterns) {
+            MessageFormat mf = new MessageFormat(pattern, ULocale.ENGLISH);
+            CompiledMessageFormat cmf = new CompiledMessageFormat(mf);
+            for (Object[] args : argsList) {
+                String expected;
+                try {
+                    expected = mf.format(args);
+                } catch (IllegalArgumentException e) {
+                    expected = "IllegalArgumentException";
+                }
+                String actual;
+                try {
+                    actual = cmf.format(args);
+                } catch (IllegalArgumentException e) {
+                    actual = "IllegalArgumentException";
+                }
+                assertEquals("compiled \"" + pattern + "\"", expected, actual);
+            }
+        }
+
+        // Named arguments by index and by name.
+        MessageFormat mf = new MessageFormat(
+                "{gender,select,female{{name} has {count,plural,one{# message}other{# messages}}}" +
+                "other{{name} has {count,number} messages}}", ULocale.ENGLISH);
+        CompiledMessageFormat cmf = new CompiledMessageFormat(mf);
+        assertTrue("usesNamedArguments", cmf.usesNamedArguments());
+        assertEquals("getArgumentCount", 3, cmf.getArgumentCount());
+        assertEquals("getArgumentIndex(unknown)", -1, cmf.getArgumentIndex("unknown"));
+        Object[] args = new Object[cmf.getArgumentCount()];
+        args[cmf.getArgumentIndex("gender")] = "female";
+        args[cmf.getArgumentIndex("name")] = "Ann";
+        args[cmf.getArgumentIndex("count")] = 1;
+        assertEquals("format(Object[])", "Ann has 1 message", cmf.format(args));
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("gender", "male");
+        map.put("name", "Tom");
+        map.put("count", 1234);
+        assertEquals("format(Map)", mf.format(map), cmf.format(map));
+        StringBuilder sb = new StringBuilder("> ");
+        assertEquals("format(Map, StringBuilder)", "> Tom has 1,234 messages",
+                cmf.format(map, sb).toString());
+
+        // Missing arguments
+        assertEquals("missing argument", "{name} has {count} messages",
+                cmf.format(new Object[] {"x"}));
+
+        // The compiled format is not affected by later changes to the MessageFormat.
+        MessageFormat mf2 = new MessageFormat("{0,number,#.0}", ULocale.ENGLISH);
+        CompiledMessageFormat cmf2 = new CompiledMessageFormat(mf2);
+        mf2.setFormatByArgumentIndex(0, NumberFormat.getPercentInstance(ULocale.ENGLISH));
+        assertEquals("snapshot of formatters", "3.5", cmf2.format(new Object[] {3.5}));
+
+        // Nor by changes to the MessageFormat's own formatter objects.
+        MessageFormat mf3 = new MessageFormat("{0,number,#.0}", ULocale.ENGLISH);
+        CompiledMessageFormat cmf3 = new CompiledMessageFormat(mf3);
+        ((DecimalFormat)mf3.getFormatsByArgumentIndex()[0]).applyPattern("#.000");
+        assertEquals("modified formatter", "3.500", mf3.format(new Object[] {3.5}));
+        assertEquals("copy of formatters", "3.5", cmf3.format(new Object[] {3.5}));
+
+        // Concurrent formatting
+        final CompiledMessageFormat shared = new CompiledMessageFormat(
+                "{0,plural,one{# day}other{# days}} ({1,number,#,##0.00})", ULocale.ENGLISH);
+        final String[] expected = new String[2000];
+        for (int i = 0; i < expected.length; ++i) {
+            expected[i] = shared.format(new Object[] {i, i * 1000.5});
+        }
+        assertEquals("plural", "1 day (1,000.50)", expected[1]);
+        final boolean[] failed = new boolean[1];
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; ++t) {
+            threads[t] = new Thread() {
+                public void run() {
+                    StringBuilder buf = new StringBuilder();
+                    for (int i = expected.length - 1; i >= 0; --i) {
+                        buf.setLength(0);
+                        shared.format(new Object[] {i, i * 1000.5}, buf);
+                        if (!buf.toString().equals(expected[i])) {
+                            synchronized (failed) {
+                                failed[0] = true;
+                            }
+                        }
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (int t = 0; t < threads.length; ++t) {
+            try {
+                threads[t].join();
+            } catch (InterruptedException e) {
+                errln("interrupted");
+            }
+        }
+        assertFalse("concurrent format", failed[0]);
+    }
 }
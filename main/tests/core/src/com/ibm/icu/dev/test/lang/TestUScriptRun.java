@@ -1,6 +1,6 @@
 /**
 *******************************************************************************
-* Copyright (C) 1999-2010, International Business Machines Corporation and    *
+* Copyright (C) 1999-2015, International Business Machines Corporation and    *
 * others. All Rights Reserved.                                                *
 *******************************************************************************
 */
@@ -427,4 +427,70 @@ public class TestUScriptRun extends TestFmwk
             }
         }
     }
+
+    public void TestItemize()
+    {
+        StringBuilder allText = new StringBuilder();
+
+        for (int i = 0; i < m_testData.length; i += 1) {
+            RunTestData[] test = m_testData[i];
+            String testString = "";
+
+            for (int run = 0; run < test.length; run += 1) {
+                testString += test[run].runText;
+            }
+
+            allText.append(testString).append(padding);
+            CheckItemize(testString, 0, testString.length());
+
+            String paddedTestString = padding + testString + padding;
+            CheckItemize(paddedTestString, padding.length(), padding.length() + testString.length());
+            CheckItemize(paddedTestString, 0, paddedTestString.length());
+        }
+
+        // Long enough for runs and surrogate pairs to cross the internal blocks.
+        String text = allText.toString();
+        for (int i = 0; i < 6; i += 1) {
+            text += text.substring(i);
+        }
+        CheckItemize(text, 0, text.length());
+        CheckItemize(text, 1, text.length() - 1);
+
+        CheckItemize("", 0, 0);
+
+        try {
+            UScript.itemize("abc", 2, 4, new int[4], new int[4]);
+            errln("UScript.itemize(\"abc\", 2, 4) did not produce an IllegalArgumentException!");
+        } catch (IllegalArgumentException iae) {
+            logln("PASS: UScript.itemize failed as expected");
+        }
+    }
+
+    private void CheckItemize(String text, int start, int limit)
+    {
+        int[] runLimits = new int[limit - start];
+        int[] runScripts = new int[limit - start];
+        int runCount = UScript.itemize(text, start, limit, runLimits, runScripts);
+        UScriptRun scriptRun = new UScriptRun(text, start, limit - start);
+        int run = 0;
+
+        while (scriptRun.next()) {
+            if (run >= runCount) {
+                errln("UScript.itemize() found only " + runCount + " runs in [" + start + ", " + limit + ")");
+                return;
+            }
+
+            if (runLimits[run] != scriptRun.getScriptLimit() || runScripts[run] != scriptRun.getScriptCode()) {
+                errln("UScript.itemize() run " + run + " in [" + start + ", " + limit + "): expected limit " +
+                      scriptRun.getScriptLimit() + " script " + UScript.getName(scriptRun.getScriptCode()) +
+                      ", got limit " + runLimits[run] + " script " + UScript.getName(runScripts[run]));
+            }
+
+            run += 1;
+        }
+
+        if (run != runCount) {
+            errln("UScript.itemize() found " + runCount + " runs in [" + start + ", " + limit + "), expected " + run);
+        }
+    }
 }
@@ -191,6 +191,15 @@ public final class UCharacterCaseTest extends TestFmwk
                   + " should be "
                   + prettify(FOLDING_EXCLUDE_SPECIAL_I_[1]));
         }
+
+        // long ASCII runs around non-ASCII text use the ASCII fastpath
+        String ascii = "Hello, World! IDNA In ASCII 0123456789 ";
+        assertEquals("foldCase(ASCII + non-ASCII, default)",
+                     "hello, world! idna in ascii 0123456789 \u03c3\u00e9 hello, world! idna in ascii 0123456789 ",
+                     UCharacter.foldCase(ascii + "\u03a3\u00c9 " + ascii, UCharacter.FOLD_CASE_DEFAULT));
+        assertEquals("foldCase(ASCII, Turkic I)",
+                     "\u0131dna \u0131n asc\u0131\u0131",
+                     UCharacter.foldCase("IDNA In ASCII", UCharacter.FOLD_CASE_EXCLUDE_SPECIAL_I));
     }
 
     /**
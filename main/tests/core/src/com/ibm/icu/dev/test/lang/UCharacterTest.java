@@ -18,6 +18,7 @@ import com.ibm.icu.impl.Norm2AllModes;
 import com.ibm.icu.impl.Normalizer2Impl;
 import com.ibm.icu.impl.PatternProps;
 import com.ibm.icu.impl.UCharacterName;
+import com.ibm.icu.impl.UCharacterNameChoice;
 import com.ibm.icu.impl.Utility;
 import com.ibm.icu.lang.UCharacter;
 import com.ibm.icu.lang.UCharacterCategory;
@@ -1246,6 +1247,39 @@ public final class UCharacterTest extends TestFmwk
         }
     }
 
+    /**
+     * Every name, including aliases, must map back to its code point, and
+     * UCharacterName.appendName() must append what getName() returns.
+     */
+    public void TestNameRoundTrip() {
+        UCharacterName names = UCharacterName.INSTANCE;
+        StringBuilder buffer = new StringBuilder("x");
+        for (int c = 0; c <= 0x10ffff; ++c) {
+            String name = UCharacter.getName(c);
+            if (name != null && UCharacter.getCharFromName(name) != c) {
+                errln("getCharFromName(getName(U+" + hex(c) + ")) = U+" +
+                        hex(UCharacter.getCharFromName(name)));
+            }
+            String alias = UCharacter.getNameAlias(c);
+            if (alias != null && UCharacter.getCharFromNameAlias(alias) != c) {
+                errln("getCharFromNameAlias(getNameAlias(U+" + hex(c) + ")) = U+" +
+                        hex(UCharacter.getCharFromNameAlias(alias)));
+            }
+            String extended = UCharacter.getExtendedName(c);
+            buffer.setLength(1);
+            if (!names.appendName(c, UCharacterNameChoice.EXTENDED_CHAR_NAME, buffer) ||
+                    !buffer.substring(1).equals(extended)) {
+                errln("appendName(U+" + hex(c) + ") != getExtendedName(): " + buffer);
+            }
+        }
+        if (UCharacter.getCharFromName("LATIN SMALL LETTER") != -1) {
+            errln("getCharFromName(LATIN SMALL LETTER) should fail (-1)");
+        }
+        if (UCharacter.getCharFromName("latin small letter a") != 0x61) {
+            errln("getCharFromName(latin small letter a) should be U+0061");
+        }
+    }
+
     /**
     * Testing name iteration
     */
@@ -3456,6 +3490,74 @@ public final class UCharacterTest extends TestFmwk
                         " but got " + UCharacter.getType(cases[i]));
     }
     
+    /* Tests the bulk methods
+     *      public static void getTypes(CharSequence s, int start, int limit, byte[] dest, int destStart)
+     *      public static void getIntPropertyValues(CharSequence s, int start, int limit, int type, int[] dest, int destStart)
+     *      public static final void getScripts(CharSequence s, int start, int limit, int[] dest, int destStart)
+     * against their per-code point counterparts.
+     */
+    public void TestBulkPropertyValues(){
+        // Latin-1, BMP, a surrogate pair, unpaired surrogates, a combining mark.
+        String s = "aZ 9\u00e9\u00ad\u0416\u0915\u0301\u4e00\ud800\udf00" +
+                   "\ud835\udc00\udc00x\ufffd\u0e01\ud83d\ude00.\ud800";
+        s = Utility.unescape(s);
+        int length = s.length();
+        int[] props = { UProperty.GENERAL_CATEGORY, UProperty.SCRIPT,
+                UProperty.LINE_BREAK, UProperty.BIDI_CLASS, UProperty.ALPHABETIC,
+                UProperty.GENERAL_CATEGORY_MASK };
+        for (int start = 0; start <= length; ++start) {
+            // Include limits that split a surrogate pair.
+            for (int limit = start; limit <= length; ++limit) {
+                byte[] types = new byte[limit - start + 2];
+                int[] scripts = new int[limit - start + 2];
+                UCharacter.getTypes(s, start, limit, types, 1);
+                UScript.getScripts(s, start, limit, scripts, 1);
+                int[][] values = new int[props.length][limit - start];
+                for (int j = 0; j < props.length; ++j) {
+                    UCharacter.getIntPropertyValues(s, start, limit, props[j], values[j], 0);
+                }
+                for (int i = start; i < limit;) {
+                    int c = Character.codePointAt(s.subSequence(0, limit), i);
+                    int count = Character.charCount(c);
+                    for (int k = i; k < i + count; ++k) {
+                        if (types[k - start + 1] != UCharacter.getType(c)) {
+                            errln("getTypes(" + start + ", " + limit + ")[" + k + "] for U+" +
+                                  hex(c) + " = " + types[k - start + 1]);
+                        }
+                        if (scripts[k - start + 1] != UScript.getScript(c)) {
+                            errln("getScripts(" + start + ", " + limit + ")[" + k + "] for U+" +
+                                  hex(c) + " = " + scripts[k - start + 1]);
+                        }
+                        for (int j = 0; j < props.length; ++j) {
+                            if (values[j][k - start] != UCharacter.getIntPropertyValue(c, props[j])) {
+                                errln("getIntPropertyValues(" + props[j] + ", " + start + ", " +
+                                      limit + ")[" + k + "] for U+" + hex(c) + " = " +
+                                      values[j][k - start]);
+                            }
+                        }
+                    }
+                    i += count;
+                }
+                if (types[0] != 0 || types[limit - start + 1] != 0 ||
+                        scripts[0] != 0 || scripts[limit - start + 1] != 0) {
+                    errln("bulk lookups wrote outside [destStart, destStart + limit - start)");
+                }
+            }
+        }
+        try {
+            UCharacter.getTypes(s, 0, length, new byte[length - 1], 0);
+            errln("getTypes() into a too-short array should throw an exception");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+        try {
+            UScript.getScripts(s, 1, length + 1, new int[length], 0);
+            errln("getScripts() beyond the end of the text should throw an exception");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+
     /* Tests the class
      *      abstract public static class XSymbolTable implements SymbolTable
      */
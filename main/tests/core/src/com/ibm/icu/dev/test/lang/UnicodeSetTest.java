@@ -1485,6 +1485,51 @@ public class UnicodeSetTest extends TestFmwk {
         checkModification(test, false);
     }
 
+    /**
+     * Test that frozen sets, which use lookup tables for all code points,
+     * agree with the inversion list for supplementary and mixed-block code points.
+     */
+    public void TestFrozenSupplementary() {
+        UnicodeSet thawed = new UnicodeSet()
+            .add(0x41, 0x5a).add(0x3001, 0x3003).add(0x4e00, 0x4e05)
+            .add(0x1f300, 0x1f320).add(0x1f600).add(0x20000, 0x2a6d6).add(0x10fffe, 0x10ffff);
+        UnicodeSet frozen = new UnicodeSet(thawed).freeze();
+        int[] probes = {
+            0x40, 0x41, 0x3000, 0x3003, 0x3004, 0x4e05, 0x4e06, 0xd800, 0xdfff,
+            0x1f2ff, 0x1f300, 0x1f320, 0x1f321, 0x1f5ff, 0x1f600, 0x1f601,
+            0x1ffff, 0x20000, 0x21234, 0x2a6d6, 0x2a6d7, 0x10fffd, 0x10ffff
+        };
+        for (int c : probes) {
+            assertEquals("frozen contains(U+" + Utility.hex(c) + ")", thawed.contains(c), frozen.contains(c));
+        }
+        String s = "AB\ud83d\ude00\ud840\udc00\u4e00x\ud83c\udf00";
+        for (SpanCondition condition : new SpanCondition[] { SpanCondition.SIMPLE, SpanCondition.NOT_CONTAINED }) {
+            for (int i = 0; i <= s.length(); ++i) {
+                assertEquals("frozen span(" + i + ", " + condition + ")",
+                        thawed.span(s, i, condition), frozen.span(s, i, condition));
+                assertEquals("frozen spanBack(" + i + ", " + condition + ")",
+                        thawed.spanBack(s, i, condition), frozen.spanBack(s, i, condition));
+            }
+        }
+        // A lead surrogate followed by a non-surrogate BMP character is not a pair.
+        UnicodeSet notSupp = new UnicodeSet(0xe000, 0xffff).add(0xd800).freeze();
+        assertEquals("frozen spanBack(lead surrogate + U+E000)", 0, notSupp.spanBack("\ud800\ue000", SpanCondition.SIMPLE));
+
+        // Repeating patterns share table blocks and words; one block differs from the others.
+        UnicodeSet periodic = new UnicodeSet();
+        for (int c = 0x10000; c < 0x30000; c += 3) {
+            periodic.add(c);
+        }
+        periodic.add(0x21001).remove(0x25000);
+        UnicodeSet frozenPeriodic = new UnicodeSet(periodic).freeze();
+        for (int c = 0; c <= 0x10ffff; ++c) {
+            if (periodic.contains(c) != frozenPeriodic.contains(c)) {
+                errln("frozen periodic set contains(U+" + Utility.hex(c) + ") differs from thawed set");
+                break;
+            }
+        }
+    }
+
     /**
      * Test Generic support
      */
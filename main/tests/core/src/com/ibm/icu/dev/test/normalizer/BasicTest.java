@@ -2711,4 +2711,39 @@ public class BasicTest extends TestFmwk {
                 "(normalizes to " + prettify(out) + ')',
                 " \u1E09", out);
     }
+
+    public void TestNormalizeQuickCheckYesFastPath() {
+        Normalizer2 nfc=Normalizer2.getNFCInstance();
+        String in="already NFC text \u00E1";
+        if(nfc.normalize(in)!=in) {
+            errln("Normalizer2.normalize(NFC string) did not return the input String");
+        }
+        StringBuilder sb=new StringBuilder("a");
+        assertEquals("normalizeSecondAndAppend() merges at the boundary",
+                     "\u00E1bc", nfc.normalizeSecondAndAppend(sb, "\u0301bc").toString());
+        sb.setLength(0);
+        assertEquals("normalizeSecondAndAppend(empty first)",
+                     "xy\u00E1", nfc.normalizeSecondAndAppend(sb, "xya\u0301").toString());
+        StringBuilder app=new StringBuilder("q");
+        nfc.normalize("ab\u0041\u030A", (Appendable)app);
+        assertEquals("normalize(Appendable) appends", "qab\u00C5", app.toString());
+    }
+
+    public void TestNormalizeAll() {
+        Normalizer2 nfd=Normalizer2.getNFDInstance();
+        CharSequence[] src={ "abc", "\u00E1", "", "\u0301x", new StringBuilder("\u1E08") };
+        StringBuilder dest=new StringBuilder("<");
+        int[] offsets=new int[src.length+1];
+        nfd.normalizeAll(src, dest, offsets);
+        assertEquals("normalizeAll() dest", "<abca\u0301\u0301xC\u0327\u0301", dest.toString());
+        int[] expected={ 1, 4, 6, 6, 8, 11 };
+        for(int i=0; i<expected.length; ++i) {
+            assertEquals("normalizeAll() offsets["+i+"]", expected[i], offsets[i]);
+        }
+        try {
+            nfd.normalizeAll(src, dest, new int[src.length]);
+            errln("normalizeAll() did not reject a too-short offsets array");
+        } catch(IllegalArgumentException expectedException) {
+        }
+    }
 }
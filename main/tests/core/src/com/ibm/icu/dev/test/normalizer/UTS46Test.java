@@ -68,6 +68,61 @@ public class UTS46Test extends TestFmwk {
         }
     }
 
+    public void TestNameToASCIIChars() {
+        IDNA.Info info=new IDNA.Info();
+        StringBuilder sb=new StringBuilder();
+        char[] dest=new char[300];
+        TestCase testCase=new TestCase();
+        for(int i=0; i<testCases.length; ++i) {
+            testCase.set(testCases[i]);
+            String input=testCase.s;
+            trans.nameToASCII(input, sb, info);
+            EnumSet<IDNA.Error> expectedErrors=EnumSet.copyOf(info.getErrors());
+            info.reset();
+            int length;
+            try {
+                length=trans.nameToASCII(input, dest, 1, info);
+            } catch(IndexOutOfBoundsException e) {
+                // Longer than dest: Retry with the required length.
+                length=Integer.parseInt(e.getMessage());
+                char[] larger=new char[length];
+                info.reset();
+                if(length<=dest.length-1 ||
+                    trans.nameToASCII(input, larger, 0, info)!=length ||
+                    !UTF16Plus.equal(sb, new String(larger, 0, length)) || !sameErrors(info, expectedErrors)
+                ) {
+                    errln(String.format("T.nameToASCII([%d] %s, char[%d]) differs from StringBuilder result",
+                                        i, testCase.s, length));
+                }
+                continue;
+            }
+            if(!UTF16Plus.equal(sb, new String(dest, 1, length)) || !sameErrors(info, expectedErrors)) {
+                errln(String.format("T.nameToASCII([%d] %s, char[]) differs from StringBuilder result",
+                                    i, testCase.s));
+            }
+        }
+        // Fastpath input, and the required length for a too-small destination.
+        assertEquals("nameToASCII(www.example.com., char[])",
+                     16, trans.nameToASCII("www.example.com.", dest, 0, info));
+        assertFalse("nameToASCII(www.example.com., char[]) errors", info.hasErrors());
+        char[] small=new char[10];
+        checkNameToASCIIOverflow("www.example.com", small, 15);
+        assertEquals("nameToASCII(char[15]) at the required length",
+                     15, trans.nameToASCII("www.example.com", new char[16], 1, info));
+        // Overflow with a result from the full processing path.
+        checkNameToASCIIOverflow("Www.Example.Com", small, 15);
+    }
+
+    private void checkNameToASCIIOverflow(String name, char[] dest, int requiredLength) {
+        try {
+            trans.nameToASCII(name, dest, 0, new IDNA.Info());
+            errln("nameToASCII("+name+", char["+dest.length+"]) did not detect a too-small destination");
+        } catch(IndexOutOfBoundsException e) {
+            assertEquals("nameToASCII("+name+") required length", Integer.toString(requiredLength), e.getMessage());
+        }
+        assertEquals("nameToASCII("+name+") does not write", 0, dest[0]);
+    }
+
     public void TestNotSTD3() {
         IDNA not3=IDNA.getUTS46Instance(IDNA.CHECK_BIDI);
         String input="\u0000A_2+2=4\n.e\u00DFen.net";
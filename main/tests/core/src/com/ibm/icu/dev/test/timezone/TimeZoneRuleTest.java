@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 2007-2011, International Business Machines Corporation and    *
+ * Copyright (C) 2007-2015, International Business Machines Corporation and    *
  * others. All Rights Reserved.                                                *
  *******************************************************************************
  */
@@ -13,7 +13,10 @@ import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.Random;
 
 import com.ibm.icu.dev.test.TestFmwk;
 import com.ibm.icu.util.AnnualTimeZoneRule;
@@ -336,6 +339,148 @@ public class TimeZoneRuleTest extends TestFmwk {
         }
     }
 
+    /*
+     * Check historical offsets around every transition of zones with long
+     * histories, looking them up in ascending, descending and alternating
+     * order so that both the transition search and the reuse of the last
+     * found transition interval are exercised.
+     */
+    public void TestOlsonHistoricalOffsets() {
+        String[] zids = {"America/New_York", "Europe/Paris", "Asia/Tehran",
+                "Australia/Lord_Howe", "America/Sao_Paulo", "Pacific/Apia"};
+        long limit = 2145916800000L; // 2038-01-01T00:00:00Z
+        for (int i = 0; i < zids.length; i++) {
+            BasicTimeZone tz = (BasicTimeZone)TimeZone.getTimeZone(zids[i], TimeZone.TIMEZONE_ICU);
+            TimeZoneTransition[] transitions = new TimeZoneTransition[2000];
+            int count = 0;
+            TimeZoneTransition tzt = tz.getNextTransition(Long.MIN_VALUE / 2, false);
+            while (tzt != null && tzt.getTime() < limit && count < transitions.length) {
+                transitions[count++] = tzt;
+                tzt = tz.getNextTransition(tzt.getTime(), false);
+            }
+            int[] order = new int[count * 3];
+            for (int j = 0; j < count; j++) {
+                order[j] = j;
+                order[count + j] = count - 1 - j;
+                order[2 * count + j] = (j % 2 == 0) ? j / 2 : count - 1 - j / 2;
+            }
+            int[] offsets = new int[2];
+            for (int j = 0; j < order.length; j++) {
+                tzt = transitions[order[j]];
+                long time = tzt.getTime();
+                TimeZoneRule from = tzt.getFrom();
+                TimeZoneRule to = tzt.getTo();
+                tz.getOffset(time - 1, false, offsets);
+                if (offsets[0] != from.getRawOffset() || offsets[1] != from.getDSTSavings()) {
+                    errln("FAIL: Wrong offsets before the transition at " + time + " in " + zids[i]
+                            + ": " + offsets[0] + "/" + offsets[1]);
+                }
+                tz.getOffset(time, false, offsets);
+                if (offsets[0] != to.getRawOffset() || offsets[1] != to.getDSTSavings()) {
+                    errln("FAIL: Wrong offsets at the transition at " + time + " in " + zids[i]
+                            + ": " + offsets[0] + "/" + offsets[1]);
+                }
+                // Local time in the middle of a long enough interval is unambiguous
+                if (order[j] + 1 < count && transitions[order[j] + 1].getTime() - time > 4 * 24 * HOUR) {
+                    long mid = time + (transitions[order[j] + 1].getTime() - time) / 2;
+                    tz.getOffset(mid + to.getRawOffset() + to.getDSTSavings(), true, offsets);
+                    if (offsets[0] != to.getRawOffset() || offsets[1] != to.getDSTSavings()) {
+                        errln("FAIL: Wrong offsets for local time after " + time + " in " + zids[i]
+                                + ": " + offsets[0] + "/" + offsets[1]);
+                    }
+                }
+            }
+            // The first transition, also at the extreme base times.
+            TimeZoneTransition first = tz.getNextTransition(Long.MIN_VALUE, false);
+            if (first == null || count == 0 || first.getTime() != transitions[0].getTime()) {
+                errln("FAIL: getNextTransition(Long.MIN_VALUE, false) is not the first transition in " + zids[i]);
+            }
+            tzt = tz.getNextTransition(Long.MIN_VALUE, true);
+            if (tzt == null || first == null || tzt.getTime() != first.getTime()) {
+                errln("FAIL: getNextTransition(Long.MIN_VALUE, true) is not the first transition in " + zids[i]);
+            }
+            if (tz.getPreviousTransition(Long.MIN_VALUE, false) != null
+                    || tz.getPreviousTransition(Long.MIN_VALUE, true) != null) {
+                errln("FAIL: getPreviousTransition(Long.MIN_VALUE) is not null in " + zids[i]);
+            }
+        }
+    }
+
+    /*
+     * Check if BasicTimeZone#getOffsets and #toLocalMillis return the same
+     * offsets as TimeZone#getOffset for sorted and unsorted dates.
+     */
+    public void TestBulkOffsets() {
+        String[] zids = {"America/New_York", "Europe/London", "Asia/Tokyo",
+                "Australia/Lord_Howe", "America/Sao_Paulo", "Pacific/Apia", "Etc/GMT+5"};
+        List<BasicTimeZone> zones = new ArrayList<BasicTimeZone>();
+        for (int i = 0; i < zids.length; i++) {
+            BasicTimeZone tz = (BasicTimeZone)TimeZone.getTimeZone(zids[i], TimeZone.TIMEZONE_ICU);
+            zones.add(tz);
+            TimeZoneRule[] rules = tz.getTimeZoneRules();
+            RuleBasedTimeZone rbtz = new RuleBasedTimeZone(tz.getID() + "(RBTZ)",
+                    (InitialTimeZoneRule)rules[0]);
+            for (int k = 1; k < rules.length; k++) {
+                rbtz.addTransitionRule(rules[k]);
+            }
+            zones.add(rbtz);
+        }
+        zones.add(new SimpleTimeZone(-1*HOUR, "TestSTZ",
+                Calendar.SEPTEMBER, -30, -Calendar.SATURDAY, 1*HOUR, SimpleTimeZone.WALL_TIME,
+                Calendar.FEBRUARY, 2, Calendar.SUNDAY, 1*HOUR, SimpleTimeZone.WALL_TIME,
+                1*HOUR));
+        zones.add(new SimpleTimeZone(5*HOUR + 30*60*1000, "TestSTZ2"));
+
+        // Dates from 1850 to 2100 - ascending with small random steps, then shuffled
+        Random rnd = new Random(2015);
+        long[] dates = new long[20000];
+        long date = -3786825600000L; // 1850-01-01T00:00:00Z
+        for (int i = 0; i < dates.length; i++) {
+            dates[i] = date;
+            date += (long)(rnd.nextDouble() * 2 * 24 * HOUR * 365 * 250 / dates.length);
+        }
+        long[] shuffled = dates.clone();
+        for (int i = shuffled.length - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            long tmp = shuffled[i];
+            shuffled[i] = shuffled[j];
+            shuffled[j] = tmp;
+        }
+
+        int[] offsets = new int[dates.length + 2];
+        for (BasicTimeZone tz : zones) {
+            for (long[] input : new long[][] {dates, shuffled}) {
+                offsets[0] = offsets[offsets.length - 1] = 12345;
+                tz.getOffsets(input, 0, offsets, 1, input.length);
+                if (offsets[0] != 12345 || offsets[offsets.length - 1] != 12345) {
+                    errln("FAIL: getOffsets wrote outside of the range for " + tz.getID());
+                }
+                long[] local = input.clone();
+                tz.toLocalMillis(local, 0, local.length);
+                for (int i = 0; i < input.length; i++) {
+                    int expected = tz.getOffset(input[i]);
+                    if (offsets[i + 1] != expected) {
+                        errln("FAIL: getOffsets returned " + offsets[i + 1] + " for " + input[i]
+                                + " in " + tz.getID() + " - expected: " + expected);
+                        break;
+                    }
+                    if (local[i] != input[i] + expected) {
+                        errln("FAIL: toLocalMillis returned " + local[i] + " for " + input[i]
+                                + " in " + tz.getID() + " - expected: " + (input[i] + expected));
+                        break;
+                    }
+                }
+            }
+        }
+
+        try {
+            zones.get(0).getOffsets(dates, 1, offsets, 0, dates.length);
+            errln("FAIL: getOffsets did not throw IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+
     /*
      * Check if an OlsonTimeZone and its equivalent RBTZ have the exact same
      * transitions.
@@ -1916,6 +1916,37 @@ public class TimeZoneTest extends TestFmwk
 
     }
 
+    /*
+     * Mutable zones returned by getTimeZone() share read-only data with the
+     * cached system zone; modifying one must not affect the others.
+     */
+    public void TestThawedCloneIsolation() {
+        final String id = "America/New_York";
+        final long date = 1910000000000L; // 2030-07-11, covered by the final rule
+        TimeZone frozen = TimeZone.getFrozenTimeZone(id);
+        TimeZone tz1 = TimeZone.getTimeZone(id, TimeZone.TIMEZONE_ICU);
+        TimeZone tz2 = TimeZone.getTimeZone(id, TimeZone.TIMEZONE_ICU);
+        int rawOffset = frozen.getRawOffset();
+        int offset = frozen.getOffset(date);
+
+        tz1.setRawOffset(rawOffset - 3600000);
+        if (tz1.getRawOffset() != rawOffset - 3600000 || tz1.getOffset(date) != offset - 3600000) {
+            errln("Fail: setRawOffset did not change the offsets of the modified zone");
+        }
+        if (tz2.getRawOffset() != rawOffset || tz2.getOffset(date) != offset) {
+            errln("Fail: setRawOffset changed another instance of " + id);
+        }
+
+        tz2.setID("Foo/Bar");
+        TimeZone tz3 = TimeZone.getTimeZone(id, TimeZone.TIMEZONE_ICU);
+        if (!frozen.getID().equals(id) || !tz3.getID().equals(id)) {
+            errln("Fail: setID changed the cached instance of " + id);
+        }
+        if (!frozen.equals(tz3) || frozen.getRawOffset() != rawOffset || frozen.getOffset(date) != offset) {
+            errln("Fail: The cached instance of " + id + " was modified");
+        }
+    }
+
     private void checkThawed(TimeZone[] thawedZones, String zaName) {
         for (int i = 0; i < thawedZones.length; i++) {
             if (thawedZones[i].isFrozen()) {
@@ -1,6 +1,6 @@
 /*
 *******************************************************************************
-*   Copyright (C) 2011, International Business Machines
+*   Copyright (C) 2011-2015, International Business Machines
 *   Corporation and others.  All Rights Reserved.
 *******************************************************************************
 *   created on: 2011jan08
@@ -506,6 +506,14 @@ public class BytesTrieTest extends TestFmwk {
         checkNextWithState(trie, data, dataLength);
         checkNextString(trie, data, dataLength);
         checkIterator(trie, data, dataLength);
+
+        // The same trie with a first-byte table must behave identically.
+        BytesTrie indexed=trie.withFirstByteTable();
+        checkFirst(indexed, data, dataLength);
+        checkNext(indexed, data, dataLength);
+        checkNextWithState(indexed, data, dataLength);
+        checkNextString(indexed, data, dataLength);
+        checkIterator(indexed, data, dataLength);
     }
 
     private BytesTrie buildTrie(StringAndValue data[], int dataLength,
@@ -1,6 +1,6 @@
 /*
 *******************************************************************************
-*   Copyright (C) 2011, International Business Machines
+*   Copyright (C) 2011-2015, International Business Machines
 *   Corporation and others.  All Rights Reserved.
 *******************************************************************************
 *   created on: 2011jan10
@@ -630,6 +630,14 @@ public class CharsTrieTest extends TestFmwk {
         checkNextWithState(trie, data, dataLength);
         checkNextString(trie, data, dataLength);
         checkIterator(trie, data, dataLength);
+
+        // The same trie with a first-unit table must behave identically.
+        CharsTrie indexed=trie.withFirstUnitTable();
+        checkFirst(indexed, data, dataLength);
+        checkNext(indexed, data, dataLength);
+        checkNextWithState(indexed, data, dataLength);
+        checkNextString(indexed, data, dataLength);
+        checkIterator(indexed, data, dataLength);
     }
 
     private CharsTrie buildTrie(StringAndValue data[], int dataLength,
@@ -646,6 +646,49 @@ public final class ICUResourceBundleTest extends TestFmwk {
         rb.getStringWithFallback(noFallbackResource);
     }
 
+    public void TestResolvedPathMemo() {
+        ICUResourceBundle rb = (ICUResourceBundle) UResourceBundle.getBundleInstance("com/ibm/icu/dev/data/testdata","te_IN",testLoader);
+        // Repeated lookups are served from the memo of the top-level bundle
+        for (int i = 0; i < 2; i++) {
+            assertEquals("string_only_in_te", rb.getWithFallback("string_only_in_te").getString(),
+                    rb.getStringWithFallback("string_only_in_te"));
+            assertEquals("findStringWithFallback(missing)", null, rb.findStringWithFallback("no_such_key/at_all"));
+            try {
+                rb.getStringWithFallback("no_such_key/at_all");
+                errln("getStringWithFallback(missing) should throw MissingResourceException");
+            } catch (MissingResourceException e) {
+                // expected
+            }
+        }
+        // Many distinct paths, beyond the size of the memo, still resolve correctly
+        for (int i = 0; i < 300; i++) {
+            assertEquals("findStringWithFallback(missing " + i + ")", null,
+                    rb.findStringWithFallback("no_such_key/" + i));
+        }
+        assertEquals("string_only_in_te after misses", rb.getWithFallback("string_only_in_te").getString(),
+                rb.getStringWithFallback("string_only_in_te"));
+
+        ICUResourceBundle types =(ICUResourceBundle) UResourceBundle.getBundleInstance("com/ibm/icu/dev/data/testdata", "testtypes", testLoader);
+        int[] expected = new int[]{ 1, 2, 3, -3, 4, 5, 6, 7 };
+        for (int i = 0; i < 2; i++) {
+            int[] got = types.getIntVectorWithFallback("integerarray");
+            if (!Utility.arrayEquals(expected, got)) {
+                errln("Did not get the expected int vector from getIntVectorWithFallback(integerarray)");
+            }
+            // The result must not be shared with the memo
+            got[0] = 99;
+            if (!Utility.arrayEquals(new int[0], types.getIntVectorWithFallback("emptyintv"))) {
+                errln("getIntVectorWithFallback(emptyintv) did not return an empty vector");
+            }
+        }
+        try {
+            types.getIntVectorWithFallback("zerotest");
+            errln("getIntVectorWithFallback(zerotest) should throw UResourceTypeMismatchException");
+        } catch (UResourceTypeMismatchException e) {
+            // expected
+        }
+    }
+
     public void TestGetWithFallback(){
         /*
         UResourceBundle bundle =(UResourceBundle) UResourceBundle.getBundleInstance("com/ibm/icu/dev/data/testdata","te_IN");
@@ -0,0 +1,132 @@
+/*
+ *******************************************************************************
+ * Copyright (C) 2015, International Business Machines Corporation and
+ * others. All Rights Reserved.
+ *******************************************************************************
+ */
+package com.ibm.icu.dev.test.util;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import com.ibm.icu.dev.test.TestFmwk;
+import com.ibm.icu.util.ICUWarmup;
+import com.ibm.icu.util.ICUWarmup.Service;
+import com.ibm.icu.util.ULocale;
+
+/**
+ * Test of ICUWarmup
+ */
+public class ICUWarmupTest extends TestFmwk {
+
+    public static void main(String[] args) throws Exception {
+        new ICUWarmupTest().run(args);
+    }
+
+    public void TestPreload() {
+        Set<ULocale> locales = new HashSet<ULocale>();
+        locales.add(ULocale.ENGLISH);
+        locales.add(ULocale.GERMANY);
+        locales.add(ULocale.JAPAN);
+        EnumSet<Service> services = EnumSet.of(Service.RESOURCE_BUNDLE, Service.NUMBER_FORMAT,
+                Service.DATE_FORMAT, Service.BREAK_ITERATOR, Service.TIME_ZONE_NAMES, Service.PLURAL_RULES);
+
+        ICUWarmup.Report report = ICUWarmup.preload(locales, services);
+        logln("Preload: " + report);
+        for (Service service : services) {
+            Map<ULocale, Throwable> failures = report.getFailures(service);
+            for (Map.Entry<ULocale, Throwable> failure : failures.entrySet()) {
+                errln("FAIL: " + service + " could not be loaded for " + failure.getKey()
+                        + ": " + failure.getValue());
+            }
+        }
+        // Services not requested are not reported
+        assertEquals("COLLATION load time", 0L, report.getLoadTimeMillis(Service.COLLATION));
+        assertTrue("COLLATION failures", report.getFailures(Service.COLLATION).isEmpty());
+        if (report.getElapsedMillis() < 0) {
+            errln("FAIL: negative elapsed time " + report.getElapsedMillis());
+        }
+        ICUWarmup.unpin();
+    }
+
+    public void TestPreloadExecutor() {
+        Set<ULocale> locales = new HashSet<ULocale>();
+        locales.add(ULocale.FRANCE);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            ICUWarmup.Report report = ICUWarmup.preload(locales, EnumSet.of(Service.PLURAL_RULES), executor);
+            assertTrue("PLURAL_RULES failures", report.getFailures(Service.PLURAL_RULES).isEmpty());
+            // The executor is not shut down by the preload
+            assertTrue("executor is still running", !executor.isShutdown());
+        } finally {
+            executor.shutdown();
+            ICUWarmup.unpin();
+        }
+    }
+
+    public void TestPreloadInterrupted() {
+        Set<ULocale> locales = new HashSet<ULocale>();
+        locales.add(ULocale.ITALY);
+        locales.add(ULocale.KOREA);
+        // An executor which never runs its tasks
+        final List<Runnable> queued = new ArrayList<Runnable>();
+        Executor executor = new Executor() {
+            public void execute(Runnable command) {
+                queued.add(command);
+            }
+        };
+        Thread.currentThread().interrupt();
+        ICUWarmup.Report report;
+        try {
+            report = ICUWarmup.preload(locales, EnumSet.of(Service.PLURAL_RULES), executor);
+        } finally {
+            // Clear the interrupt status for the following tests
+            assertTrue("interrupt status is set again", Thread.interrupted());
+        }
+        assertEquals("PLURAL_RULES load time", 0L, report.getLoadTimeMillis(Service.PLURAL_RULES));
+        assertEquals("queued loads", 2, queued.size());
+        for (Runnable r : queued) {
+            assertTrue("queued load is cancelled", ((Future<?>) r).isCancelled());
+        }
+    }
+
+    public void TestPreloadRejected() {
+        Set<ULocale> locales = new HashSet<ULocale>();
+        locales.add(ULocale.ITALY);
+        locales.add(ULocale.KOREA);
+        // An executor which queues the first load without running it, and rejects the second
+        final List<Runnable> queued = new ArrayList<Runnable>();
+        Executor executor = new Executor() {
+            public void execute(Runnable command) {
+                if (!queued.isEmpty()) {
+                    throw new RejectedExecutionException();
+                }
+                queued.add(command);
+            }
+        };
+        try {
+            ICUWarmup.preload(locales, EnumSet.of(Service.PLURAL_RULES), executor);
+            errln("FAIL: preload() did not throw RejectedExecutionException");
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+        assertEquals("queued loads", 1, queued.size());
+        assertTrue("queued load is cancelled", ((Future<?>) queued.get(0)).isCancelled());
+    }
+
+    public void TestPreloadEmpty() {
+        ICUWarmup.Report report = ICUWarmup.preload(new HashSet<ULocale>(), EnumSet.allOf(Service.class));
+        for (Service service : Service.values()) {
+            assertEquals(service + " load time", 0L, report.getLoadTimeMillis(service));
+        }
+    }
+}
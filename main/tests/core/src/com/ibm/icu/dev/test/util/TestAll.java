@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 1996-2012, International Business Machines Corporation and
+ * Copyright (C) 1996-2015, International Business Machines Corporation and
  * others. All Rights Reserved.
  *******************************************************************************
  */
@@ -37,7 +37,8 @@ public class TestAll extends TestGroup {
             "LocaleBuilderTest",
             "LocaleMatcherTest",
             "LocalePriorityListTest",
-            "RegionTest"
+            "RegionTest",
+            "ICUWarmupTest"
         },
               "Test miscellaneous public utilities");
     }
@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 2007, International Business Machines Corporation and         *
+ * Copyright (C) 2007-2015, International Business Machines Corporation and    *
  * others. All Rights Reserved.                                                *
  *******************************************************************************
 */
@@ -9,6 +9,7 @@ package com.ibm.icu.dev.test.util;
 import java.util.Iterator;
 
 import com.ibm.icu.dev.test.TestFmwk;
+import com.ibm.icu.impl.CompactTextTrieMap;
 import com.ibm.icu.impl.TextTrieMap;
 
 public class TextTrieMapTest extends TestFmwk {
@@ -136,6 +137,120 @@ public class TextTrieMapTest extends TestFmwk {
         checkResult(itr, new Object[]{SUN, FOO, BAR});
     }
 
+    public void TestFrozen() {
+        final TextTrieMap<Integer> map = new TextTrieMap<Integer>(false);
+        for (int i = 0; i < TESTDATA.length; i++) {
+            map.put((String)TESTDATA[i][0], (Integer)TESTDATA[i][1]);
+        }
+        if (map.isFrozen()) {
+            errln("FAIL: The map is frozen before freeze()");
+        }
+        if (map.freeze() != map || !map.isFrozen()) {
+            errln("FAIL: The map is not frozen after freeze()");
+        }
+
+        try {
+            map.put("Sunday", FOO);
+            errln("FAIL: put() on a frozen map did not throw an exception");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+
+        for (int i = 0; i < TESTCASES.length; i++) {
+            checkResult(map.get((String)TESTCASES[i][0]), TESTCASES[i][1]);
+        }
+
+        // Search the frozen map from multiple threads
+        final Integer[] firstMatches = new Integer[TESTCASES.length];
+        for (int i = 0; i < TESTCASES.length; i++) {
+            Iterator<Integer> itr = map.get((String)TESTCASES[i][0]);
+            firstMatches[i] = (itr == null) ? null : itr.next();
+        }
+        final boolean[] failed = new boolean[1];
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread() {
+                public void run() {
+                    for (int n = 0; n < 1000; n++) {
+                        for (int i = 0; i < TESTCASES.length; i++) {
+                            Iterator<Integer> itr = map.get((String)TESTCASES[i][0]);
+                            Integer first = (itr == null) ? null : itr.next();
+                            if (!eql(firstMatches[i], first)) {
+                                synchronized (failed) {
+                                    failed[0] = true;
+                                }
+                            }
+                        }
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (int t = 0; t < threads.length; t++) {
+            try {
+                threads[t].join();
+            } catch (InterruptedException e) {
+                errln("FAIL: Interrupted");
+            }
+        }
+        if (failed[0]) {
+            errln("FAIL: Concurrent search on the frozen map returned a wrong result");
+        }
+    }
+
+    public void TestCompact() {
+        CompactTextTrieMap.Builder<Integer> builder = new CompactTextTrieMap.Builder<Integer>(false);
+        for (int i = 0; i < TESTDATA.length; i++) {
+            builder.put((String)TESTDATA[i][0], (Integer)TESTDATA[i][1]);
+        }
+        // Add duplicated entry
+        builder.put("Sunday", FOO);
+        CompactTextTrieMap<Integer> map = builder.build();
+
+        try {
+            builder.put("Sunday", BAR);
+            errln("FAIL: put() after build() did not throw an exception");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        logln("Test for get(CharSequence, int, int[])");
+        StringBuffer textBuf = new StringBuffer();
+        int[] matchLen = new int[1];
+        for (int i = 0; i < TESTCASES.length; i++) {
+            textBuf.setLength(0);
+            for (int j = 0; j < i; j++) {
+                textBuf.append('X');
+            }
+            textBuf.append(TESTCASES[i][0]);
+            Iterator<Integer> itr = map.get(textBuf.toString(), i, matchLen);
+            if (i == 0) {
+                checkResult(itr, new Object[]{SUN, FOO});
+            } else {
+                checkResult(itr, TESTCASES[i][1]);
+            }
+        }
+
+        logln("Test for find(CharSequence, int, ResultHandler)");
+        final StringBuilder matches = new StringBuilder();
+        map.find("Sunday, Monday", 0, new TextTrieMap.ResultHandler<Integer>() {
+            public boolean handlePrefixMatch(int len, Iterator<Integer> values) {
+                matches.append(len).append(':');
+                while (values.hasNext()) {
+                    matches.append(values.next()).append(',');
+                }
+                return true;
+            }
+        });
+        if (!matches.toString().equals("1:1,7,3:1,6:1,-1,")) {
+            errln("FAIL: Unexpected prefix matches: " + matches);
+        }
+        matchLen[0] = -1;
+        if (map.get("Xyz", 0, matchLen) != null || matchLen[0] != 0) {
+            errln("FAIL: Unexpected match for Xyz");
+        }
+    }
+
     private boolean eql(Object o1, Object o2) {
         if (o1 == null || o2 == null) {
             if (o1 == null && o2 == null) {
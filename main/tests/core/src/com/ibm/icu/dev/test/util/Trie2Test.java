@@ -19,6 +19,7 @@ import com.ibm.icu.impl.ICUBinary;
 import com.ibm.icu.impl.Trie2;
 import com.ibm.icu.impl.Trie2Writable;
 import com.ibm.icu.impl.Trie2_16;
+import com.ibm.icu.impl.Trie2_16Mapped;
 import com.ibm.icu.impl.Trie2_32;
 
 public class Trie2Test extends TestFmwk {
@@ -715,14 +716,26 @@ public class Trie2Test extends TestFmwk {
          String fileName32 = "Trie2Test." + serializedName + ".32.tri2";
          
          InputStream is = Trie2Test.class.getResourceAsStream(fileName16);
-         Trie2 trie16;
+         ByteBuffer bytes16;
          try {
-             trie16 = Trie2.createFromSerialized(ICUBinary.getByteBufferFromInputStreamAndCloseStream(is));
+             bytes16 = ICUBinary.getByteBufferFromInputStreamAndCloseStream(is);
          } finally {
              is.close();
          }
+         Trie2 trie16 = Trie2.createFromSerialized(bytes16.duplicate());
          trieGettersTest(testName, trie16, checkRanges);
 
+         // The same data, read in place from a heap and from a direct buffer.
+         Trie2_16Mapped trie16m = Trie2_16Mapped.createFromSerialized(bytes16.duplicate());
+         trieGettersTest(testName, trie16m, checkRanges);
+         assertEquals("", trie16, trie16m);
+         ByteBuffer direct16 = ByteBuffer.allocateDirect(bytes16.remaining());
+         direct16.put(bytes16.duplicate()).flip();
+         trie16m = Trie2_16Mapped.createFromSerialized(direct16);
+         assertEquals("", 0, direct16.remaining());
+         trieGettersTest(testName, trie16m, checkRanges);
+         assertEquals("", trie16, trie16m);
+
          is = Trie2Test.class.getResourceAsStream(fileName32);
          Trie2 trie32;
          try {
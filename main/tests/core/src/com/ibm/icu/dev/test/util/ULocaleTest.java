@@ -1,6 +1,6 @@
 /*
  **********************************************************************
- * Copyright (c) 2004-2014, International Business Machines
+ * Copyright (c) 2004-2015, International Business Machines
  * Corporation and others.  All Rights Reserved.
  **********************************************************************
  * Author: Alan Liu
@@ -4006,6 +4006,50 @@ public class ULocaleTest extends TestFmwk {
         }
     }
 
+    public void TestSimpleNames() {
+        final String[][] TESTIDS = {
+                // localeID, getName
+                {"en",          "en"},
+                {"en_US",       "en_US"},
+                {"en-US",       "en_US"},
+                {"zh_Hant_TW",  "zh_Hant_TW"},
+                {"zh-Hant-TW",  "zh_Hant_TW"},
+                {"sr_Latn",     "sr_Latn"},
+                {"es-419",      "es_419"},
+                {"en-us",       "en_US"},
+                {"eng_US",      "en_US"},
+                {"en_Latn-US",  "en_Latn_US"},
+                {"en-latn-us",  "en_Latn_US"},
+                {"en_USA",      "en_US"},
+        };
+        for (String[] test : TESTIDS) {
+            assertEquals("getName(" + test[0] + ")", test[1], ULocale.getName(test[0]));
+            assertEquals("new ULocale(" + test[0] + ")", test[1], new ULocale(test[0]).getName());
+        }
+
+        final String[][] TESTTAGS = {
+                // languageTag, locale
+                {"en-US",       "en_US"},
+                {"zh-Hant-TW",  "zh_Hant_TW"},
+                {"es-419",      "es_419"},
+                {"und-US",      "_US"},
+                {"sr-Latn-RS",  "sr_Latn_RS"},
+        };
+        for (String[] test : TESTTAGS) {
+            ULocale loc = ULocale.forLanguageTag(test[0]);
+            assertEquals("forLanguageTag(" + test[0] + ")", test[1], loc.getName());
+            assertEquals("toLanguageTag(" + test[0] + ")", test[0], loc.toLanguageTag());
+        }
+
+        // Instances created from the same tag or Locale are shared
+        if (ULocale.forLanguageTag("fr-CA") != ULocale.forLanguageTag("fr-CA")) {
+            errln("FAIL: forLanguageTag(\"fr-CA\") returned different instances");
+        }
+        if (ULocale.forLocale(Locale.CANADA_FRENCH) != ULocale.forLocale(Locale.CANADA_FRENCH)) {
+            errln("FAIL: forLocale(Locale.CANADA_FRENCH) returned different instances");
+        }
+    }
+
     /*
      * Test that if you use any locale without keyword that you will get a NULL
      * string returned and not throw and exception.
@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 1996-2012, International Business Machines Corporation and    *
+ * Copyright (C) 1996-2015, International Business Machines Corporation and    *
  * others. All Rights Reserved.                                                *
  *******************************************************************************
  */
@@ -3907,6 +3907,237 @@ the ::BEGIN/::END stuff)
         logln("source = " + t.getSourceSet());
         logln("target = " + t.getTargetSet());
     }
+    /*
+     * Rules are selected by the full first code point of the text, so rules
+     * whose first characters share a low byte must not interfere.
+     */
+    public void TestFirstCodePointDispatch() {
+        String rules =
+            "\u4E00 > a;" +
+            "\u0100 > b;" +
+            "\\U00020000 > c;" +
+            "[\u0150-\u0340] > d;" +
+            "x* y > e;" +
+            "\u4E01 \u4E02 > f;" +
+            "\u4E01 > g;";
+        expect(rules,
+               "\u4E00\u0100\uD840\uDC00\u0245xxy\u4E01\u4E02\u4E01\u4E03\uD840\uDD00",
+               "abcdefg\u4E03\uD840\uDD00");
+        expect(rules, "y\u0340\u0150\u0200\u4F00", "eddd\u4F00");
+    }
+
+    /*
+     * getInstance() caches parsed IDs and prototypes; the instances it
+     * returns must still be independent of each other, and the caches must
+     * follow changes to the registry.
+     */
+    public void TestInstanceCache() {
+        Transliterator.registerInstance(
+            Transliterator.createFromRules("Test-Cache", "(a)(b) > $2$1; c > C;", Transliterator.FORWARD));
+        try {
+            Transliterator t1 = Transliterator.getInstance("Test-Cache");
+            Transliterator t2 = Transliterator.getInstance("Test-Cache");
+            if (t1 == t2) {
+                errln("FAIL: getInstance() returned the same object twice");
+            }
+            t1.setFilter(new UnicodeSet("[c]"));
+            expect(t1, "abc", "abC");
+            expect(t2, "abc", "baC");
+            expect(Transliterator.getInstance("Test-Cache"), "abc", "baC");
+
+            Transliterator c = Transliterator.getInstance("Test-Cache;Lower");
+            c.getElements()[0].setFilter(new UnicodeSet("[c]"));
+            expect(Transliterator.getInstance("Test-Cache;Lower"), "abc", "bac");
+
+            Transliterator.unregister("Test-Cache");
+            Transliterator.registerInstance(
+                Transliterator.createFromRules("Test-Cache", "a > x;", Transliterator.FORWARD));
+            expect(Transliterator.getInstance("Test-Cache"), "abc", "xbc");
+        } finally {
+            Transliterator.unregister("Test-Cache");
+        }
+    }
+
+    /*
+     * Re-registering an ID while other threads instantiate it must not leave
+     * the old transliterator in the cache.
+     */
+    public void TestInstanceCacheReregister() {
+        final String id = "Test-Reregister";
+        Transliterator.registerInstance(
+            Transliterator.createFromRules(id, "a > '0';", Transliterator.FORWARD));
+        try {
+            final boolean[] done = new boolean[1];
+            final String[] errorMsg = new String[1];
+            Runnable registerer = new Runnable() {
+                public void run() {
+                    for (int i = 1; i <= 200 && errorMsg[0] == null; i++) {
+                        String output = Integer.toString(i);
+                        Transliterator.registerInstance(
+                            Transliterator.createFromRules(id, "a > '" + output + "';", Transliterator.FORWARD));
+                        String actual = Transliterator.getInstance(id).transliterate("a");
+                        if (!actual.equals(output)) {
+                            errorMsg[0] = "after registration #" + i + " got " + actual;
+                        }
+                    }
+                    synchronized (done) {
+                        done[0] = true;
+                    }
+                }
+            };
+            Runnable reader = new Runnable() {
+                public void run() {
+                    for (;;) {
+                        synchronized (done) {
+                            if (done[0]) {
+                                break;
+                            }
+                        }
+                        Transliterator.getInstance(id);
+                    }
+                }
+            };
+            TestUtil.runUntilDone(new Runnable[] { registerer, reader, reader, reader });
+            if (errorMsg[0] != null) {
+                errln("FAIL: getInstance(" + id + ") " + errorMsg[0]);
+            }
+            // Re-registering without unregistering also replaces the cached prototype.
+            Transliterator.registerInstance(
+                Transliterator.createFromRules(id, "a > x;", Transliterator.FORWARD));
+            expect(Transliterator.getInstance(id), "abc", "xbc");
+        } finally {
+            Transliterator.unregister(id);
+        }
+    }
+
+    /*
+     * A rule-based transliterator, with or without segments, may be shared
+     * among threads which transliterate their own text.
+     */
+    public void TestSharedInstanceThreads() {
+        final String[] rules = {
+                "(a)(b) > $2$1; c > C;",
+                "ab > ba; c > C;",
+        };
+        for (int i = 0; i < rules.length; i++) {
+            Transliterator t = Transliterator.createFromRules("Test-Shared", rules[i], Transliterator.FORWARD);
+            NormTranslitTask[] tasks = new NormTranslitTask[4];
+            for (int j = 0; j < tasks.length; j++) {
+                tasks[j] = new NormTranslitTask(t, "xabc", "xbaC");
+            }
+            TestUtil.runUntilDone(tasks);
+            for (int j = 0; j < tasks.length; j++) {
+                if (tasks[j].getErrorMessage() != null) {
+                    errln("FAIL: thread#" + j + " " + tasks[j].getErrorMessage());
+                    break;
+                }
+            }
+        }
+    }
+
+    /*
+     * Streaming transliteration of a long text must give the same result as
+     * transliterating the text as a whole.
+     */
+    public void TestStreaming() {
+        StringBuilder buf = new StringBuilder();
+        for (int i = 0; buf.length() < 10000; i++) {
+            buf.append("Caf\u00E9 \u00C5NGSTR\u00D6M xab ").append(i).append(" \uD801\uDC00x\u0301ab;");
+            buf.append(" \u0391\u03B8\u03AE\u03BD\u03B1 (\u041C\u043E\u0441\u043A\u0432\u0430) ");
+        }
+        String text = buf.toString();
+        Transliterator[] translits = {
+                Transliterator.getInstance("NFD; [:Nonspacing Mark:] Remove; NFC; Lower"),
+                Transliterator.getInstance("Any-Hex; Hex-Any"),
+                Transliterator.createFromRules("Test-Streaming",
+                        "x { a > y; yb > z; z } b > Z; :: Upper; Y > w;", Transliterator.FORWARD),
+                // A filter on the whole compound
+                Transliterator.getInstance("[a-z]; Any-Hex; Hex-Any"),
+                // Any-Script elements pick a transliterator per script run
+                Transliterator.getInstance("NFD; Any-Latin; Lower"),
+        };
+        for (int i = 0; i < translits.length; i++) {
+            String expected = translits[i].transliterate(text);
+            String actual = translits[i].transliterateStreaming(text);
+            if (!actual.equals(expected)) {
+                errln("FAIL: " + translits[i].getID() + ".transliterateStreaming() differs from transliterate()");
+            }
+        }
+
+        // Elements with filters of their own still stream: the recorder never
+        // sees more than a part of the text.
+        StreamingRecorder recorder = new StreamingRecorder();
+        Transliterator.registerInstance(recorder);
+        try {
+            Transliterator t = Transliterator.getInstance("[a-z] Any-Hex; [^x] Test-StreamingRecorder");
+            String actual = t.transliterateStreaming(text);
+            int streamedLength = recorder.maxLength;
+            String expected = t.transliterate(text);
+            if (!actual.equals(expected)) {
+                errln("FAIL: " + t.getID() + ".transliterateStreaming() differs from transliterate()");
+            }
+            if (streamedLength >= text.length()) {
+                errln("FAIL: " + t.getID() + ".transliterateStreaming() did not stream, saw " +
+                        streamedLength + " of " + text.length() + " chars");
+            }
+        } finally {
+            Transliterator.unregister("Test-StreamingRecorder");
+        }
+    }
+
+    /**
+     * Uppercases a-f, and records the longest text it was passed.
+     */
+    static class StreamingRecorder extends Transliterator {
+        int maxLength;
+
+        StreamingRecorder() {
+            super("Test-StreamingRecorder", null);
+        }
+
+        protected void handleTransliterate(Replaceable text, Position pos, boolean incremental) {
+            maxLength = Math.max(maxLength, pos.contextLimit - pos.contextStart);
+            for (; pos.start < pos.limit; ++pos.start) {
+                char c = text.charAt(pos.start);
+                if ('a' <= c && c <= 'f') {
+                    text.replace(pos.start, pos.start + 1, String.valueOf((char) (c - 0x20)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Check that transliterate(String), which works on an internal gap
+     * buffer, gives the same result as transliterating a ReplaceableString.
+     */
+    public void TestTransliterateStringBuffer() {
+        StringBuilder buf = new StringBuilder();
+        for (int i = 0; buf.length() < 10000; i++) {
+            buf.append("xab ").append(i).append(" \uD801\uDC00x\u0301ab \u00C5\u00DF;");
+        }
+        String text = buf.toString();
+        Transliterator[] translits = {
+                Transliterator.getInstance("Any-Hex"),
+                Transliterator.getInstance("NFD; Upper"),
+                Transliterator.createFromRules("Test-Buffer",
+                        "(a)(b) > $2 | $1 $1; a > '(a)'; ([0-9]) > &Any-Hex($1);", Transliterator.FORWARD),
+        };
+        for (int i = 0; i < translits.length; i++) {
+            ReplaceableString expected = new ReplaceableString(text);
+            translits[i].transliterate(expected);
+            String actual = translits[i].transliterate(text);
+            if (!actual.equals(expected.toString())) {
+                errln("FAIL: " + translits[i].getID() + ".transliterate(String) differs from transliterate(Replaceable)");
+            }
+            // Text with metadata takes a different path through the replacers of $n and &functions.
+            ReplaceableTest.TestReplaceable withMetaData = new ReplaceableTest.TestReplaceable(text, null);
+            translits[i].transliterate(withMetaData);
+            if (!actual.equals(withMetaData.chars.toString())) {
+                errln("FAIL: " + translits[i].getID() + ".transliterate(String) differs from transliterating text with metadata");
+            }
+        }
+    }
+
     /*
      * Test case for threading problem in NormalizationTransliterator
      * reported by ticket#5160
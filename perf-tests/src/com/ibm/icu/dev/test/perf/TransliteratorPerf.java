@@ -0,0 +1,107 @@
+/*
+ *******************************************************************************
+ * Copyright (C) 2015, International Business Machines Corporation and
+ * others. All Rights Reserved.
+ *******************************************************************************
+ */
+package com.ibm.icu.dev.test.perf;
+
+import com.ibm.icu.text.ReplaceableString;
+import com.ibm.icu.text.Transliterator;
+
+/**
+ * A class for testing the performance of rule-based transliteration of a
+ * long text with rules whose output refers to segments ($n), with and
+ * without a transliterator function applied to a segment.
+ * transliterate(String) works on an internal buffer, while
+ * transliterate(Replaceable) works on a ReplaceableString.
+ *
+ * Example invocation:
+ * java com.ibm.icu.dev.test.perf.TransliteratorPerf --passes 6 --iterations 10 SegmentsString
+ */
+public class TransliteratorPerf extends PerfTest {
+
+    /** Swaps letter pairs, and uppercases the letter after each 'x'. */
+    private static final String SEGMENT_RULES =
+        "([a-m]) ([n-z]) > $2 $1 ;" +
+        "x ([a-z]) > x &Any-Upper($1) ;";
+
+    /** Swaps letter pairs only. */
+    private static final String SWAP_RULES =
+        "([a-m]) ([n-z]) > $2 $1 ;";
+
+    Transliterator segments;
+    Transliterator swap;
+    String text;
+
+    public static void main(String[] args) throws Exception {
+        new TransliteratorPerf().run(args);
+    }
+
+    protected void setup(String[] args) {
+        segments = Transliterator.createFromRules("Test-Segments", SEGMENT_RULES, Transliterator.FORWARD);
+        swap = Transliterator.createFromRules("Test-Swap", SWAP_RULES, Transliterator.FORWARD);
+
+        // 200k characters of letters and spaces.
+        StringBuilder sb = new StringBuilder();
+        int seed = 1;
+        while (sb.length() < 200000) {
+            seed = seed * 1103515245 + 12345;
+            int r = (seed >>> 16) % 32;
+            sb.append(r < 26 ? (char)('a' + r) : ' ');
+        }
+        text = sb.toString();
+    }
+
+    PerfTest.Function testSegmentsString() {
+        return new StringFunction(segments);
+    }
+
+    PerfTest.Function testSegmentsReplaceable() {
+        return new ReplaceableFunction(segments);
+    }
+
+    PerfTest.Function testSwapString() {
+        return new StringFunction(swap);
+    }
+
+    PerfTest.Function testSwapReplaceable() {
+        return new ReplaceableFunction(swap);
+    }
+
+    private class StringFunction extends PerfTest.Function {
+        private final Transliterator translit;
+        int length;
+
+        StringFunction(Transliterator translit) {
+            this.translit = translit;
+        }
+
+        public void call() {
+            length = translit.transliterate(text).length();
+        }
+
+        public long getOperationsPerIteration() {
+            return text.length();
+        }
+    }
+
+    private class ReplaceableFunction extends PerfTest.Function {
+        private final Transliterator translit;
+        int length;
+
+        ReplaceableFunction(Transliterator translit) {
+            this.translit = translit;
+        }
+
+        public void call() {
+            ReplaceableString result = new ReplaceableString(text);
+            translit.transliterate(result);
+            length = result.length();
+        }
+
+        public long getOperationsPerIteration() {
+            return text.length();
+        }
+    }
+}
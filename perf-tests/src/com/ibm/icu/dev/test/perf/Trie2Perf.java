@@ -0,0 +1,159 @@
+/*
+ *******************************************************************************
+ * Copyright (C) 2015, International Business Machines Corporation and
+ * others. All Rights Reserved.
+ *******************************************************************************
+ */
+package com.ibm.icu.dev.test.perf;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.ibm.icu.impl.Trie2;
+import com.ibm.icu.impl.Trie2Writable;
+import com.ibm.icu.impl.Trie2_16;
+import com.ibm.icu.impl.Trie2_16Mapped;
+import com.ibm.icu.lang.UCharacter;
+import com.ibm.icu.text.UTF16;
+
+/**
+ * A class for testing Trie2 lookup performance:
+ * a Trie2_16 which copies its data into an array,
+ * compared with a Trie2_16Mapped which reads it from a heap or a direct buffer.
+ * The tries map each code point to its general category.
+ *
+ * Example invocation:
+ * java com.ibm.icu.dev.test.perf.Trie2Perf --passes 6 --iterations 300 DirectMappedGet
+ */
+public class Trie2Perf extends PerfTest {
+
+    Trie2_16 trie16;
+    Trie2_16Mapped heapTrie;
+    Trie2_16Mapped directTrie;
+    String text;
+
+    public static void main(String[] args) throws Exception {
+        new Trie2Perf().run(args);
+    }
+
+    protected void setup(String[] args) {
+        Trie2Writable trieW = new Trie2Writable(0, 0);
+        for (int cp = 0; cp <= 0x10FFFF; ++cp) {
+            int type = UCharacter.getType(cp);
+            if (type != 0) {
+                trieW.set(cp, type);
+            }
+        }
+        trie16 = trieW.toTrie2_16();
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try {
+            trie16.serialize(os);
+            byte[] serialized = os.toByteArray();
+            heapTrie = Trie2_16Mapped.createFromSerialized(ByteBuffer.wrap(serialized));
+            // Like a data file mapped on this platform, the direct buffer holds
+            // the trie in native byte order.
+            ByteBuffer direct = ByteBuffer.allocateDirect(serialized.length);
+            direct.put(toNativeOrder(serialized)).flip();
+            directTrie = Trie2_16Mapped.createFromSerialized(direct);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        // Text for the UTF-16 tests: every assigned BMP character once.
+        StringBuilder sb = new StringBuilder();
+        for (char c = 0; c < 0xFFFF; ++c) {
+            if (trie16.get(c) != 0 && !UTF16.isSurrogate(c)) {
+                sb.append(c);
+            }
+        }
+        text = sb.toString();
+    }
+
+    /**
+     * Returns a copy of a trie serialized in big endian order,
+     * swapped to the platform byte order.
+     */
+    private static byte[] toNativeOrder(byte[] serialized) {
+        byte[] result = serialized.clone();
+        if (ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN) {
+            // The 32-bit signature, followed by 16-bit header fields, index and data.
+            for (int i = 0; i < 4; ++i) {
+                result[i] = serialized[3 - i];
+            }
+            for (int i = 4; i < result.length; i += 2) {
+                result[i] = serialized[i + 1];
+                result[i + 1] = serialized[i];
+            }
+        }
+        return result;
+    }
+
+    PerfTest.Function testTrie2_16Get() {
+        return new GetFunction(trie16);
+    }
+
+    PerfTest.Function testHeapMappedGet() {
+        return new GetFunction(heapTrie);
+    }
+
+    PerfTest.Function testDirectMappedGet() {
+        return new GetFunction(directTrie);
+    }
+
+    PerfTest.Function testTrie2_16GetFromU16() {
+        return new GetFromU16Function(trie16);
+    }
+
+    PerfTest.Function testHeapMappedGetFromU16() {
+        return new GetFromU16Function(heapTrie);
+    }
+
+    PerfTest.Function testDirectMappedGetFromU16() {
+        return new GetFromU16Function(directTrie);
+    }
+
+    private static class GetFunction extends PerfTest.Function {
+        private final Trie2 trie;
+        int sum;
+
+        GetFunction(Trie2 trie) {
+            this.trie = trie;
+        }
+
+        public void call() {
+            int temp = 0;
+            for (int cp = 0; cp <= 0x10FFFF; ++cp) {
+                temp += trie.get(cp);
+            }
+            sum = temp;
+        }
+
+        public long getOperationsPerIteration() {
+            return 0x110000;
+        }
+    }
+
+    private class GetFromU16Function extends PerfTest.Function {
+        private final Trie2 trie;
+        int sum;
+
+        GetFromU16Function(Trie2 trie) {
+            this.trie = trie;
+        }
+
+        public void call() {
+            int temp = 0;
+            for (int i = 0; i < text.length(); ++i) {
+                temp += trie.getFromU16SingleLead(text.charAt(i));
+            }
+            sum = temp;
+        }
+
+        public long getOperationsPerIteration() {
+            return text.length();
+        }
+    }
+}
@@ -21,6 +21,8 @@ public class UnicodeSetPerf extends PerfTest {
     UnicodeSet testChars;
     UnicodeSetIterator it;
     UnicodeSet us;
+    UnicodeSet frozen;
+    String text;
     HashSet hs;
 
     public static void main(String[] args) throws Exception {
@@ -38,6 +40,19 @@ public class UnicodeSetPerf extends PerfTest {
         it = new UnicodeSetIterator(testChars);
         us = new UnicodeSet();
         hs = new HashSet();
+
+        // Text for the span tests: runs of set members alternating with single non-members.
+        frozen = new UnicodeSet(testChars).freeze();
+        UnicodeSet notChars = new UnicodeSet(testChars).complement();
+        StringBuilder sb = new StringBuilder();
+        int n = 0;
+        for (UnicodeSetIterator members = new UnicodeSetIterator(testChars); members.next() && sb.length() < 100000;) {
+            sb.appendCodePoint(members.codepoint);
+            if ((++n % 16) == 0 && notChars.size() > 0) {
+                sb.appendCodePoint(notChars.charAt(n % notChars.size()));
+            }
+        }
+        text = sb.toString();
     }
 
     PerfTest.Function testUnicodeSetAdd() {
@@ -100,6 +115,100 @@ public class UnicodeSetPerf extends PerfTest {
         };
     }
 
+    PerfTest.Function testFrozenUnicodeSetContains() {
+        return new PerfTest.Function() {
+            public void call() {
+                int temp = 0;
+                for (int cp = 0; cp <= 0x10FFFF; ++cp) {
+                    if (frozen.contains(cp)) {
+                        temp += cp;
+                    }
+                }
+            }
+
+            public long getOperationsPerIteration() {
+                return 0x110000;
+            }
+        };
+    }
+
+    PerfTest.Function testUnicodeSetSpan() {
+        us.clear();
+        us.set(testChars);
+
+        return new PerfTest.Function() {
+            public void call() {
+                spanAll(us);
+            }
+
+            public long getOperationsPerIteration() {
+                return text.length();
+            }
+        };
+    }
+
+    PerfTest.Function testFrozenUnicodeSetSpan() {
+        return new PerfTest.Function() {
+            public void call() {
+                spanAll(frozen);
+            }
+
+            public long getOperationsPerIteration() {
+                return text.length();
+            }
+        };
+    }
+
+    PerfTest.Function testUnicodeSetSpanBack() {
+        us.clear();
+        us.set(testChars);
+
+        return new PerfTest.Function() {
+            public void call() {
+                spanBackAll(us);
+            }
+
+            public long getOperationsPerIteration() {
+                return text.length();
+            }
+        };
+    }
+
+    PerfTest.Function testFrozenUnicodeSetSpanBack() {
+        return new PerfTest.Function() {
+            public void call() {
+                spanBackAll(frozen);
+            }
+
+            public long getOperationsPerIteration() {
+                return text.length();
+            }
+        };
+    }
+
+    private int spanAll(UnicodeSet set) {
+        int start = 0;
+        int length = text.length();
+        int spans = 0;
+        while (start < length) {
+            start = set.span(text, start, UnicodeSet.SpanCondition.SIMPLE);
+            start = set.span(text, start, UnicodeSet.SpanCondition.NOT_CONTAINED);
+            ++spans;
+        }
+        return spans;
+    }
+
+    private int spanBackAll(UnicodeSet set) {
+        int limit = text.length();
+        int spans = 0;
+        while (limit > 0) {
+            limit = set.spanBack(text, limit, UnicodeSet.SpanCondition.SIMPLE);
+            limit = set.spanBack(text, limit, UnicodeSet.SpanCondition.NOT_CONTAINED);
+            ++spans;
+        }
+        return spans;
+    }
+
     PerfTest.Function testHashSetContains() {
         hs.clear();
         it.reset();
@@ -19,11 +19,16 @@ my $TESTCLASS = 'com.ibm.icu.dev.test.perf.UnicodeSetPerf';
 my @METHODS  = (
                 ['UnicodeSetAdd',      'HashSetAdd'],
                 ['UnicodeSetContains', 'HashSetContains'],
+                ['FrozenUnicodeSetContains', 'UnicodeSetContains'],
+                ['FrozenUnicodeSetSpan', 'UnicodeSetSpan'],
+                ['FrozenUnicodeSetSpanBack', 'UnicodeSetSpanBack'],
                 ['UnicodeSetIterate',  'HashSetIterate']);
 
 # Patterns which define the set of characters used for testing.
 my @PATTERNS = (
                 '[:Lt:]',
+                '[:Ideographic:]',
+                '[[:So:]-[:Block=Basic_Latin:]]',
 #               '[:Cn:]'
                );
 